@@ -0,0 +1,125 @@
+package backend.framework;
+
+import backend.objects.GameObject;
+
+/**
+ * The rectangle of the world that is currently onscreen. It follows a target (normally the player) around, keeping it centered, but never shows anything past the edges of the world. The simulation moves the Camera once per tick; the
+ * ScreenDrawer only ever tells it how big the window is.
+ * 
+ * @author Owen Roszkowski
+ */
+public class Camera {
+
+	/**
+	 * The x position, in world coordinates, of the upper-left corner of the view.
+	 */
+	private int				x;
+
+	/**
+	 * The y position, in world coordinates, of the upper-left corner of the view.
+	 */
+	private int				y;
+
+	/**
+	 * The width of the view, in pixels. Set by whoever draws the view, so it may change from another thread at any time.
+	 */
+	private volatile int	viewWidth;
+
+	/**
+	 * The height of the view, in pixels. Set by whoever draws the view, so it may change from another thread at any time.
+	 */
+	private volatile int	viewHeight;
+
+	/**
+	 * Creates a new Camera at (0, 0) with a view of the given size.
+	 * 
+	 * @param viewWidth - The width of the view, in pixels
+	 * @param viewHeight - The height of the view, in pixels
+	 */
+	public Camera(int viewWidth, int viewHeight) {
+		x = y = 0;
+		this.viewWidth = viewWidth;
+		this.viewHeight = viewHeight;
+	}
+
+	/**
+	 * Moves the view so that the given GameObject is in the middle of it, unless that would show something outside of a world of the given size.
+	 * 
+	 * @param target - The GameObject to keep centered
+	 * @param worldWidth - The width of the world the target is in
+	 * @param worldHeight - The height of the world the target is in
+	 */
+	public void follow(GameObject target, int worldWidth, int worldHeight) {
+		x = clamp(target.getX() + target.getWidth() / 2 - viewWidth / 2, worldWidth - viewWidth);
+		y = clamp(target.getY() + target.getHeight() / 2 - viewHeight / 2, worldHeight - viewHeight);
+	}
+
+	/**
+	 * Keeps a coordinate of the view between 0 and the given maximum. If the world is smaller than the view, the view just sits at 0.
+	 * 
+	 * @param value - The coordinate to clamp
+	 * @param max - The largest the coordinate is allowed to be
+	 * @return the clamped coordinate
+	 */
+	private static int clamp(int value, int max) {
+		if (value > max) {
+			value = max;
+		}
+		if (value < 0) {
+			value = 0;
+		}
+		return value;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the x position of the upper-left corner of the view.
+	 * 
+	 * @return the view's left edge, in world coordinates
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Gets the y position of the upper-left corner of the view.
+	 * 
+	 * @return the view's top edge, in world coordinates
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Gets the width of the view.
+	 * 
+	 * @return the view's width, in pixels
+	 */
+	public int getViewWidth() {
+		return viewWidth;
+	}
+
+	/**
+	 * Gets the height of the view.
+	 * 
+	 * @return the view's height, in pixels
+	 */
+	public int getViewHeight() {
+		return viewHeight;
+	}
+
+	/**
+	 * Sets the size of the view, such as when the window is resized.
+	 * 
+	 * @param width - The new width of the view, in pixels
+	 * @param height - The new height of the view, in pixels
+	 */
+	public void setViewSize(int width, int height) {
+		viewWidth = width;
+		viewHeight = height;
+	}
+
+}
@@ -0,0 +1,104 @@
+package backend.framework;
+
+import java.util.List;
+
+import backend.objects.GameObject;
+import backend.objects.ImmovableObject;
+
+/**
+ * A grid over the whole world with one bit per cell, set if any ImmovableObject covers that cell. Since walls never move, the grid only has to be built when walls are added or removed, and checking a MovingObject against every wall in the
+ * world becomes a few bit lookups along its hitbox, no matter how many walls there are. Walls which don't line up with the cells are rounded outwards, so a wall is never smaller in the grid than it really is.
+ * 
+ * @author Owen Roszkowski
+ */
+public class CollisionGrid implements SolidCells {
+
+	/**
+	 * The default length of a side of one cell, in pixels. The built-in arena's walls are all multiples of this, so they fit the grid exactly.
+	 */
+	public static final int	DEFAULT_CELL_SIZE	= 10;
+
+	/**
+	 * The length of a side of one cell, in pixels.
+	 */
+	private final int		cellSize;
+
+	/**
+	 * The number of columns of cells.
+	 */
+	private final int		columns;
+
+	/**
+	 * The number of rows of cells.
+	 */
+	private final int		rows;
+
+	/**
+	 * One bit per cell, row after row, set if the cell is solid.
+	 */
+	private final long[]	bits;
+
+	/**
+	 * Creates a new, entirely empty CollisionGrid covering a world of the given size.
+	 * 
+	 * @param worldWidth - The width of the world, in pixels
+	 * @param worldHeight - The height of the world, in pixels
+	 * @param cellSize - The length of a side of one cell, in pixels
+	 */
+	public CollisionGrid(int worldWidth, int worldHeight, int cellSize) {
+		this.cellSize = cellSize;
+		columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+		rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+		bits = new long[(columns * rows + 63) / 64];
+	}
+
+	/**
+	 * Marks every cell covered by the given wall as solid.
+	 * 
+	 * @param wall - The ImmovableObject to add
+	 */
+	public void add(ImmovableObject wall) {
+		int c0 = Math.max(0, wall.getX() / cellSize), c1 = Math.min(columns - 1, (wall.getX() + wall.getWidth() - 1) / cellSize);
+		int r0 = Math.max(0, wall.getY() / cellSize), r1 = Math.min(rows - 1, (wall.getY() + wall.getHeight() - 1) / cellSize);
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int cell = r * columns + c;
+				bits[cell >>> 6] |= 1L << cell;
+			}
+		}
+	}
+
+	/**
+	 * Clears the grid and adds every ImmovableObject in the given list back into it. Needed after a wall is removed, since cells can be shared between walls.
+	 * 
+	 * @param objects - Every GameObject in the world. Anything that isn't an ImmovableObject is ignored.
+	 */
+	public void rebuild(List<GameObject> objects) {
+		for (int i = 0; i < bits.length; i++) {
+			bits[i] = 0;
+		}
+		for (GameObject obj : objects) {
+			if (ImmovableObject.class.isInstance(obj)) {
+				add((ImmovableObject) obj);
+			}
+		}
+	}
+
+	@Override
+	public int getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Checks whether the given cell is solid. Cells outside the world are never solid.
+	 */
+	@Override
+	public boolean isSolidCell(int cellX, int cellY) {
+		if (cellX < 0 || cellY < 0 || cellX >= columns || cellY >= rows) {
+			return false;
+		}
+		int cell = cellY * columns + cellX;
+		return (bits[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+}
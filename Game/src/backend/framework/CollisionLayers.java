@@ -0,0 +1,94 @@
+package backend.framework;
+
+/**
+ * The collision layers every GameObject belongs to, and which layers are checked against which. Most pairs of GameObjects can touch without anything happening (two enemies, two projectiles, a projectile and the enemy that fired it), so the
+ * Updator only checks a MovingObject for overlap against the layers its own layer is set to collide with here, and never even looks at the rest. Walls are kept out of the way by the Updator's solid cells, not by pairs, so nothing collides with
+ * the WALL layer here.
+ * <p>
+ * Each layer holds exactly one final class (Player, RangedEnemy, EnemyProjectile, MeleeAttack and ImmovableObject, in order), and the Updator casts to it when looping over a layer. A new kind of GameObject needs a layer of its own, and a
+ * new pair of layers needs a loop of its own in <code>Updator.findPairs()</code>.
+ * 
+ * @author Owen Roszkowski
+ */
+public class CollisionLayers {
+
+	/**
+	 * The layer of the Player.
+	 */
+	public static final byte	PLAYER		= 0;
+
+	/**
+	 * The layer of every enemy.
+	 */
+	public static final byte	ENEMY		= 1;
+
+	/**
+	 * The layer of every EnemyProjectile.
+	 */
+	public static final byte	PROJECTILE	= 2;
+
+	/**
+	 * The layer of the player's MeleeAttack.
+	 */
+	public static final byte	MELEE		= 3;
+
+	/**
+	 * The layer of every ImmovableObject.
+	 */
+	public static final byte	WALL		= 4;
+
+	/**
+	 * The number of layers.
+	 */
+	public static final int		LAYERS		= 5;
+
+	/**
+	 * For each layer, a bit mask of the layers a MovingObject in that layer is checked against. Bit <code>n</code> is set if layer <code>n</code> is checked.
+	 */
+	private static final int[]	MASKS		= new int[LAYERS];
+
+	static {
+		collide(PROJECTILE, PLAYER);
+		collide(ENEMY, MELEE);
+		// Fail as soon as the layers are loaded, rather than silently never checking a pair the Updator has no loop for
+		for (byte mover = 0; mover < LAYERS; mover++) {
+			for (byte other = 0; other < LAYERS; other++) {
+				if (collides(mover, other) && !Updator.handles(mover, other)) {
+					throw new IllegalStateException("Layer " + mover + " is set to collide with layer " + other + ", but the Updator has no contact loop for them");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets a MovingObject in one layer to be checked for overlap against every GameObject in another.
+	 * 
+	 * @param mover - The layer of the MovingObject
+	 * @param other - The layer to check it against
+	 */
+	private static void collide(byte mover, byte other) {
+		MASKS[mover] |= 1 << other;
+	}
+
+	/**
+	 * Gets the layers a MovingObject in the given layer is checked against.
+	 * 
+	 * @param layer - The layer of the MovingObject
+	 * @return a bit mask with bit <code>n</code> set if layer <code>n</code> is checked
+	 */
+	public static int getMask(byte layer) {
+		return MASKS[layer];
+	}
+
+	/**
+	 * Checks whether a MovingObject in one layer is checked for overlap against GameObjects in another.
+	 * 
+	 * @param mover - The layer of the MovingObject
+	 * @param other - The layer of the other GameObject
+	 * @return true if the pair is checked, false if it is skipped
+	 */
+	public static boolean collides(byte mover, byte other) {
+		return (MASKS[mover] & (1 << other)) != 0;
+	}
+
+}
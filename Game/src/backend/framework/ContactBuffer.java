@@ -0,0 +1,194 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+/**
+ * A list of the contacts found during one tick, each saying what kind of contact it is, which two GameObjects were involved, and how far they overlap. Finding contacts only ever adds to this list, and reacting to them is done afterwards, one
+ * kind of contact at a time, so finding them never has to change anything in the World. Like a RenderFrame, it is kept as a few flat arrays that are reused from one tick to the next.
+ * 
+ * @author Owen Roszkowski
+ */
+public class ContactBuffer {
+
+	/**
+	 * An EnemyProjectile (first) has hit the Player (second).
+	 */
+	public static final byte	PROJECTILE_HITS_PLAYER	= 0;
+
+	/**
+	 * A RangedEnemy (first) is inside a MeleeAttack (second).
+	 */
+	public static final byte	MELEE_HITS_ENEMY		= 1;
+
+	/**
+	 * A MovingObject (first) has run into something solid. There is no second GameObject.
+	 */
+	public static final byte	HITS_SOLID				= 2;
+
+	/**
+	 * The number of kinds of contact.
+	 */
+	public static final int		KINDS					= 3;
+
+	/**
+	 * The size of each array when the buffer is first made.
+	 */
+	private static final int	INITIAL_SIZE			= 64;
+
+	/**
+	 * The number of contacts in the buffer.
+	 */
+	private int					size;
+
+	/**
+	 * The kind of each contact.
+	 */
+	private byte[]				kinds;
+
+	/**
+	 * The index of the first GameObject of each contact, in the list the contacts were found in.
+	 */
+	private int[]				firsts;
+
+	/**
+	 * The index of the second GameObject of each contact, or -1 if there isn't one.
+	 */
+	private int[]				seconds;
+
+	/**
+	 * How far the two sides of each contact overlap from side to side, in pixels.
+	 */
+	private int[]				depthsX;
+
+	/**
+	 * How far the two sides of each contact overlap from top to bottom, in pixels.
+	 */
+	private int[]				depthsY;
+
+	/**
+	 * Creates a new, empty ContactBuffer.
+	 */
+	public ContactBuffer() {
+		size = 0;
+		kinds = new byte[INITIAL_SIZE];
+		firsts = new int[INITIAL_SIZE];
+		seconds = new int[INITIAL_SIZE];
+		depthsX = new int[INITIAL_SIZE];
+		depthsY = new int[INITIAL_SIZE];
+	}
+
+	/**
+	 * Empties this buffer so it can be refilled for another tick. The backing arrays are kept.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Adds one contact to the end of this buffer.
+	 * 
+	 * @param kind - The kind of contact (one of ContactBuffer.PROJECTILE_HITS_PLAYER, MELEE_HITS_ENEMY or HITS_SOLID)
+	 * @param first - The index of the first GameObject involved
+	 * @param second - The index of the second GameObject involved, or -1 if there isn't one
+	 * @param depthX - How far the two overlap from side to side
+	 * @param depthY - How far the two overlap from top to bottom
+	 */
+	public void add(byte kind, int first, int second, int depthX, int depthY) {
+		if (size == kinds.length) {
+			grow();
+		}
+		kinds[size] = kind;
+		firsts[size] = first;
+		seconds[size] = second;
+		depthsX[size] = depthX;
+		depthsY[size] = depthY;
+		size++;
+	}
+
+	/**
+	 * Makes sure this buffer can hold at least the given number of contacts without growing.
+	 * 
+	 * @param capacity - The number of contacts to make room for
+	 */
+	public void ensureCapacity(int capacity) {
+		while (kinds.length < capacity) {
+			grow();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of every backing array. Only happens while the number of contacts per tick is still climbing, so a steady tick never allocates.
+	 */
+	private void grow() {
+		int capacity = kinds.length * 2;
+		kinds = Arrays.copyOf(kinds, capacity);
+		firsts = Arrays.copyOf(firsts, capacity);
+		seconds = Arrays.copyOf(seconds, capacity);
+		depthsX = Arrays.copyOf(depthsX, capacity);
+		depthsY = Arrays.copyOf(depthsY, capacity);
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of contacts in this buffer.
+	 * 
+	 * @return the number of contacts found so far this tick
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the kind of a contact.
+	 * 
+	 * @param i - The index of the contact
+	 * @return one of ContactBuffer.PROJECTILE_HITS_PLAYER, MELEE_HITS_ENEMY or HITS_SOLID
+	 */
+	public byte getKind(int i) {
+		return kinds[i];
+	}
+
+	/**
+	 * Gets the first GameObject of a contact.
+	 * 
+	 * @param i - The index of the contact
+	 * @return the index of the first GameObject involved
+	 */
+	public int getFirst(int i) {
+		return firsts[i];
+	}
+
+	/**
+	 * Gets the second GameObject of a contact.
+	 * 
+	 * @param i - The index of the contact
+	 * @return the index of the second GameObject involved, or -1 if there isn't one
+	 */
+	public int getSecond(int i) {
+		return seconds[i];
+	}
+
+	/**
+	 * Gets how far the two sides of a contact overlap from side to side.
+	 * 
+	 * @param i - The index of the contact
+	 * @return the overlap, in pixels
+	 */
+	public int getDepthX(int i) {
+		return depthsX[i];
+	}
+
+	/**
+	 * Gets how far the two sides of a contact overlap from top to bottom.
+	 * 
+	 * @param i - The index of the contact
+	 * @return the overlap, in pixels
+	 */
+	public int getDepthY(int i) {
+		return depthsY[i];
+	}
+
+}
@@ -0,0 +1,200 @@
+package backend.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import backend.objects.GameObject;
+
+/**
+ * Every GameObject in a World, each with a handle that can be held onto safely instead of a reference. A handle is a 32-bit number made of a slot index and a generation: when a GameObject is removed its slot is given a new generation and
+ * reused, so an old handle to it simply stops finding anything, rather than pointing at whatever took its place. Freed slots are reused oldest first, and only once at least MIN_FREE of them are waiting, so removals are spread over many
+ * slots and a slot's generation takes a very long time to wrap around to one an old handle still has. Adding, removing and looking up by handle all take the same time however many GameObjects there are. The GameObjects
+ * themselves are kept packed together in one list, which loses its order when something is removed (the last GameObject is moved into the gap). This class is not thread safe; World.java locks around it.
+ * 
+ * @author Owen Roszkowski
+ */
+public class EntityRegistry {
+
+	/**
+	 * A handle that never refers to anything. Every GameObject has this handle until it is added, and again once it has been removed.
+	 */
+	public static final int				NONE			= 0;
+
+	/**
+	 * The number of low bits of a handle which hold the slot index. The rest hold the generation.
+	 */
+	private static final int			INDEX_BITS		= 20;
+
+	/**
+	 * The bits of a handle which hold the slot index.
+	 */
+	private static final int			INDEX_MASK		= (1 << INDEX_BITS) - 1;
+
+	/**
+	 * The largest generation a slot can have before it wraps back around to 1.
+	 */
+	private static final int			MAX_GENERATION	= (1 << (32 - INDEX_BITS)) - 1;
+
+	/**
+	 * The fewest freed slots kept waiting before one is reused. Until there are more than this, new slots are handed out instead.
+	 */
+	private static final int			MIN_FREE		= 1024;
+
+	/**
+	 * The number of slots when the registry is first made. A power of two.
+	 */
+	private static final int			INITIAL_SIZE	= 64;
+
+	/**
+	 * Every GameObject in the registry, packed together.
+	 */
+	private final ArrayList<GameObject>	objects;
+
+	/**
+	 * The current generation of each slot. Never 0, so no live handle is ever NONE.
+	 */
+	private int[]						generations;
+
+	/**
+	 * For each slot in use, where its GameObject is in <code>objects</code>.
+	 */
+	private int[]						positions;
+
+	/**
+	 * The slots not in use, as a queue in a ring buffer, so the slot freed longest ago is reused first. Always as long as <code>generations</code>, so every slot fits.
+	 */
+	private int[]						free;
+
+	/**
+	 * Where the oldest slot in the <code>free</code> queue is.
+	 */
+	private int							freeHead;
+
+	/**
+	 * The number of slots in the <code>free</code> queue.
+	 */
+	private int							freeCount;
+
+	/**
+	 * The number of slots ever handed out. Slots past this have never been used.
+	 */
+	private int							slotCount;
+
+	/**
+	 * Creates a new, empty EntityRegistry.
+	 */
+	public EntityRegistry() {
+		objects = new ArrayList<GameObject>();
+		generations = new int[INITIAL_SIZE];
+		Arrays.fill(generations, 1);
+		positions = new int[INITIAL_SIZE];
+		free = new int[INITIAL_SIZE];
+		freeHead = freeCount = 0;
+		slotCount = 0;
+	}
+
+	/**
+	 * Adds a GameObject and gives it a handle, which it can be found by until it is removed.
+	 * 
+	 * @param obj - The GameObject to add. Must not already be in a registry.
+	 * @return the GameObject's new handle, which is also stored in it
+	 */
+	public int add(GameObject obj) {
+		int slot;
+		if (freeCount > MIN_FREE) {
+			slot = free[freeHead];
+			freeHead = (freeHead + 1) & (free.length - 1);
+			freeCount--;
+		} else {
+			if (slotCount > INDEX_MASK) {
+				throw new IllegalStateException("Too many GameObjects: " + slotCount);
+			}
+			if (slotCount == generations.length) {
+				int capacity = slotCount * 2;
+				generations = Arrays.copyOf(generations, capacity);
+				Arrays.fill(generations, slotCount, capacity, 1);
+				positions = Arrays.copyOf(positions, capacity);
+				// Unwrap the queue so it starts at the front of the bigger ring
+				int[] queue = new int[capacity];
+				for (int i = 0; i < freeCount; i++) {
+					queue[i] = free[(freeHead + i) & (free.length - 1)];
+				}
+				free = queue;
+				freeHead = 0;
+			}
+			slot = slotCount++;
+		}
+		int handle = (generations[slot] << INDEX_BITS) | slot;
+		positions[slot] = objects.size();
+		objects.add(obj);
+		obj.setHandle(handle);
+		return handle;
+	}
+
+	/**
+	 * Removes a GameObject, if it is in this registry. Its handle, and every copy of it, stops finding anything.
+	 * 
+	 * @param obj - The GameObject to remove
+	 * @return true if the GameObject was removed, false if it wasn't in this registry
+	 */
+	public boolean remove(GameObject obj) {
+		int handle = obj.getHandle();
+		if (get(handle) != obj) {
+			return false;
+		}
+		int slot = handle & INDEX_MASK;
+		int position = positions[slot];
+		GameObject last = objects.remove(objects.size() - 1);
+		if (last != obj) {
+			objects.set(position, last);
+			positions[last.getHandle() & INDEX_MASK] = position;
+		}
+		generations[slot] = (generations[slot] == MAX_GENERATION) ? 1 : generations[slot] + 1;
+		free[(freeHead + freeCount++) & (free.length - 1)] = slot;
+		obj.setHandle(NONE);
+		return true;
+	}
+
+	/**
+	 * Finds the GameObject with the given handle.
+	 * 
+	 * @param handle - The handle to look up
+	 * @return the GameObject, or null if it has been removed (or the handle is NONE)
+	 */
+	public GameObject get(int handle) {
+		int slot = handle & INDEX_MASK;
+		if (handle == NONE || slot >= slotCount || generations[slot] != handle >>> INDEX_BITS) {
+			return null;
+		}
+		return objects.get(positions[slot]);
+	}
+
+	/**
+	 * Checks whether the GameObject with the given handle is still in this registry.
+	 * 
+	 * @param handle - The handle to check
+	 * @return true if the handle still finds a GameObject, false otherwise
+	 */
+	public boolean isAlive(int handle) {
+		return get(handle) != null;
+	}
+
+	/**
+	 * Gets every GameObject in this registry, packed together in no particular order. The list must not be changed by anyone else.
+	 * 
+	 * @return the list of every GameObject in this registry
+	 */
+	public ArrayList<GameObject> getObjects() {
+		return objects;
+	}
+
+	/**
+	 * Gets the number of GameObjects in this registry.
+	 * 
+	 * @return the number of GameObjects
+	 */
+	public int size() {
+		return objects.size();
+	}
+
+}
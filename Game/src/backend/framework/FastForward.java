@@ -0,0 +1,124 @@
+package backend.framework;
+
+import world.RoundState;
+import world.World;
+
+/**
+ * Ticks one World back to back on the calling thread, with no timer between ticks and nothing drawn, so that game time goes by as fast as the simulation can run it. Where a GameLoop plays a World at Updator.RUN_PERIOD per tick for a user
+ * to watch, this plays it as fast as it will go for automated playtesting, keeping track of how many ticks per second it manages. The World is put into fast-forward for as long as it is being run (see
+ * <code>World.setFastForward()</code>).
+ * 
+ * @author Owen Roszkowski
+ */
+public class FastForward {
+
+	/**
+	 * The World being ticked.
+	 */
+	private final World	world;
+
+	/**
+	 * The number of ticks run so far.
+	 */
+	private long		ticks;
+
+	/**
+	 * How long the ticks run so far took, in nanoseconds.
+	 */
+	private long		nanos;
+
+	/**
+	 * Creates a new FastForward for the given World. Nothing is ticked until one of the run methods is called.
+	 * 
+	 * @param world - The World to tick, which should be headless and already started
+	 */
+	public FastForward(World world) {
+		this.world = world;
+		ticks = 0;
+		nanos = 0;
+	}
+
+	/**
+	 * Ticks the World a given number of times, back to back.
+	 * 
+	 * @param count - How many ticks to run
+	 * @return the number of ticks run
+	 */
+	public long runTicks(long count) {
+		boolean wasFastForward = world.isFastForward(), wasGoverned = world.governor.isEnabled();
+		world.setFastForward(true);
+		long start = System.nanoTime();
+		for (long i = 0; i < count; i++) {
+			world.tick();
+		}
+		nanos += System.nanoTime() - start;
+		ticks += count;
+		restore(wasFastForward, wasGoverned);
+		return count;
+	}
+
+	/**
+	 * Ticks the World back to back until it has played the given number of rounds to the end, the player has died, or too many ticks have gone by.
+	 * 
+	 * @param rounds - The round to play to the end of
+	 * @param maxTicks - The most ticks to run, in case the rounds never end
+	 * @return the number of ticks run
+	 */
+	public long runRounds(int rounds, long maxTicks) {
+		boolean wasFastForward = world.isFastForward(), wasGoverned = world.governor.isEnabled();
+		world.setFastForward(true);
+		long start = System.nanoTime(), count = 0;
+		while (count < maxTicks && !(world.round >= rounds && world.getState() == RoundState.COUNTDOWN) && world.player.getHealth() > 0) {
+			world.tick();
+			count++;
+		}
+		nanos += System.nanoTime() - start;
+		ticks += count;
+		restore(wasFastForward, wasGoverned);
+		return count;
+	}
+
+	/**
+	 * Puts the World back the way it was before a run. Fast-forwarding turns the TickGovernor off, and taking the World out of fast-forward turns it back on, so whether it was on is put back separately; a World whose governor was turned
+	 * off by hand keeps it off.
+	 * 
+	 * @param fastForward - Whether the World was being fast-forwarded before the run
+	 * @param governed - Whether the World's TickGovernor was on before the run
+	 */
+	private void restore(boolean fastForward, boolean governed) {
+		world.setFastForward(fastForward);
+		world.governor.setEnabled(governed);
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of ticks run so far.
+	 * 
+	 * @return the number of ticks run by every call to a run method
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets how long the ticks run so far took.
+	 * 
+	 * @return the time spent ticking, in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Gets how fast the World has been ticked so far.
+	 * 
+	 * @return the number of ticks run per second of real time, or 0 if nothing has been run
+	 */
+	public double getTicksPerSecond() {
+		return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+	}
+
+}
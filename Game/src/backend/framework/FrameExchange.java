@@ -0,0 +1,84 @@
+package backend.framework;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A triple buffer of RenderFrames shared between the simulation and the ScreenDrawer. The simulation always has a frame of its own to write into, the renderer always has a frame of its own to draw from, and the third frame sits in the middle
+ * waiting to be picked up. Neither side ever waits on the other, so simulating tick N + 1 can overlap with drawing tick N.
+ * 
+ * @author Owen Roszkowski
+ */
+public class FrameExchange {
+
+	/**
+	 * The bit set on <code>middle</code> when the frame in the middle has not been picked up by the renderer yet.
+	 */
+	private static final int	FRESH		= 4;
+
+	/**
+	 * The bits of <code>middle</code> which hold the index of the middle frame.
+	 */
+	private static final int	INDEX_MASK	= 3;
+
+	/**
+	 * The three frames being passed around.
+	 */
+	private final RenderFrame[]	frames;
+
+	/**
+	 * The index of the frame the simulation is currently writing into. Only ever touched by the simulation.
+	 */
+	private int					back;
+
+	/**
+	 * The index of the frame the renderer is currently drawing from. Only ever touched by the renderer.
+	 */
+	private int					front;
+
+	/**
+	 * The index of the frame waiting between the two, along with the FRESH bit.
+	 */
+	private final AtomicInteger	middle;
+
+	/**
+	 * Creates a new FrameExchange with three empty frames.
+	 */
+	public FrameExchange() {
+		frames = new RenderFrame[] { new RenderFrame(), new RenderFrame(), new RenderFrame() };
+		back = 0;
+		front = 1;
+		middle = new AtomicInteger(2);
+	}
+
+	/**
+	 * Gets the simulation's frame, emptied and ready to be recorded into for the given tick. Must only be called by the simulation.
+	 * 
+	 * @param tick - The tick about to be recorded
+	 * @return the frame to fill in
+	 */
+	public RenderFrame beginFrame(long tick) {
+		RenderFrame frame = frames[back];
+		frame.clear(tick);
+		return frame;
+	}
+
+	/**
+	 * Publishes the frame last handed out by <code>beginFrame()</code>, making it the one the renderer will pick up next. Must only be called by the simulation.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Gets the most recently published frame. If nothing new has been published since the last call, the same frame is returned again. Must only be called by the renderer.
+	 * 
+	 * @return the newest frame available to draw
+	 */
+	public RenderFrame latest() {
+		if ((middle.get() & FRESH) != 0) {
+			front = middle.getAndSet(front) & INDEX_MASK;
+		}
+		return frames[front];
+	}
+
+}
@@ -0,0 +1,83 @@
+package backend.framework;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import world.World;
+
+/**
+ * Ticks one World every Updator.RUN_PERIOD on a single thread which lives for as long as the game does. Round changes happen inside <code>World.tick()</code> without ever blocking, so this thread is never swapped out or restarted between rounds.
+ * This class has its own thread, so it must deal with some concurrency issues.
+ * 
+ * @author Owen Roszkowski
+ */
+public class GameLoop {
+
+	/**
+	 * The World being ticked.
+	 */
+	private final World					world;
+
+	/**
+	 * The single thread ticking the World. Null until <code>start()</code> is called.
+	 */
+	private ScheduledExecutorService	scheduler;
+
+	/**
+	 * Creates a new GameLoop for the given World. Nothing is ticked until <code>start()</code> is called.
+	 * 
+	 * @param world - The World to tick
+	 */
+	public GameLoop(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Starts ticking the World every Updator.RUN_PERIOD.
+	 */
+	public synchronized void start() {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				return new Thread(r, "Game Loop");
+			}
+
+		});
+		scheduler.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					world.tick();
+				} catch (RuntimeException e) {
+					// A tick that throws would otherwise silently cancel every tick after it
+					e.printStackTrace();
+				}
+			}
+
+		}, 0, Updator.RUN_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops ticking the World, waiting for the tick in progress (if any) to finish.
+	 */
+	public synchronized void stop() {
+		if (scheduler == null) {
+			return;
+		}
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		scheduler = null;
+	}
+
+}
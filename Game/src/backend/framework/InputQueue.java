@@ -0,0 +1,223 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+import backend.user.Player;
+
+/**
+ * Carries key presses and releases from the event dispatch thread to the simulation, and measures how long each stage of getting one onto the screen takes. Every key event is stamped as it reaches MainFrame's listener and queued; the
+ * World hands the whole queue to the player at the start of its next tick, so input is only ever applied by the thread ticking the World. The earliest input applied in a tick is then followed through until the first frame of that tick (or
+ * a later one) is painted. Four delays are kept:
+ * <ul>
+ * <li>event to listener: from the operating system's timestamp on the KeyEvent to the listener seeing it (only to the nearest millisecond), which is time spent waiting on the event dispatch thread</li>
+ * <li>input to tick: from the listener to the tick that applies it, which is time spent waiting on the GameLoop</li>
+ * <li>tick to frame: from that tick publishing its frame to the frame being painted, which is time spent waiting on the ScreenDrawer</li>
+ * <li>input to frame: from the listener to the frame being painted, the whole trip</li>
+ * </ul>
+ * 
+ * @author Owen Roszkowski
+ */
+public class InputQueue {
+
+	/**
+	 * The size of each array when the queue is first made.
+	 */
+	private static final int		INITIAL_SIZE	= 16;
+
+	/**
+	 * The number of key events waiting to be applied.
+	 */
+	private int						size;
+
+	/**
+	 * The key code of each waiting key event.
+	 */
+	private int[]					keys;
+
+	/**
+	 * Whether each waiting key event is a press (true) or a release (false).
+	 */
+	private boolean[]				presses;
+
+	/**
+	 * When each waiting key event reached the listener, from <code>System.nanoTime()</code>.
+	 */
+	private long[]					stamps;
+
+	/**
+	 * Whether an applied input is waiting for its frame to be painted.
+	 */
+	private boolean					pending;
+
+	/**
+	 * When the input waiting for its frame reached the listener, from <code>System.nanoTime()</code>.
+	 */
+	private long					pendingStamp;
+
+	/**
+	 * The number of the frame published by the tick that applied the input waiting for its frame (see RenderFrame's <code>getTick()</code>).
+	 */
+	private long					pendingFrame;
+
+	/**
+	 * When the tick that applied the input waiting for its frame published it, from <code>System.nanoTime()</code>, or 0 if it hasn't yet.
+	 */
+	private long					pendingPublished;
+
+	/**
+	 * How long key events take to reach the listener.
+	 */
+	private final LatencyHistogram	eventToListener;
+
+	/**
+	 * How long key events wait to be applied by a tick.
+	 */
+	private final LatencyHistogram	inputToTick;
+
+	/**
+	 * How long the frame of a tick that applied input waits to be painted.
+	 */
+	private final LatencyHistogram	tickToFrame;
+
+	/**
+	 * How long key events take to show up on the screen.
+	 */
+	private final LatencyHistogram	inputToFrame;
+
+	/**
+	 * Creates a new, empty InputQueue.
+	 */
+	public InputQueue() {
+		size = 0;
+		keys = new int[INITIAL_SIZE];
+		presses = new boolean[INITIAL_SIZE];
+		stamps = new long[INITIAL_SIZE];
+		pending = false;
+		eventToListener = new LatencyHistogram();
+		inputToTick = new LatencyHistogram();
+		tickToFrame = new LatencyHistogram();
+		inputToFrame = new LatencyHistogram();
+	}
+
+	/**
+	 * Queues a key event. Called by the listener, on the event dispatch thread.
+	 * 
+	 * @param key - The key code (from KeyEvent.getKeyCode())
+	 * @param press - true if the key was pressed, false if it was released
+	 * @param when - The operating system's timestamp on the event, in milliseconds (from KeyEvent.getWhen())
+	 */
+	public synchronized void add(int key, boolean press, long when) {
+		long now = System.nanoTime();
+		if (when > 0) {
+			eventToListener.record((System.currentTimeMillis() - when) * 1000000L);
+		}
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			presses = Arrays.copyOf(presses, size * 2);
+			stamps = Arrays.copyOf(stamps, size * 2);
+		}
+		keys[size] = key;
+		presses[size] = press;
+		stamps[size] = now;
+		size++;
+	}
+
+	/**
+	 * Applies every queued key event to the player, in the order they happened, and empties the queue. Called by the World at the start of a tick.
+	 * 
+	 * @param player - The player to apply the key events to
+	 * @param frame - The number of the frame this tick will publish
+	 */
+	public synchronized void apply(Player player, long frame) {
+		if (size == 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		for (int i = 0; i < size; i++) {
+			if (presses[i]) {
+				player.kbInput(keys[i]);
+			} else {
+				player.clearKbInput(keys[i]);
+			}
+			inputToTick.record(now - stamps[i]);
+		}
+		// If an earlier input is still waiting for its frame, keep following that one, since it has been waiting longest
+		if (!pending) {
+			pending = true;
+			pendingStamp = stamps[0];
+			pendingFrame = frame;
+			pendingPublished = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Records that a frame has been published. Called by the World every time it publishes one.
+	 * 
+	 * @param frame - The number of the frame just published
+	 */
+	public synchronized void published(long frame) {
+		if (pending && pendingPublished == 0 && frame >= pendingFrame) {
+			pendingPublished = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Records that a frame has been painted. If it is the first frame painted since input was applied, the rest of that input's delays are recorded. Called by the ScreenDrawer, on the event dispatch thread.
+	 * 
+	 * @param frame - The number of the frame painted
+	 */
+	public synchronized void painted(long frame) {
+		if (!pending || pendingPublished == 0 || frame < pendingFrame) {
+			return;
+		}
+		long now = System.nanoTime();
+		tickToFrame.record(now - pendingPublished);
+		inputToFrame.record(now - pendingStamp);
+		pending = false;
+	}
+
+	/**
+	 * Describes every delay, for reports.
+	 * 
+	 * @return one line per delay
+	 */
+	public synchronized String summary() {
+		return "event -> listener: " + eventToListener.summary() + "\ninput -> tick: " + inputToTick.summary() + "\ntick -> frame: " + tickToFrame.summary() + "\ninput -> frame: " + inputToFrame.summary();
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets a percentile of how long key events wait to be applied by a tick.
+	 * 
+	 * @param percent - The percentile, from 0 to 100
+	 * @return the delay, in microseconds
+	 */
+	public synchronized long getInputToTick(double percent) {
+		return inputToTick.percentile(percent);
+	}
+
+	/**
+	 * Gets a percentile of how long the frame of a tick that applied input waits to be painted.
+	 * 
+	 * @param percent - The percentile, from 0 to 100
+	 * @return the delay, in microseconds
+	 */
+	public synchronized long getTickToFrame(double percent) {
+		return tickToFrame.percentile(percent);
+	}
+
+	/**
+	 * Gets a percentile of how long key events take to show up on the screen.
+	 * 
+	 * @param percent - The percentile, from 0 to 100
+	 * @return the delay, in microseconds
+	 */
+	public synchronized long getInputToFrame(double percent) {
+		return inputToFrame.percentile(percent);
+	}
+
+}
@@ -0,0 +1,129 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many times each length of delay has happened, in buckets of 100 microseconds, so percentiles can be read off at any time without keeping every sample. Delays of MAX_MICROS or more all go in the last
+ * bucket. Not thread safe; whoever owns one locks around it.
+ * 
+ * @author Owen Roszkowski
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The width of each bucket, in microseconds.
+	 */
+	public static final int	BUCKET_MICROS	= 100;
+
+	/**
+	 * The longest delay told apart from longer ones, in microseconds.
+	 */
+	public static final int	MAX_MICROS		= 200000;
+
+	/**
+	 * The number of samples in each bucket.
+	 */
+	private final long[]	buckets;
+
+	/**
+	 * The number of samples recorded.
+	 */
+	private long			count;
+
+	/**
+	 * The longest delay recorded, in nanoseconds.
+	 */
+	private long			maxNanos;
+
+	/**
+	 * Creates a new, empty LatencyHistogram.
+	 */
+	public LatencyHistogram() {
+		buckets = new long[MAX_MICROS / BUCKET_MICROS + 1];
+		count = 0;
+		maxNanos = 0;
+	}
+
+	/**
+	 * Records one delay.
+	 * 
+	 * @param nanos - The length of the delay, in nanoseconds. Anything under 0 counts as 0.
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		buckets[(int) Math.min(buckets.length - 1, nanos / 1000 / BUCKET_MICROS)]++;
+		count++;
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+
+	/**
+	 * Forgets every sample.
+	 */
+	public void clear() {
+		Arrays.fill(buckets, 0);
+		count = 0;
+		maxNanos = 0;
+	}
+
+	/**
+	 * Works out the delay which the given percentage of samples were no longer than, to the nearest bucket.
+	 * 
+	 * @param percent - The percentile to work out, from 0 to 100
+	 * @return the upper edge of the bucket the percentile falls in, in microseconds, or 0 if nothing has been recorded
+	 */
+	public long percentile(double percent) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * percent / 100), seen = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+			if (seen >= Math.max(1, rank)) {
+				return Math.min((long) (i + 1) * BUCKET_MICROS, maxNanos / 1000);
+			}
+		}
+		return maxNanos / 1000;
+	}
+
+	/**
+	 * Describes the spread of delays, for reports.
+	 * 
+	 * @return the number of samples and the 50th, 90th and 99th percentiles and the longest delay, in milliseconds
+	 */
+	public String summary() {
+		return count + " samples, p50 " + millis(percentile(50)) + " ms, p90 " + millis(percentile(90)) + " ms, p99 " + millis(percentile(99)) + " ms, max " + millis(maxNanos / 1000) + " ms";
+	}
+
+	/**
+	 * Turns microseconds into milliseconds with one decimal place.
+	 * 
+	 * @param micros - A number of microseconds
+	 * @return the same length of time in milliseconds, as text
+	 */
+	public static String millis(long micros) {
+		return micros / 1000 + "." + micros % 1000 / 100;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of delays recorded.
+	 * 
+	 * @return the number of samples
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the longest delay recorded.
+	 * 
+	 * @return the longest delay, in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+}
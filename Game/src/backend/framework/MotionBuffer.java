@@ -0,0 +1,328 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+import backend.objects.GameObject;
+import backend.objects.MovingObject;
+
+/**
+ * The positions, velocities and hitboxes of many MovingObjects packed side by side into flat arrays, so that the work done to every one of them each tick (friction, speed limits, moving, and checking for overlap with the player) can be done in
+ * plain loops over arrays instead of one virtual call per object. The loops are kept simple, with no branches, calls or objects in them, so the JIT can run several objects per instruction with SIMD. The Updator copies its enemies and
+ * projectiles in once velocities are known, runs the loops, and copies the results back out. Like a ContactBuffer, the arrays are reused from one tick to the next.
+ * 
+ * @author Owen Roszkowski
+ */
+public class MotionBuffer {
+
+	/**
+	 * The size of each array when the buffer is first made.
+	 */
+	private static final int	INITIAL_SIZE	= 64;
+
+	/**
+	 * The number of MovingObjects in the buffer.
+	 */
+	private int					size;
+
+	/**
+	 * Each MovingObject in the buffer.
+	 */
+	private MovingObject[]		objects;
+
+	/**
+	 * The index of each MovingObject in the list it was copied in from.
+	 */
+	private int[]				indices;
+
+	/**
+	 * The 'true' x position of each MovingObject.
+	 */
+	private double[]			xs;
+
+	/**
+	 * The 'true' y position of each MovingObject.
+	 */
+	private double[]			ys;
+
+	/**
+	 * The x component of each MovingObject's velocity.
+	 */
+	private double[]			velocitiesX;
+
+	/**
+	 * The y component of each MovingObject's velocity.
+	 */
+	private double[]			velocitiesY;
+
+	/**
+	 * The left edge of each MovingObject's hitbox.
+	 */
+	private int[]				lefts;
+
+	/**
+	 * The top edge of each MovingObject's hitbox.
+	 */
+	private int[]				tops;
+
+	/**
+	 * The right edge of each MovingObject's hitbox.
+	 */
+	private int[]				rights;
+
+	/**
+	 * The bottom edge of each MovingObject's hitbox.
+	 */
+	private int[]				bottoms;
+
+	/**
+	 * Whether each MovingObject overlapped the GameObject last passed to <code>overlaps()</code>.
+	 */
+	private boolean[]			hits;
+
+	/**
+	 * Creates a new, empty MotionBuffer.
+	 */
+	public MotionBuffer() {
+		size = 0;
+		objects = new MovingObject[INITIAL_SIZE];
+		indices = new int[INITIAL_SIZE];
+		xs = new double[INITIAL_SIZE];
+		ys = new double[INITIAL_SIZE];
+		velocitiesX = new double[INITIAL_SIZE];
+		velocitiesY = new double[INITIAL_SIZE];
+		lefts = new int[INITIAL_SIZE];
+		tops = new int[INITIAL_SIZE];
+		rights = new int[INITIAL_SIZE];
+		bottoms = new int[INITIAL_SIZE];
+		hits = new boolean[INITIAL_SIZE];
+	}
+
+	/**
+	 * Empties this buffer so it can be refilled for another tick. The backing arrays are kept.
+	 */
+	public void clear() {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Copies a MovingObject's position, velocity and hitbox into the end of this buffer.
+	 * 
+	 * @param obj - The MovingObject to add
+	 * @param index - Its index in the list it came from, handed back by <code>getIndex()</code>
+	 */
+	public void add(MovingObject obj, int index) {
+		if (size == objects.length) {
+			grow();
+		}
+		objects[size] = obj;
+		indices[size] = index;
+		xs[size] = obj.getTrueX();
+		ys[size] = obj.getTrueY();
+		velocitiesX[size] = obj.getVelocity().getXComponent();
+		velocitiesY[size] = obj.getVelocity().getYComponent();
+		lefts[size] = obj.getHitX();
+		tops[size] = obj.getHitY();
+		rights[size] = lefts[size] + obj.getHitWidth();
+		bottoms[size] = tops[size] + obj.getHitHeight();
+		size++;
+	}
+
+	/**
+	 * Makes sure this buffer can hold at least the given number of MovingObjects without growing.
+	 * 
+	 * @param capacity - The number of MovingObjects to make room for
+	 */
+	public void ensureCapacity(int capacity) {
+		while (objects.length < capacity) {
+			grow();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of every backing array. Only happens while the number of MovingObjects is still climbing, so a steady tick never allocates.
+	 */
+	private void grow() {
+		int capacity = objects.length * 2;
+		objects = Arrays.copyOf(objects, capacity);
+		indices = Arrays.copyOf(indices, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		velocitiesX = Arrays.copyOf(velocitiesX, capacity);
+		velocitiesY = Arrays.copyOf(velocitiesY, capacity);
+		lefts = Arrays.copyOf(lefts, capacity);
+		tops = Arrays.copyOf(tops, capacity);
+		rights = Arrays.copyOf(rights, capacity);
+		bottoms = Arrays.copyOf(bottoms, capacity);
+		hits = Arrays.copyOf(hits, capacity);
+	}
+
+	/**
+	 * Slows some of the MovingObjects in this buffer down by friction, then limits their speed (see <code>dampen()</code>).
+	 * 
+	 * @param from - The first MovingObject to slow down
+	 * @param to - One past the last MovingObject to slow down
+	 * @param friction - How much speed each loses, in pixels per tick
+	 * @param maxSpeed - The fastest any of them may move, in pixels per tick
+	 */
+	public void dampen(int from, int to, double friction, double maxSpeed) {
+		dampen(velocitiesX, velocitiesY, from, to, friction, maxSpeed);
+	}
+
+	/**
+	 * Moves every MovingObject in this buffer along by its velocity (see <code>integrate()</code>).
+	 */
+	public void integrate() {
+		integrate(xs, ys, velocitiesX, velocitiesY, 0, size);
+	}
+
+	/**
+	 * Checks which of some of the MovingObjects in this buffer overlap a GameObject's hitbox. The answers can be read back with <code>isHit()</code>.
+	 * 
+	 * @param from - The first MovingObject to check
+	 * @param to - One past the last MovingObject to check
+	 * @param obj - The GameObject to check them against
+	 */
+	public void overlaps(int from, int to, GameObject obj) {
+		int left = obj.getHitX(), top = obj.getHitY();
+		overlaps(lefts, tops, rights, bottoms, from, to, left, top, left + obj.getHitWidth(), top + obj.getHitHeight(), hits);
+	}
+
+	/**
+	 * Copies velocities in this buffer back out to their MovingObjects.
+	 * 
+	 * @param from - The first MovingObject to copy back
+	 * @param to - One past the last MovingObject to copy back
+	 */
+	public void storeVelocities(int from, int to) {
+		for (int i = from; i < to; i++) {
+			objects[i].getVelocity().set(velocitiesX[i], velocitiesY[i]);
+		}
+	}
+
+	/**
+	 * Copies every MovingObject's velocity into this buffer again, to pick up any changes made to them since they were added.
+	 */
+	public void loadVelocities() {
+		for (int i = 0; i < size; i++) {
+			velocitiesX[i] = objects[i].getVelocity().getXComponent();
+			velocitiesY[i] = objects[i].getVelocity().getYComponent();
+		}
+	}
+
+	/**
+	 * Copies positions in this buffer back out to their MovingObjects, skipping any that have been destroyed.
+	 * 
+	 * @param destroyed - Whether each GameObject has been destroyed, by its index in the list this buffer was filled from
+	 */
+	public void storePositions(boolean[] destroyed) {
+		for (int i = 0; i < size; i++) {
+			if (!destroyed[indices[i]]) {
+				objects[i].setX(xs[i]);
+				objects[i].setY(ys[i]);
+			}
+		}
+	}
+
+	/**
+	 * Slows each velocity down by friction, stopping it if it is slower than that already, then limits it to a maximum speed. Directions never change. Does the same as MovingObject's usual <code>setMagnitude()</code> calls, but scales each
+	 * velocity instead of working out its angle, so there are no branches or trigonometry in the loop.
+	 * 
+	 * @param velocitiesX - The x component of each velocity
+	 * @param velocitiesY - The y component of each velocity
+	 * @param from - The first velocity to change
+	 * @param to - One past the last velocity to change
+	 * @param friction - How much speed each loses, in pixels per tick
+	 * @param maxSpeed - The fastest any may be, in pixels per tick
+	 */
+	public static void dampen(double[] velocitiesX, double[] velocitiesY, int from, int to, double friction, double maxSpeed) {
+		for (int i = from; i < to; i++) {
+			double speed = Math.sqrt(velocitiesX[i] * velocitiesX[i] + velocitiesY[i] * velocitiesY[i]);
+			double scale = Math.min(Math.max(speed - friction, 0), maxSpeed) / Math.max(speed, Double.MIN_VALUE);
+			velocitiesX[i] *= scale;
+			velocitiesY[i] *= scale;
+		}
+	}
+
+	/**
+	 * Adds each velocity to its position.
+	 * 
+	 * @param xs - The x position of each MovingObject
+	 * @param ys - The y position of each MovingObject
+	 * @param velocitiesX - The x component of each velocity
+	 * @param velocitiesY - The y component of each velocity
+	 * @param from - The first MovingObject to move
+	 * @param to - One past the last MovingObject to move
+	 */
+	public static void integrate(double[] xs, double[] ys, double[] velocitiesX, double[] velocitiesY, int from, int to) {
+		for (int i = from; i < to; i++) {
+			xs[i] += velocitiesX[i];
+			ys[i] += velocitiesY[i];
+		}
+	}
+
+	/**
+	 * Checks which hitboxes overlap one other hitbox by any amount, the same way GameObject's <code>overlaps()</code> does.
+	 * 
+	 * @param lefts - The left edge of each hitbox
+	 * @param tops - The top edge of each hitbox
+	 * @param rights - The right edge of each hitbox
+	 * @param bottoms - The bottom edge of each hitbox
+	 * @param from - The first hitbox to check
+	 * @param to - One past the last hitbox to check
+	 * @param left - The left edge of the hitbox to check them against
+	 * @param top - The top edge of the hitbox to check them against
+	 * @param right - The right edge of the hitbox to check them against
+	 * @param bottom - The bottom edge of the hitbox to check them against
+	 * @param hits - Filled in with whether each hitbox overlaps
+	 */
+	public static void overlaps(int[] lefts, int[] tops, int[] rights, int[] bottoms, int from, int to, int left, int top, int right, int bottom, boolean[] hits) {
+		for (int i = from; i < to; i++) {
+			hits[i] = (Math.min(rights[i], right) - Math.max(lefts[i], left) > 0) & (Math.min(bottoms[i], bottom) - Math.max(tops[i], top) > 0);
+		}
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of MovingObjects in this buffer.
+	 * 
+	 * @return the number of MovingObjects added since the last <code>clear()</code>
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets a MovingObject in this buffer.
+	 * 
+	 * @param i - Where the MovingObject is in this buffer
+	 * @return the MovingObject
+	 */
+	public MovingObject getObject(int i) {
+		return objects[i];
+	}
+
+	/**
+	 * Gets the index a MovingObject in this buffer was added with.
+	 * 
+	 * @param i - Where the MovingObject is in this buffer
+	 * @return its index in the list it came from
+	 */
+	public int getIndex(int i) {
+		return indices[i];
+	}
+
+	/**
+	 * Gets whether a MovingObject overlapped the GameObject last checked against. Only meaningful after <code>overlaps()</code>.
+	 * 
+	 * @param i - Where the MovingObject is in this buffer
+	 * @return true if their hitboxes overlapped, false otherwise
+	 */
+	public boolean isHit(int i) {
+		return hits[i];
+	}
+
+}
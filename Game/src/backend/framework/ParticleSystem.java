@@ -0,0 +1,214 @@
+package backend.framework;
+
+/**
+ * Little specks of color thrown out by hits and kills, kept entirely apart from the GameObjects of a World. Particles never collide with anything and nothing collides with them, so they never go near the Updator, the collision grids or
+ * the EntityRegistry, and a burst of a hundred of them costs the simulation nothing but a loop over some arrays.
+ * <p>
+ * Every particle is a slot in a set of flat arrays of fixed size, CAPACITY, made once along with the ParticleSystem. Slots are handed out in order, as a ring buffer: each new particle goes in the slot after the last one, wrapping around at
+ * the end. Since every particle lives about as long as the ones before it, the live ones are always bunched together between the oldest slot still in use and the next one to be handed out, so <code>update()</code> only has to go through
+ * those. If the ring is full, the oldest particle is written over. Once a particle's lifetime runs out it is dead, and is skipped until its slot comes around again. Nothing is ever made after the ParticleSystem itself, however many particles
+ * there are.
+ * <p>
+ * Particles are purely for show, so they have a random number generator of their own rather than using the World's, and a World played from a seed plays out the same with or without them.
+ * 
+ * @author Owen Roszkowski
+ */
+public class ParticleSystem {
+
+	/**
+	 * The most particles there can be at once. A power of two.
+	 */
+	public static final int		CAPACITY		= 1 << 17;
+
+	/**
+	 * The width and height of a particle, in pixels.
+	 */
+	public static final int		SIZE			= 3;
+
+	/**
+	 * The fastest a particle from a hit or kill starts out, in pixels per tick.
+	 */
+	public static final float	BURST_SPEED		= 4f;
+
+	/**
+	 * The longest a particle from a hit or kill lives, in ticks.
+	 */
+	public static final int		BURST_LIFETIME	= 50;
+
+	/**
+	 * How much of its speed a particle keeps from one tick to the next.
+	 */
+	public static final float	DRAG			= 0.9f;
+
+	/**
+	 * The bits of a slot number that wrap it around the ring.
+	 */
+	private static final int	MASK			= CAPACITY - 1;
+
+	/**
+	 * The x position of each particle.
+	 */
+	private final float[]		xs;
+
+	/**
+	 * The y position of each particle.
+	 */
+	private final float[]		ys;
+
+	/**
+	 * The x component of each particle's velocity.
+	 */
+	private final float[]		velocitiesX;
+
+	/**
+	 * The y component of each particle's velocity.
+	 */
+	private final float[]		velocitiesY;
+
+	/**
+	 * The RGB color of each particle.
+	 */
+	private final int[]			colors;
+
+	/**
+	 * The number of ticks each particle has left to live. 0 for dead particles.
+	 */
+	private final int[]			lives;
+
+	/**
+	 * The oldest slot that may still hold a live particle.
+	 */
+	private int					tail;
+
+	/**
+	 * The number of slots from <code>tail</code> on that have been handed out, live or dead.
+	 */
+	private int					span;
+
+	/**
+	 * The number of live particles, as of the last <code>update()</code> or <code>burst()</code>.
+	 */
+	private int					live;
+
+	/**
+	 * The state of this ParticleSystem's random number generator (an xorshift).
+	 */
+	private long				seed;
+
+	/**
+	 * Creates a new ParticleSystem with no particles, and room for CAPACITY of them.
+	 */
+	public ParticleSystem() {
+		xs = new float[CAPACITY];
+		ys = new float[CAPACITY];
+		velocitiesX = new float[CAPACITY];
+		velocitiesY = new float[CAPACITY];
+		colors = new int[CAPACITY];
+		lives = new int[CAPACITY];
+		tail = span = live = 0;
+		seed = 0x9E3779B97F4A7C15L;
+	}
+
+	/**
+	 * Throws out a number of particles from one point, in every direction at random.
+	 * 
+	 * @param x - The x position the particles start from
+	 * @param y - The y position the particles start from
+	 * @param count - The number of particles
+	 * @param rgb - The RGB color of the particles
+	 * @param speed - The fastest a particle starts out, in pixels per tick. Each starts somewhere between half this and this.
+	 * @param lifetime - The longest a particle lives, in ticks. Each lives somewhere between half this and this.
+	 */
+	public void burst(int x, int y, int count, int rgb, float speed, int lifetime) {
+		for (int n = 0; n < count; n++) {
+			if (span == CAPACITY) {
+				// Full, so write over the oldest particle
+				if (lives[tail] > 0) {
+					live--;
+				}
+				tail = (tail + 1) & MASK;
+				span--;
+			}
+			int i = (tail + span) & MASK;
+			span++;
+			double angle = nextFloat() * 2 * Math.PI;
+			float s = speed * (0.5f + 0.5f * nextFloat());
+			xs[i] = x;
+			ys[i] = y;
+			velocitiesX[i] = (float) Math.cos(angle) * s;
+			velocitiesY[i] = (float) Math.sin(angle) * s;
+			colors[i] = rgb;
+			lives[i] = Math.max(1, (int) (lifetime * (0.5f + 0.5f * nextFloat())));
+			live++;
+		}
+	}
+
+	/**
+	 * Moves every live particle along by one tick, slows it down, and kills it if its lifetime has run out. Then lets go of the dead slots at the old end of the ring.
+	 */
+	public void update() {
+		int alive = 0;
+		for (int n = 0; n < span; n++) {
+			int i = (tail + n) & MASK;
+			if (lives[i] > 0) {
+				xs[i] += velocitiesX[i];
+				ys[i] += velocitiesY[i];
+				velocitiesX[i] *= DRAG;
+				velocitiesY[i] *= DRAG;
+				if (--lives[i] > 0) {
+					alive++;
+				}
+			}
+		}
+		live = alive;
+		while (span > 0 && lives[tail] <= 0) {
+			tail = (tail + 1) & MASK;
+			span--;
+		}
+	}
+
+	/**
+	 * Records every live particle within a rectangle into the given frame.
+	 * 
+	 * @param frame - The RenderFrame to record into
+	 * @param left - The left edge of the rectangle, in world coordinates
+	 * @param top - The top edge of the rectangle, in world coordinates
+	 * @param width - The width of the rectangle
+	 * @param height - The height of the rectangle
+	 */
+	public void render(RenderFrame frame, int left, int top, int width, int height) {
+		float right = left + width, bottom = top + height;
+		for (int n = 0; n < span; n++) {
+			int i = (tail + n) & MASK;
+			if (lives[i] > 0 && xs[i] + SIZE > left && xs[i] < right && ys[i] + SIZE > top && ys[i] < bottom) {
+				frame.addParticle((int) xs[i], (int) ys[i], colors[i]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the next random number between 0 and 1, from an xorshift generator.
+	 * 
+	 * @return a random number, at least 0 and less than 1
+	 */
+	private float nextFloat() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 7;
+		seed ^= seed << 17;
+		return (seed >>> 40) / (float) (1 << 24);
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of live particles.
+	 * 
+	 * @return the number of particles alive as of the last update or burst
+	 */
+	public int getLive() {
+		return live;
+	}
+
+}
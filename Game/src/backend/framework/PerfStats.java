@@ -0,0 +1,310 @@
+package backend.framework;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Live numbers about how well the simulation is running, for the debug overlay. Everything here is added up by the simulation as it goes, and anything slow to read (ticks per second, the worst tick, heap use and garbage collections) is only
+ * worked out once a second, so keeping these numbers costs almost nothing. Each World keeps one, and copies it into every RenderFrame it publishes, so the ScreenDrawer never touches the simulation's copy.
+ * 
+ * @author Owen Roszkowski
+ */
+public class PerfStats {
+
+	/**
+	 * How often the once-a-second numbers are worked out, in nanoseconds.
+	 */
+	private static final long							SAMPLE_NANOS	= 1000000000L;
+
+	/**
+	 * The JVM's garbage collectors, looked up once since looking them up makes a new list.
+	 */
+	private static final List<GarbageCollectorMXBean>	COLLECTORS		= ManagementFactory.getGarbageCollectorMXBeans();
+
+	/**
+	 * The number of times the once-a-second numbers have been worked out. Lets the overlay tell when they have changed.
+	 */
+	private int											sample;
+
+	/**
+	 * The number of ticks run in the last full second.
+	 */
+	private int											ticksPerSecond;
+
+	/**
+	 * How long the last tick took, in nanoseconds.
+	 */
+	private long										lastTickNanos;
+
+	/**
+	 * How long the slowest tick of the last full second took, in nanoseconds.
+	 */
+	private long										worstTickNanos;
+
+	/**
+	 * The number of players updated in the last tick of a round.
+	 */
+	private int											players;
+
+	/**
+	 * The number of enemies updated in the last tick of a round.
+	 */
+	private int											enemies;
+
+	/**
+	 * The number of projectiles updated in the last tick of a round.
+	 */
+	private int											projectiles;
+
+	/**
+	 * The number of everything else (walls and melee attacks) in the last tick of a round.
+	 */
+	private int											others;
+
+	/**
+	 * The number of pairs of GameObjects checked for overlap in the last tick of a round.
+	 */
+	private int											pairs;
+
+	/**
+	 * The TickGovernor's level of degradation as of the last tick of a round.
+	 */
+	private int											degradation;
+
+	/**
+	 * The number of times the TickGovernor's level has changed, as of the last tick of a round.
+	 */
+	private int											degradationChanges;
+
+	/**
+	 * The number of bytes of heap in use at the last sample.
+	 */
+	private long										heapUsed;
+
+	/**
+	 * The total number of garbage collections so far, at the last sample.
+	 */
+	private long										gcCount;
+
+	/**
+	 * When the current second of samples started, from <code>System.nanoTime()</code>.
+	 */
+	private long										windowStart;
+
+	/**
+	 * The number of ticks so far in the current second.
+	 */
+	private int											windowTicks;
+
+	/**
+	 * The slowest tick so far in the current second, in nanoseconds.
+	 */
+	private long										windowWorst;
+
+	/**
+	 * Creates a new PerfStats with everything at 0.
+	 */
+	public PerfStats() {
+		windowStart = System.nanoTime();
+	}
+
+	/**
+	 * Records that a tick just finished, and works out the once-a-second numbers if a second has gone by. Must only be called by the simulation.
+	 * 
+	 * @param nanos - How long the tick took, in nanoseconds
+	 */
+	public void tickFinished(long nanos) {
+		lastTickNanos = nanos;
+		windowTicks++;
+		windowWorst = Math.max(windowWorst, nanos);
+		long now = System.nanoTime();
+		if (now - windowStart < SAMPLE_NANOS) {
+			return;
+		}
+		ticksPerSecond = (int) (windowTicks * SAMPLE_NANOS / (now - windowStart));
+		worstTickNanos = windowWorst;
+		Runtime runtime = Runtime.getRuntime();
+		heapUsed = runtime.totalMemory() - runtime.freeMemory();
+		long collections = 0;
+		for (int i = 0; i < COLLECTORS.size(); i++) {
+			collections += Math.max(0, COLLECTORS.get(i).getCollectionCount());
+		}
+		gcCount = collections;
+		windowStart = now;
+		windowTicks = 0;
+		windowWorst = 0;
+		sample++;
+	}
+
+	/**
+	 * Records how many of each kind of GameObject the Updator just went through, and how many pairs of them it checked for overlap.
+	 * 
+	 * @param players - The number of players
+	 * @param enemies - The number of enemies
+	 * @param projectiles - The number of projectiles
+	 * @param others - The number of everything else
+	 * @param pairs - The number of pairs checked for overlap
+	 */
+	public void setCounts(int players, int enemies, int projectiles, int others, int pairs) {
+		this.players = players;
+		this.enemies = enemies;
+		this.projectiles = projectiles;
+		this.others = others;
+		this.pairs = pairs;
+	}
+
+	/**
+	 * Records how much load the TickGovernor is shedding.
+	 * 
+	 * @param degradation - The governor's level
+	 * @param changes - The number of times the governor's level has changed
+	 */
+	public void setDegradation(int degradation, int changes) {
+		this.degradation = degradation;
+		degradationChanges = changes;
+	}
+
+	/**
+	 * Makes this PerfStats hold the same numbers as another. Used to hand a copy to the renderer along with each RenderFrame.
+	 * 
+	 * @param stats - The PerfStats to copy
+	 */
+	public void copyFrom(PerfStats stats) {
+		sample = stats.sample;
+		ticksPerSecond = stats.ticksPerSecond;
+		lastTickNanos = stats.lastTickNanos;
+		worstTickNanos = stats.worstTickNanos;
+		players = stats.players;
+		enemies = stats.enemies;
+		projectiles = stats.projectiles;
+		others = stats.others;
+		pairs = stats.pairs;
+		degradation = stats.degradation;
+		degradationChanges = stats.degradationChanges;
+		heapUsed = stats.heapUsed;
+		gcCount = stats.gcCount;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of times the once-a-second numbers have been worked out.
+	 * 
+	 * @return a number that goes up by one every second
+	 */
+	public int getSample() {
+		return sample;
+	}
+
+	/**
+	 * Gets the number of ticks run in the last full second.
+	 * 
+	 * @return the simulation's ticks per second
+	 */
+	public int getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	/**
+	 * Gets how long the last tick took.
+	 * 
+	 * @return the length of the last tick, in nanoseconds
+	 */
+	public long getLastTickNanos() {
+		return lastTickNanos;
+	}
+
+	/**
+	 * Gets how long the slowest tick of the last full second took.
+	 * 
+	 * @return the length of the slowest recent tick, in nanoseconds
+	 */
+	public long getWorstTickNanos() {
+		return worstTickNanos;
+	}
+
+	/**
+	 * Gets the number of players in the last tick of a round.
+	 * 
+	 * @return the number of players
+	 */
+	public int getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Gets the number of enemies in the last tick of a round.
+	 * 
+	 * @return the number of enemies
+	 */
+	public int getEnemies() {
+		return enemies;
+	}
+
+	/**
+	 * Gets the number of projectiles in the last tick of a round.
+	 * 
+	 * @return the number of projectiles
+	 */
+	public int getProjectiles() {
+		return projectiles;
+	}
+
+	/**
+	 * Gets the number of walls and melee attacks in the last tick of a round.
+	 * 
+	 * @return the number of everything other than players, enemies and projectiles
+	 */
+	public int getOthers() {
+		return others;
+	}
+
+	/**
+	 * Gets the number of pairs of GameObjects checked for overlap in the last tick of a round.
+	 * 
+	 * @return the number of pairs checked
+	 */
+	public int getPairs() {
+		return pairs;
+	}
+
+	/**
+	 * Gets how much load the TickGovernor was shedding as of the last tick of a round.
+	 * 
+	 * @return one of TickGovernor.NORMAL, CAP_PROJECTILES, DEFER_SPAWNS, SLOW_AI or COARSE_COLLISION
+	 */
+	public int getDegradation() {
+		return degradation;
+	}
+
+	/**
+	 * Gets the number of times the TickGovernor's level has changed, as of the last tick of a round.
+	 * 
+	 * @return the number of times load has been shed or given back
+	 */
+	public int getDegradationChanges() {
+		return degradationChanges;
+	}
+
+	/**
+	 * Gets the amount of heap in use at the last sample.
+	 * 
+	 * @return the number of bytes of heap in use
+	 */
+	public long getHeapUsed() {
+		return heapUsed;
+	}
+
+	/**
+	 * Gets the total number of garbage collections at the last sample.
+	 * 
+	 * @return the number of garbage collections since the JVM started
+	 */
+	public long getGcCount() {
+		return gcCount;
+	}
+
+}
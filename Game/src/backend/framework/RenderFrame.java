@@ -0,0 +1,423 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+/**
+ * An immutable-once-published snapshot of everything that needs to be drawn for one tick. The simulation fills one of these in at the end of every tick and hands it to a FrameExchange, and the ScreenDrawer only ever draws from the latest
+ * published frame, so it never has to touch the live GameObjects the simulation is still changing.
+ * 
+ * Each entry is stored across a set of parallel arrays rather than as an object per entry, so a frame can be refilled every tick without allocating.
+ * 
+ * @author Owen Roszkowski
+ */
+public class RenderFrame {
+
+	/**
+	 * Shape kind of a filled rectangle (walls, the player).
+	 */
+	public static final byte	RECT			= 0;
+
+	/**
+	 * Shape kind of a filled circle (enemies, projectiles).
+	 */
+	public static final byte	OVAL			= 1;
+
+	/**
+	 * Shape kind of the player's melee attack arc.
+	 */
+	public static final byte	MELEE			= 2;
+
+	/**
+	 * How many entries a new frame has room for before it needs to grow.
+	 */
+	private static final int	INITIAL_SIZE	= 64;
+
+	/**
+	 * The tick this frame was recorded on. Used to tell a newly published frame from an old one.
+	 */
+	private long				tick;
+
+	/**
+	 * The number of entries currently in this frame.
+	 */
+	private int					size;
+
+	/**
+	 * The shape kind of each entry. One of RenderFrame.RECT, RenderFrame.OVAL or RenderFrame.MELEE.
+	 */
+	private byte[]				kinds;
+
+	/**
+	 * The x position of the upper-left corner of each entry.
+	 */
+	private int[]				xs;
+
+	/**
+	 * The y position of the upper-left corner of each entry.
+	 */
+	private int[]				ys;
+
+	/**
+	 * The width of each entry.
+	 */
+	private int[]				widths;
+
+	/**
+	 * The height of each entry.
+	 */
+	private int[]				heights;
+
+	/**
+	 * The RGB color of each entry.
+	 */
+	private int[]				colors;
+
+	/**
+	 * How far along each entry's progress ring is, between 0 and 1. A value of 1 (or anything outside (0, 1)) means no ring is drawn.
+	 */
+	private float[]				progress;
+
+	/**
+	 * The number of particles in this frame. Particles are kept apart from the other entries, since there are so many of them and all they need is a position and a color.
+	 */
+	private int					particleCount;
+
+	/**
+	 * The x position of the upper-left corner of each particle.
+	 */
+	private int[]				particleXs;
+
+	/**
+	 * The y position of the upper-left corner of each particle.
+	 */
+	private int[]				particleYs;
+
+	/**
+	 * The RGB color of each particle.
+	 */
+	private int[]				particleColors;
+
+	/**
+	 * The player's health at the time this frame was recorded, for the HUD.
+	 */
+	private int					health;
+
+	/**
+	 * The x position, in world coordinates, of the upper-left corner of the view this frame was recorded for.
+	 */
+	private int					cameraX;
+
+	/**
+	 * The y position, in world coordinates, of the upper-left corner of the view this frame was recorded for.
+	 */
+	private int					cameraY;
+
+	/**
+	 * The number of seconds left on the countdown between rounds, or 0 if there isn't one going on.
+	 */
+	private int					countdown;
+
+	/**
+	 * A copy of the simulation's PerfStats as of this frame, for the debug overlay.
+	 */
+	private final PerfStats		stats;
+
+	/**
+	 * Creates a new, empty RenderFrame.
+	 */
+	public RenderFrame() {
+		tick = -1;
+		size = 0;
+		kinds = new byte[INITIAL_SIZE];
+		xs = new int[INITIAL_SIZE];
+		ys = new int[INITIAL_SIZE];
+		widths = new int[INITIAL_SIZE];
+		heights = new int[INITIAL_SIZE];
+		colors = new int[INITIAL_SIZE];
+		progress = new float[INITIAL_SIZE];
+		particleCount = 0;
+		particleXs = new int[INITIAL_SIZE];
+		particleYs = new int[INITIAL_SIZE];
+		particleColors = new int[INITIAL_SIZE];
+		stats = new PerfStats();
+	}
+
+	/**
+	 * Empties this frame so it can be refilled for the given tick. The backing arrays are kept.
+	 * 
+	 * @param tick - The tick about to be recorded into this frame
+	 */
+	public void clear(long tick) {
+		this.tick = tick;
+		size = 0;
+		particleCount = 0;
+		health = 0;
+		cameraX = cameraY = 0;
+		countdown = 0;
+	}
+
+	/**
+	 * Adds one shape to this frame.
+	 * 
+	 * @param kind - The shape kind (RenderFrame.RECT, RenderFrame.OVAL or RenderFrame.MELEE)
+	 * @param x - The x position of the shape's upper-left corner
+	 * @param y - The y position of the shape's upper-left corner
+	 * @param width - The width of the shape
+	 * @param height - The height of the shape
+	 * @param rgb - The RGB color of the shape
+	 * @param ring - How far along the shape's progress ring is, or 1 for none
+	 */
+	public void add(byte kind, int x, int y, int width, int height, int rgb, float ring) {
+		if (size == kinds.length) {
+			grow();
+		}
+		kinds[size] = kind;
+		xs[size] = x;
+		ys[size] = y;
+		widths[size] = width;
+		heights[size] = height;
+		colors[size] = rgb;
+		progress[size] = ring;
+		size++;
+	}
+
+	/**
+	 * Adds one particle to this frame. Every particle is ParticleSystem.SIZE pixels square.
+	 * 
+	 * @param x - The x position of the particle's upper-left corner
+	 * @param y - The y position of the particle's upper-left corner
+	 * @param rgb - The RGB color of the particle
+	 */
+	public void addParticle(int x, int y, int rgb) {
+		if (particleCount == particleXs.length) {
+			int capacity = particleXs.length * 2;
+			particleXs = Arrays.copyOf(particleXs, capacity);
+			particleYs = Arrays.copyOf(particleYs, capacity);
+			particleColors = Arrays.copyOf(particleColors, capacity);
+		}
+		particleXs[particleCount] = x;
+		particleYs[particleCount] = y;
+		particleColors[particleCount] = rgb;
+		particleCount++;
+	}
+
+	/**
+	 * Doubles the capacity of every backing array. Only happens while the number of objects in the world is still climbing, so a steady-state frame never allocates.
+	 */
+	private void grow() {
+		int capacity = kinds.length * 2;
+		kinds = Arrays.copyOf(kinds, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		widths = Arrays.copyOf(widths, capacity);
+		heights = Arrays.copyOf(heights, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		progress = Arrays.copyOf(progress, capacity);
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets this frame's copy of the simulation's PerfStats. The simulation fills it in with <code>copyFrom()</code> before publishing; the renderer only reads it.
+	 * 
+	 * @return the PerfStats of this frame
+	 */
+	public PerfStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Gets the tick this frame was recorded on.
+	 * 
+	 * @return the tick number of this frame, or -1 if nothing has been recorded into it yet
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the number of shapes in this frame.
+	 * 
+	 * @return the number of entries in this frame
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the shape kind of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return RenderFrame.RECT, RenderFrame.OVAL or RenderFrame.MELEE
+	 */
+	public byte getKind(int i) {
+		return kinds[i];
+	}
+
+	/**
+	 * Gets the x position of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return the x position of the entry's upper-left corner
+	 */
+	public int getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * Gets the y position of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return the y position of the entry's upper-left corner
+	 */
+	public int getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * Gets the width of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return the width of the entry
+	 */
+	public int getWidth(int i) {
+		return widths[i];
+	}
+
+	/**
+	 * Gets the height of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return the height of the entry
+	 */
+	public int getHeight(int i) {
+		return heights[i];
+	}
+
+	/**
+	 * Gets the color of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return the RGB color of the entry
+	 */
+	public int getColor(int i) {
+		return colors[i];
+	}
+
+	/**
+	 * Gets the progress ring of the given entry.
+	 * 
+	 * @param i - The index of the entry
+	 * @return how far along the entry's progress ring is, between 0 and 1
+	 */
+	public float getProgress(int i) {
+		return progress[i];
+	}
+
+	/**
+	 * Gets the number of particles in this frame.
+	 * 
+	 * @return the number of particles
+	 */
+	public int getParticleCount() {
+		return particleCount;
+	}
+
+	/**
+	 * Gets the x position of the given particle.
+	 * 
+	 * @param i - The index of the particle
+	 * @return the x position of the particle's upper-left corner
+	 */
+	public int getParticleX(int i) {
+		return particleXs[i];
+	}
+
+	/**
+	 * Gets the y position of the given particle.
+	 * 
+	 * @param i - The index of the particle
+	 * @return the y position of the particle's upper-left corner
+	 */
+	public int getParticleY(int i) {
+		return particleYs[i];
+	}
+
+	/**
+	 * Gets the color of the given particle.
+	 * 
+	 * @param i - The index of the particle
+	 * @return the RGB color of the particle
+	 */
+	public int getParticleColor(int i) {
+		return particleColors[i];
+	}
+
+	/**
+	 * Gets the player's health at the time this frame was recorded.
+	 * 
+	 * @return the player's health for the HUD
+	 */
+	public int getHealth() {
+		return health;
+	}
+
+	/**
+	 * Sets the player's health to be shown on the HUD for this frame.
+	 * 
+	 * @param health - The player's current health
+	 */
+	public void setHealth(int health) {
+		this.health = health;
+	}
+
+	/**
+	 * Gets the countdown to be shown between rounds.
+	 * 
+	 * @return the number of seconds left on the countdown, or 0 if there isn't one going on
+	 */
+	public int getCountdown() {
+		return countdown;
+	}
+
+	/**
+	 * Sets the countdown to be shown between rounds.
+	 * 
+	 * @param seconds - The number of seconds left on the countdown, or 0 if there isn't one going on
+	 */
+	public void setCountdown(int seconds) {
+		countdown = seconds;
+	}
+
+	/**
+	 * Gets the x position of the view this frame was recorded for. Every shape in the frame is in world coordinates, so it needs to be shifted left by this much to be drawn.
+	 * 
+	 * @return the left edge of the view, in world coordinates
+	 */
+	public int getCameraX() {
+		return cameraX;
+	}
+
+	/**
+	 * Gets the y position of the view this frame was recorded for. Every shape in the frame is in world coordinates, so it needs to be shifted up by this much to be drawn.
+	 * 
+	 * @return the top edge of the view, in world coordinates
+	 */
+	public int getCameraY() {
+		return cameraY;
+	}
+
+	/**
+	 * Sets the position of the view this frame is being recorded for.
+	 * 
+	 * @param x - The left edge of the view, in world coordinates
+	 * @param y - The top edge of the view, in world coordinates
+	 */
+	public void setCamera(int x, int y) {
+		cameraX = x;
+		cameraY = y;
+	}
+
+}
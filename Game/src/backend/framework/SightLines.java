@@ -0,0 +1,176 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+import backend.objects.GameObject;
+
+/**
+ * Answers whether one point can see another past the world's solid cells. A single line is checked by walking the grid from one end to the other, one cell at a time, and stopping at the first solid cell (a DDA walk), so a check only costs as
+ * much as the number of cells the line crosses, however many walls there are. GameObjects that want to know something during a tick add a request with <code>request()</code>; the Updator answers all of them at once with
+ * <code>resolve()</code> and hands each answer back. Like the ContactBuffer, requests are kept in flat arrays reused from one tick to the next.
+ * 
+ * @author Owen Roszkowski
+ */
+public class SightLines {
+
+	/**
+	 * The size of each array when the buffer is first made.
+	 */
+	private static final int	INITIAL_SIZE	= 16;
+
+	/**
+	 * The number of requests this tick.
+	 */
+	private int					size;
+
+	/**
+	 * The GameObject that made each request.
+	 */
+	private GameObject[]		askers;
+
+	/**
+	 * The start of each line, as x, y pairs.
+	 */
+	private double[]			starts;
+
+	/**
+	 * The end of each line, as x, y pairs.
+	 */
+	private double[]			ends;
+
+	/**
+	 * Whether each line is clear, once <code>resolve()</code> has been called.
+	 */
+	private boolean[]			clear;
+
+	/**
+	 * Creates a new SightLines with no requests.
+	 */
+	public SightLines() {
+		size = 0;
+		askers = new GameObject[INITIAL_SIZE];
+		starts = new double[INITIAL_SIZE * 2];
+		ends = new double[INITIAL_SIZE * 2];
+		clear = new boolean[INITIAL_SIZE];
+	}
+
+	/**
+	 * Forgets every request, so that a new tick's can be made.
+	 */
+	public void clear() {
+		Arrays.fill(askers, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Asks whether the line between two points is clear. The answer is only known once <code>resolve()</code> has been called.
+	 * 
+	 * @param asker - The GameObject asking, which the answer will be handed back to
+	 * @param x0 - The x position of the start of the line
+	 * @param y0 - The y position of the start of the line
+	 * @param x1 - The x position of the end of the line
+	 * @param y1 - The y position of the end of the line
+	 * @return the index of the request
+	 */
+	public int request(GameObject asker, double x0, double y0, double x1, double y1) {
+		if (size == askers.length) {
+			int capacity = size * 2;
+			askers = Arrays.copyOf(askers, capacity);
+			starts = Arrays.copyOf(starts, capacity * 2);
+			ends = Arrays.copyOf(ends, capacity * 2);
+			clear = Arrays.copyOf(clear, capacity);
+		}
+		askers[size] = asker;
+		starts[size * 2] = x0;
+		starts[size * 2 + 1] = y0;
+		ends[size * 2] = x1;
+		ends[size * 2 + 1] = y1;
+		return size++;
+	}
+
+	/**
+	 * Answers every request made since the last <code>clear()</code>. A line is clear if it doesn't cross a solid cell of either grid.
+	 * 
+	 * @param first - Some solid cells lines can't pass through, or null
+	 * @param second - More solid cells lines can't pass through, or null
+	 */
+	public void resolve(SolidCells first, SolidCells second) {
+		for (int i = 0; i < size; i++) {
+			double x0 = starts[i * 2], y0 = starts[i * 2 + 1], x1 = ends[i * 2], y1 = ends[i * 2 + 1];
+			clear[i] = (first == null || isClear(first, x0, y0, x1, y1)) && (second == null || isClear(second, x0, y0, x1, y1));
+		}
+	}
+
+	/**
+	 * Checks whether the line between two points crosses any solid cell, by walking the cells it crosses in order from start to end.
+	 * 
+	 * @param cells - The solid cells the line can't pass through
+	 * @param x0 - The x position of the start of the line
+	 * @param y0 - The y position of the start of the line
+	 * @param x1 - The x position of the end of the line
+	 * @param y1 - The y position of the end of the line
+	 * @return true if no cell the line crosses is solid, false otherwise
+	 */
+	public static boolean isClear(SolidCells cells, double x0, double y0, double x1, double y1) {
+		int size = cells.getCellSize();
+		int cellX = (int) Math.floor(x0 / size), cellY = (int) Math.floor(y0 / size);
+		int endX = (int) Math.floor(x1 / size), endY = (int) Math.floor(y1 / size);
+		double dx = x1 - x0, dy = y1 - y0;
+		int stepX = dx > 0 ? 1 : -1, stepY = dy > 0 ? 1 : -1;
+		// How far along the line (from 0 at the start to 1 at the end) the next vertical and horizontal cell edges are, and how far apart they are
+		double nextX = (dx == 0) ? Double.POSITIVE_INFINITY : ((dx > 0 ? cellX + 1 : cellX) * (double) size - x0) / dx;
+		double nextY = (dy == 0) ? Double.POSITIVE_INFINITY : ((dy > 0 ? cellY + 1 : cellY) * (double) size - y0) / dy;
+		double gapX = (dx == 0) ? Double.POSITIVE_INFINITY : size / Math.abs(dx);
+		double gapY = (dy == 0) ? Double.POSITIVE_INFINITY : size / Math.abs(dy);
+		int cellsLeft = Math.abs(endX - cellX) + Math.abs(endY - cellY);
+		while (true) {
+			if (cells.isSolidCell(cellX, cellY)) {
+				return false;
+			}
+			if (cellsLeft-- == 0) {
+				return true;
+			}
+			if (nextX < nextY) {
+				cellX += stepX;
+				nextX += gapX;
+			} else {
+				cellY += stepY;
+				nextY += gapY;
+			}
+		}
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the number of requests made this tick.
+	 * 
+	 * @return the number of requests
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the GameObject that made a request.
+	 * 
+	 * @param i - The index of the request
+	 * @return the GameObject the answer should be handed back to
+	 */
+	public GameObject getAsker(int i) {
+		return askers[i];
+	}
+
+	/**
+	 * Gets the answer to a request. Only meaningful after <code>resolve()</code>.
+	 * 
+	 * @param i - The index of the request
+	 * @return true if the line was clear, false if something solid was in the way
+	 */
+	public boolean isClear(int i) {
+		return clear[i];
+	}
+
+}
@@ -0,0 +1,26 @@
+package backend.framework;
+
+/**
+ * Anything that divides the world into a grid of square cells which are either solid or empty, such as the CollisionGrid built from a World's walls or the tiles of a TileMap. MovingObjects are kept out of the solid cells.
+ * 
+ * @author Owen Roszkowski
+ */
+public interface SolidCells {
+
+	/**
+	 * Gets the size of one cell.
+	 * 
+	 * @return the length of a side of one cell, in pixels
+	 */
+	int getCellSize();
+
+	/**
+	 * Checks whether the given cell is solid.
+	 * 
+	 * @param cellX - The column of the cell
+	 * @param cellY - The row of the cell
+	 * @return true if the cell is solid, false otherwise
+	 */
+	boolean isSolidCell(int cellX, int cellY);
+
+}
@@ -0,0 +1,217 @@
+package backend.framework;
+
+import java.util.Arrays;
+import java.util.List;
+
+import backend.objects.GameObject;
+
+/**
+ * A uniform grid over the world that buckets GameObjects by the cells their hitboxes cover, so that finding everything inside a rectangle only has to look at the objects near that rectangle instead of every object in the world. It is rebuilt
+ * from scratch every tick, which is cheap since it is stored as a handful of flat arrays that are reused from one tick to the next.
+ * 
+ * @author Owen Roszkowski
+ */
+public class SpatialGrid {
+
+	/**
+	 * The length of a side of one cell, in pixels.
+	 */
+	private final int		cellSize;
+
+	/**
+	 * The number of columns of cells.
+	 */
+	private final int		columns;
+
+	/**
+	 * The number of rows of cells.
+	 */
+	private final int		rows;
+
+	/**
+	 * For each cell, the index into <code>entries</code> where that cell's objects start. The cell's objects end where the next cell's start, so this has one more element than there are cells.
+	 */
+	private final int[]		cellStart;
+
+	/**
+	 * The indices (into <code>objects</code>) of the objects in each cell, one cell after another.
+	 */
+	private int[]			entries;
+
+	/**
+	 * The objects the grid was last built from.
+	 */
+	private GameObject[]	objects;
+
+	/**
+	 * The number of objects the grid was last built from.
+	 */
+	private int				objectCount;
+
+	/**
+	 * For each object, the number of the last query that found it. Stops an object covering several cells from being returned more than once.
+	 */
+	private int[]			seen;
+
+	/**
+	 * The number of queries made so far.
+	 */
+	private int				queryCount;
+
+	/**
+	 * The indices of the objects found by the last query, in the order they were given to <code>rebuild()</code>.
+	 */
+	private int[]			results;
+
+	/**
+	 * The number of objects found by the last query.
+	 */
+	private int				resultCount;
+
+	/**
+	 * Creates a new, empty SpatialGrid covering a world of the given size.
+	 * 
+	 * @param worldWidth - The width of the world, in pixels
+	 * @param worldHeight - The height of the world, in pixels
+	 * @param cellSize - The length of a side of one cell, in pixels
+	 */
+	public SpatialGrid(int worldWidth, int worldHeight, int cellSize) {
+		this.cellSize = cellSize;
+		columns = Math.max(1, (worldWidth + cellSize - 1) / cellSize);
+		rows = Math.max(1, (worldHeight + cellSize - 1) / cellSize);
+		cellStart = new int[columns * rows + 1];
+		entries = new int[64];
+		objects = new GameObject[32];
+		seen = new int[32];
+		results = new int[32];
+	}
+
+	/**
+	 * Throws away whatever was in the grid and refills it with the given objects.
+	 * 
+	 * @param list - Every GameObject the grid should contain
+	 */
+	public void rebuild(List<GameObject> list) {
+		objectCount = list.size();
+		if (objects.length < objectCount) {
+			int capacity = Math.max(objectCount, objects.length * 2);
+			objects = new GameObject[capacity];
+			seen = new int[capacity];
+			results = new int[capacity];
+		}
+		Arrays.fill(cellStart, 0);
+		int total = 0;
+		for (int i = 0; i < objectCount; i++) {
+			GameObject obj = list.get(i);
+			objects[i] = obj;
+			seen[i] = 0;
+			int c0 = column(obj.getX()), c1 = column(obj.getX() + obj.getWidth());
+			int r0 = row(obj.getY()), r1 = row(obj.getY() + obj.getHeight());
+			for (int r = r0; r <= r1; r++) {
+				for (int c = c0; c <= c1; c++) {
+					cellStart[r * columns + c + 1]++;
+					total++;
+				}
+			}
+		}
+		for (int cell = 0; cell < columns * rows; cell++) {
+			cellStart[cell + 1] += cellStart[cell];
+		}
+		if (entries.length < total) {
+			entries = new int[Math.max(total, entries.length * 2)];
+		}
+		for (int i = objectCount; i < objects.length && objects[i] != null; i++) {
+			objects[i] = null;
+		}
+		// cellStart[cell] is used as a write cursor while filling, which leaves each cell's start in the next cell's slot
+		for (int i = 0; i < objectCount; i++) {
+			GameObject obj = objects[i];
+			int c0 = column(obj.getX()), c1 = column(obj.getX() + obj.getWidth());
+			int r0 = row(obj.getY()), r1 = row(obj.getY() + obj.getHeight());
+			for (int r = r0; r <= r1; r++) {
+				for (int c = c0; c <= c1; c++) {
+					entries[cellStart[r * columns + c]++] = i;
+				}
+			}
+		}
+		for (int cell = columns * rows; cell > 0; cell--) {
+			cellStart[cell] = cellStart[cell - 1];
+		}
+		cellStart[0] = 0;
+		queryCount = 0;
+	}
+
+	/**
+	 * Finds every object whose hitbox touches the given rectangle. The results can then be read with <code>getResultCount()</code> and <code>getResult()</code>, and stay valid until the next query.
+	 * 
+	 * @param x - The x position of the rectangle's upper-left corner
+	 * @param y - The y position of the rectangle's upper-left corner
+	 * @param width - The width of the rectangle
+	 * @param height - The height of the rectangle
+	 * @return the number of objects found
+	 */
+	public int query(int x, int y, int width, int height) {
+		queryCount++;
+		resultCount = 0;
+		int c0 = column(x), c1 = column(x + width);
+		int r0 = row(y), r1 = row(y + height);
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int cell = r * columns + c;
+				for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+					int i = entries[e];
+					if (seen[i] == queryCount) {
+						continue;
+					}
+					seen[i] = queryCount;
+					GameObject obj = objects[i];
+					if (obj.getX() <= x + width && obj.getX() + obj.getWidth() >= x && obj.getY() <= y + height && obj.getY() + obj.getHeight() >= y) {
+						results[resultCount++] = i;
+					}
+				}
+			}
+		}
+		Arrays.sort(results, 0, resultCount);
+		return resultCount;
+	}
+
+	/**
+	 * Gets the number of objects found by the last query.
+	 * 
+	 * @return the number of results of the last <code>query()</code>
+	 */
+	public int getResultCount() {
+		return resultCount;
+	}
+
+	/**
+	 * Gets one of the objects found by the last query. Results are in the same order the objects were given to <code>rebuild()</code>, so drawing them in order keeps the same overlap as drawing the whole world would.
+	 * 
+	 * @param i - The index of the result, between 0 and <code>getResultCount() - 1</code>
+	 * @return the i'th object found
+	 */
+	public GameObject getResult(int i) {
+		return objects[results[i]];
+	}
+
+	/**
+	 * Gets the column of cells the given x position falls in, clamped to the grid.
+	 * 
+	 * @param x - An x position in world coordinates
+	 * @return the column containing x
+	 */
+	private int column(int x) {
+		return Math.min(columns - 1, Math.max(0, x / cellSize));
+	}
+
+	/**
+	 * Gets the row of cells the given y position falls in, clamped to the grid.
+	 * 
+	 * @param y - A y position in world coordinates
+	 * @return the row containing y
+	 */
+	private int row(int y) {
+		return Math.min(rows - 1, Math.max(0, y / cellSize));
+	}
+
+}
@@ -0,0 +1,256 @@
+package backend.framework;
+
+/**
+ * Keeps the cost of a tick under its budget (Updator.RUN_PERIOD) by shedding load when ticks run long, and giving it back once there is room again. It keeps a running average of how long ticks take; while the average is over budget, it
+ * steps up one level of degradation at a time, and while the average is well under budget for long enough, it steps back down. Each level keeps every cut of the levels below it:
+ * <ol>
+ * <li>CAP_PROJECTILES: enemies hold their fire once there are MAX_PROJECTILES projectiles in flight</li>
+ * <li>DEFER_SPAWNS: the rest of a wave waits to be spawned until the enemies already in the World are dead</li>
+ * <li>SLOW_AI: each enemy only decides where to go every AI_PERIOD ticks, drifting in between</li>
+ * <li>COARSE_COLLISION: projectiles are only checked against walls every other tick (they can't get through a wall cell in two ticks)</li>
+ * </ol>
+ * Every change of level is counted, and the World copies the level and the count into its PerfStats, so tools and the debug overlay can show them; nothing is printed from the thread running the simulation. Each World keeps one, and
+ * only feeds it ticks of a round being played.
+ * 
+ * @author Owen Roszkowski
+ */
+public class TickGovernor {
+
+	/**
+	 * Nothing is being cut.
+	 */
+	public static final int			NORMAL				= 0;
+
+	/**
+	 * The number of projectiles in flight is capped.
+	 */
+	public static final int			CAP_PROJECTILES		= 1;
+
+	/**
+	 * Spawning waits until the World is clear of enemies.
+	 */
+	public static final int			DEFER_SPAWNS		= 2;
+
+	/**
+	 * Enemies make decisions less often.
+	 */
+	public static final int			SLOW_AI				= 3;
+
+	/**
+	 * Some collision checks are only made every other tick.
+	 */
+	public static final int			COARSE_COLLISION	= 4;
+
+	/**
+	 * What each level cuts, for tools and the debug overlay.
+	 */
+	public static final String[]	NAMES				= { "nothing", "capping projectiles", "deferring spawns", "slowing enemy AI", "coarsening collision" };
+
+	/**
+	 * The most projectiles allowed in flight at once while projectiles are capped.
+	 */
+	public static final int			MAX_PROJECTILES		= 100;
+
+	/**
+	 * How many ticks apart each enemy makes a decision while enemy AI is slowed.
+	 */
+	public static final int			AI_PERIOD			= 4;
+
+	/**
+	 * How much each new tick counts towards the running average, from 0 to 1.
+	 */
+	private static final double		SMOOTHING			= 0.05;
+
+	/**
+	 * The fewest ticks between stepping up a level, so that each cut has time to show in the average before the next is made.
+	 */
+	private static final int		RAISE_TICKS			= 50;
+
+	/**
+	 * The fewest ticks between stepping down a level.
+	 */
+	private static final int		LOWER_TICKS			= 500;
+
+	/**
+	 * How far under budget, as a fraction of it, the average must be before anything is given back. Well under 1, so that giving a cut back doesn't just push the average straight back over.
+	 */
+	private static final double		HEADROOM			= 0.6;
+
+	/**
+	 * How long a tick is allowed to take, in nanoseconds.
+	 */
+	private final long				budgetNanos;
+
+	/**
+	 * Whether load is shed at all. When it isn't, the level is always NORMAL.
+	 */
+	private boolean					enabled;
+
+	/**
+	 * The current level of degradation.
+	 */
+	private int						level;
+
+	/**
+	 * The running average of how long ticks take, in nanoseconds.
+	 */
+	private double					averageNanos;
+
+	/**
+	 * The number of ticks since the level last changed.
+	 */
+	private int						ticksAtLevel;
+
+	/**
+	 * The number of times the level has changed.
+	 */
+	private int						changes;
+
+	/**
+	 * The number of shots allowed so far this tick, on top of the projectiles already in flight.
+	 */
+	private int						shots;
+
+	/**
+	 * Creates a new TickGovernor for ticks with the given budget.
+	 * 
+	 * @param budgetNanos - How long a tick is allowed to take, in nanoseconds
+	 */
+	public TickGovernor(long budgetNanos) {
+		this.budgetNanos = budgetNanos;
+		enabled = true;
+		level = NORMAL;
+		averageNanos = 0;
+		ticksAtLevel = 0;
+		changes = 0;
+		shots = 0;
+	}
+
+	/**
+	 * Records how long a tick took, and steps the level up or down if the running average calls for it.
+	 * 
+	 * @param nanos - How long the tick took, in nanoseconds
+	 */
+	public void tickFinished(long nanos) {
+		shots = 0;
+		averageNanos += (nanos - averageNanos) * SMOOTHING;
+		ticksAtLevel++;
+		if (!enabled) {
+			return;
+		}
+		if (averageNanos > budgetNanos && level < COARSE_COLLISION && ticksAtLevel >= RAISE_TICKS) {
+			setLevel(level + 1);
+		} else if (averageNanos < budgetNanos * HEADROOM && level > NORMAL && ticksAtLevel >= LOWER_TICKS) {
+			setLevel(level - 1);
+		}
+	}
+
+	/**
+	 * Changes the level of degradation.
+	 * 
+	 * @param newLevel - The new level
+	 */
+	private void setLevel(int newLevel) {
+		level = newLevel;
+		ticksAtLevel = 0;
+		changes++;
+	}
+
+	/**
+	 * Checks whether an enemy may fire another projectile this tick, counting it if so.
+	 * 
+	 * @param projectiles - The number of projectiles in flight as of the last tick
+	 * @return true if the enemy may fire, false if it should hold its fire
+	 */
+	public boolean allowShot(int projectiles) {
+		if (level >= CAP_PROJECTILES && projectiles + shots >= MAX_PROJECTILES) {
+			return false;
+		}
+		shots++;
+		return true;
+	}
+
+	/**
+	 * Checks whether spawning should wait for the World to be clear of enemies.
+	 * 
+	 * @return true if spawns are being deferred, false otherwise
+	 */
+	public boolean defersSpawns() {
+		return level >= DEFER_SPAWNS;
+	}
+
+	/**
+	 * Checks whether an enemy gets to make a decision this tick. Enemies are spread across the ticks by their handles, so the same number decide every tick.
+	 * 
+	 * @param handle - The enemy's handle
+	 * @param tick - The World's tick count
+	 * @return true if the enemy decides this tick, false if it should carry on as it is
+	 */
+	public boolean decides(int handle, long tick) {
+		return level < SLOW_AI || (handle + tick) % AI_PERIOD == 0;
+	}
+
+	/**
+	 * Checks whether a collision check that can stand to be a tick late is made this tick. Checks are spread across the ticks by handle, so half are made every tick.
+	 * 
+	 * @param handle - The handle of the GameObject being checked
+	 * @param tick - The World's tick count
+	 * @return true if the check is made this tick, false if it is skipped
+	 */
+	public boolean checks(int handle, long tick) {
+		return level < COARSE_COLLISION || ((handle + tick) & 1) == 0;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the current level of degradation.
+	 * 
+	 * @return one of TickGovernor.NORMAL, CAP_PROJECTILES, DEFER_SPAWNS, SLOW_AI or COARSE_COLLISION
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Gets the number of times the level has changed.
+	 * 
+	 * @return the number of times load has been shed or given back
+	 */
+	public int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Gets the running average of how long ticks take.
+	 * 
+	 * @return the average tick, in nanoseconds
+	 */
+	public double getAverageNanos() {
+		return averageNanos;
+	}
+
+	/**
+	 * Checks whether load is shed at all.
+	 * 
+	 * @return true if the level can change, false if it is always NORMAL
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turns shedding load on or off. Turning it off puts everything back to normal straight away. Tools measuring the cost of a tick turn it off, so the numbers aren't hidden by cuts.
+	 * 
+	 * @param enabled - Whether load should be shed
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled && level != NORMAL) {
+			setLevel(NORMAL);
+		}
+	}
+
+}
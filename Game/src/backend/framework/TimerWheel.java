@@ -0,0 +1,254 @@
+package backend.framework;
+
+import java.util.Arrays;
+
+import backend.objects.GameObject;
+import world.World;
+
+/**
+ * Schedules things to happen to GameObjects a number of ticks from now, as a hierarchical timing wheel. The wheel has LEVELS levels of SLOTS slots each: a timer due within SLOTS ticks goes straight into the bottom level, in the slot for
+ * its tick, and one due further away goes into a higher level, in the slot for its block of ticks. Each tick only the bottom slot for that tick is emptied, and every SLOTS ticks one slot of the level above is moved down a level. So the cost
+ * of a tick depends on how many timers are due, not on how many are waiting or how many GameObjects there are.
+ * <p>
+ * A timer is just a GameObject's handle and a number saying what is due, handed back to the GameObject's <code>timerFired()</code> when the time comes. Timers for GameObjects that have been removed by then are dropped. Timers are kept in
+ * flat arrays that are reused, like a ContactBuffer's. The wheel's clock only moves when <code>advance()</code> is called, which the Updator does once per tick of a round being played.
+ * 
+ * @author Owen Roszkowski
+ */
+public class TimerWheel {
+
+	/**
+	 * The number of bits of a tick each level of the wheel covers.
+	 */
+	private static final int	SLOT_BITS		= 6;
+
+	/**
+	 * The number of slots in each level of the wheel.
+	 */
+	public static final int		SLOTS			= 1 << SLOT_BITS;
+
+	/**
+	 * The number of levels in the wheel.
+	 */
+	public static final int		LEVELS			= 4;
+
+	/**
+	 * The longest a timer can be set for, in ticks. About 46 hours at 100 ticks per second.
+	 */
+	public static final long	MAX_DELAY		= (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	/**
+	 * The number of timers there is room for when the wheel is first made.
+	 */
+	private static final int	INITIAL_SIZE	= 64;
+
+	/**
+	 * Marks the end of a list of timers.
+	 */
+	private static final int	END				= -1;
+
+	/**
+	 * The current tick of the wheel's clock.
+	 */
+	private long				now;
+
+	/**
+	 * The first timer in each slot, with the slots of every level one after the other, or END if the slot is empty.
+	 */
+	private final int[]			heads;
+
+	/**
+	 * The handle of the GameObject each timer is for.
+	 */
+	private int[]				handles;
+
+	/**
+	 * What each timer is for, as a number the GameObject understands.
+	 */
+	private int[]				events;
+
+	/**
+	 * The tick each timer is due.
+	 */
+	private long[]				dues;
+
+	/**
+	 * The next timer in the same slot as each timer (or the next free timer, for free ones), or END.
+	 */
+	private int[]				next;
+
+	/**
+	 * The first free timer, or END if every timer is in use.
+	 */
+	private int					free;
+
+	/**
+	 * The number of timers waiting.
+	 */
+	private int					size;
+
+	/**
+	 * The number of timers that came due in the last call to <code>advance()</code>.
+	 */
+	private int					fired;
+
+	/**
+	 * Creates a new, empty TimerWheel, with its clock at 0.
+	 */
+	public TimerWheel() {
+		now = 0;
+		heads = new int[SLOTS * LEVELS];
+		Arrays.fill(heads, END);
+		handles = new int[INITIAL_SIZE];
+		events = new int[INITIAL_SIZE];
+		dues = new long[INITIAL_SIZE];
+		next = new int[INITIAL_SIZE];
+		chainFree(0);
+		size = 0;
+		fired = 0;
+	}
+
+	/**
+	 * Sets a timer to go off a number of ticks from now.
+	 * 
+	 * @param handle - The handle of the GameObject to tell when it goes off
+	 * @param event - What the timer is for, handed back to the GameObject's <code>timerFired()</code>
+	 * @param delay - How many ticks from now it goes off. Anything under 1 goes off at the next tick.
+	 */
+	public void schedule(int handle, int event, long delay) {
+		if (delay > MAX_DELAY) {
+			throw new IllegalArgumentException("Timer too far away: " + delay + " ticks");
+		}
+		if (free == END) {
+			grow();
+		}
+		int timer = free;
+		free = next[timer];
+		handles[timer] = handle;
+		events[timer] = event;
+		dues[timer] = now + Math.max(1, delay);
+		place(timer);
+		size++;
+	}
+
+	/**
+	 * Moves the clock on by one tick, and fires every timer due at the new tick. Timers due on the same tick fire in no particular order: a slot is a stack, and cascading shuffles it again. Timers set while firing are never due until a later tick.
+	 * 
+	 * @param world - The World to look the GameObjects up in
+	 */
+	public void advance(World world) {
+		now++;
+		fired = 0;
+		// Bring down the next block of every level whose block has just ended, from the top down, so nothing due now is left above the bottom level
+		for (int level = LEVELS - 1; level > 0; level--) {
+			if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+				cascade(level);
+			}
+		}
+		int slot = (int) (now & (SLOTS - 1));
+		int timer = heads[slot];
+		heads[slot] = END;
+		while (timer != END) {
+			int following = next[timer];
+			int handle = handles[timer], event = events[timer];
+			next[timer] = free;
+			free = timer;
+			size--;
+			fired++;
+			GameObject obj = world.getGameObject(handle);
+			if (obj != null) {
+				obj.timerFired(event);
+			}
+			timer = following;
+		}
+	}
+
+	/**
+	 * Moves every timer in the current slot of one level down to wherever it now belongs.
+	 * 
+	 * @param level - The level to bring down
+	 */
+	private void cascade(int level) {
+		int slot = level * SLOTS + (int) ((now >>> (SLOT_BITS * level)) & (SLOTS - 1));
+		int timer = heads[slot];
+		heads[slot] = END;
+		while (timer != END) {
+			int following = next[timer];
+			place(timer);
+			timer = following;
+		}
+	}
+
+	/**
+	 * Puts a timer in the slot it belongs in, going by how far away it is due: the lowest level whose slots can tell its tick apart from the ones around it.
+	 * 
+	 * @param timer - The timer to place
+	 */
+	private void place(int timer) {
+		long delta = dues[timer] - now;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+		int slot = level * SLOTS + (int) ((dues[timer] >>> (SLOT_BITS * level)) & (SLOTS - 1));
+		next[timer] = heads[slot];
+		heads[slot] = timer;
+	}
+
+	/**
+	 * Doubles the room for timers, and adds the new room to the free list.
+	 */
+	private void grow() {
+		int old = handles.length, capacity = old * 2;
+		handles = Arrays.copyOf(handles, capacity);
+		events = Arrays.copyOf(events, capacity);
+		dues = Arrays.copyOf(dues, capacity);
+		next = Arrays.copyOf(next, capacity);
+		chainFree(old);
+	}
+
+	/**
+	 * Links every timer from the given one to the end of the arrays into the free list.
+	 * 
+	 * @param from - The first timer to free
+	 */
+	private void chainFree(int from) {
+		for (int i = from; i < next.length - 1; i++) {
+			next[i] = i + 1;
+		}
+		next[next.length - 1] = END;
+		free = from;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the current tick of the wheel's clock. Only moves while a round is being played.
+	 * 
+	 * @return the number of times the wheel has been advanced
+	 */
+	public long getNow() {
+		return now;
+	}
+
+	/**
+	 * Gets the number of timers waiting to go off.
+	 * 
+	 * @return the number of timers set but not yet fired
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of timers that went off at the current tick.
+	 * 
+	 * @return the number of timers fired by the last <code>advance()</code>
+	 */
+	public int getFired() {
+		return fired;
+	}
+
+}
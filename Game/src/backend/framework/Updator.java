@@ -1,91 +1,507 @@
 package backend.framework;
 
-import java.awt.Rectangle;
 import java.util.ArrayList;
-import java.util.TimerTask;
+import java.util.Arrays;
 
 import backend.objects.GameObject;
-import backend.objects.ImmovableObject;
 import backend.objects.MovingObject;
 import backend.objects.npc.EnemyProjectile;
 import backend.objects.npc.RangedEnemy;
 import backend.user.MeleeAttack;
 import backend.user.Player;
-import backend.utility.Vector;
 import world.World;
 
 /**
- * Updates position, velocity, etc. data for every object. As it is a TimerTask, it needs a Timer object to run it periodically. Each execution of this class's <code>run()</code> method is one 'tick'. At a run period (Updator.RUN_PERIOD) of 10 ms,
- * the game runs at 100 ticks per second. This class has its own thread, so it must deal with some concurrency issues.
+ * Updates position, velocity, etc. data for every object. Its World runs it once per tick while a round is being played (see <code>World.tick()</code>), and something else, normally a GameLoop, ticks the World periodically. At a run period
+ * (Updator.RUN_PERIOD) of 10 ms, the game runs at 100 ticks per second.
  * 
  * @author Owen Roszkowski
  */
-public class Updator extends TimerTask {
+public class Updator implements Runnable {
 
 	/**
 	 * The length of time this class's <code>run()</code> method is allowed to run for, in milliseconds.
 	 */
-	public static final long RUN_PERIOD = (long) (10);
+	public static final long			RUN_PERIOD			= (long) (10);
 
 	/**
-	 * Creates a new Updator. It is only necessary to instantiate this object to restart the Timer.
+	 * The pair of layers for projectiles against the player, as looked up in <code>findPairs()</code>.
 	 */
-	public Updator() {
+	private static final int			PROJECTILE_PLAYER	= CollisionLayers.PROJECTILE * CollisionLayers.LAYERS + CollisionLayers.PLAYER;
+
+	/**
+	 * The pair of layers for enemies against the player's melee attack, as looked up in <code>findPairs()</code>.
+	 */
+	private static final int			ENEMY_MELEE			= CollisionLayers.ENEMY * CollisionLayers.LAYERS + CollisionLayers.MELEE;
+
+	/**
+	 * The World whose GameObjects this Updator updates.
+	 */
+	private final World					world;
+
+	/**
+	 * The GameObjects being updated this tick. The same list is refilled every tick rather than making a new one.
+	 */
+	private final ArrayList<GameObject>	gameObjects;
+
+	/**
+	 * The contacts found this tick, waiting to be reacted to.
+	 */
+	private final ContactBuffer			contacts;
+
+	/**
+	 * The enemies and projectiles being updated this tick, packed together so that friction, moving and checking for hits on the player can be done for all of them at once. Enemies come first, then projectiles.
+	 */
+	private final MotionBuffer			motion;
+
+	/**
+	 * For each GameObject in <code>gameObjects</code>, whether it has been destroyed this tick. Contacts involving something already destroyed are skipped.
+	 */
+	private boolean[]					destroyed;
+
+	/**
+	 * The collision layer of each GameObject in <code>gameObjects</code>, looked up once per tick.
+	 */
+	private byte[]						layers;
+
+	/**
+	 * The indices of every GameObject in <code>gameObjects</code>, grouped by layer. Layer <code>n</code>'s indices run from <code>layerStart[n]</code> up to <code>layerStart[n + 1]</code>.
+	 */
+	private int[]						byLayer;
+
+	/**
+	 * Where each layer's GameObjects start in <code>byLayer</code>. Has one more element than there are layers.
+	 */
+	private final int[]					layerStart;
+
+	/**
+	 * Creates a new Updator for the given World. Every World makes its own.
+	 * 
+	 * @param world - The World this Updator ticks
+	 */
+	public Updator(World world) {
+		this.world = world;
+		gameObjects = new ArrayList<GameObject>();
+		contacts = new ContactBuffer();
+		motion = new MotionBuffer();
+		destroyed = new boolean[32];
+		layers = new byte[32];
+		byLayer = new int[32];
+		layerStart = new int[CollisionLayers.LAYERS + 1];
 	}
 
 	/**
-	 * Goes through World.java's list of GameObjects and calls their <code>updatePosition()</code> and <code>updateVelocity()</code> functions, as well as deals with object interactions (running into walls, mostly, which is not at all perfect right
-	 * now).
+	 * Updates every GameObject in the World by one tick, in four steps (after firing any timers due this tick): every MovingObject works out its new velocity (with friction on every enemy applied all at once, and any enemies about to fire being
+	 * told, all at once, whether they can see the player), then every contact between GameObjects is found and recorded (without changing anything), then each kind of contact is reacted to in turn, in the order the contacts were found, and finally
+	 * everything still alive moves (enemies and projectiles all at once, through the MotionBuffer). Since finding contacts only reads positions and only writes to the ContactBuffer, it could be split up or spread over threads without changing what
+	 * happens.
+	 * <p>
+	 * Every step loops over one layer at a time, casting to the one final class that layer holds (see CollisionLayers.java), so each call in a loop only ever goes to one method and the JIT can inline it. Looking up each GameObject's layer is
+	 * the only call made on every kind of GameObject in the same place.
 	 */
 	@Override
 	public void run() {
 		synchronized (this) {
-			ArrayList<GameObject> gameObjects = (ArrayList<GameObject>) World.getGameObjects();
-			boolean allDead = true;
-			for (GameObject gObj : gameObjects) {
-				if (gObj.getClass().equals(RangedEnemy.class))
-					allDead = false;
-				if (!MovingObject.class.isInstance(gObj))
-					continue;
-				else {
-					MovingObject mover = (MovingObject) gObj;
-					mover.updateVelocity();
-					for (GameObject obj : gameObjects) {
-						if (obj.equals(gObj))
-							continue;
-						Rectangle intersection = obj.getBounds().intersection(mover.getBounds());
-						if (intersection.width > 0 && intersection.height > 0) {
-							if (ImmovableObject.class.isInstance(obj)) {
-								// System.out.println("Intersection\t" + intersection.width + " " + intersection.height);
-
-								/*
-								 * This code just keeps you in one place when you hit a wall, regardless of input. Vector correctingV = mover.getVelocity().opposite(); correctingV.setMagnitude(intersection.width /
-								 * Math.cos(Math.atan2(mover.getVelocity().getYComponent(), mover.getVelocity().getXComponent()))); mover.getVelocity().add(correctingV);
-								 */
-								if (EnemyProjectile.class.isInstance(mover)) {
-									mover.terminate();
-								} else if (intersection.width > intersection.height) {
-									mover.getVelocity().add(new Vector(0, (mover.getVelocity().getYComponent() > 0) ? -intersection.height : intersection.height));
-								} else {
-									mover.getVelocity().add(new Vector((mover.getVelocity().getXComponent() > 0) ? -intersection.width : intersection.width, 0));
-								}
-							} else if (EnemyProjectile.class.isInstance(mover) && Player.class.isInstance(obj)) {
-								mover.terminate();
-								((Player) obj).hit(EnemyProjectile.DAMAGE);
-							} else if (RangedEnemy.class.isInstance(mover) && MeleeAttack.class.isInstance(obj)) {
-								// TODO: add knockback
-								((RangedEnemy) mover).hit(MeleeAttack.DAMAGE);
-							}
-						}
-						// System.out.println("Position\t" + mover.getTrueX() + " " + mover.getTrueY());
+			world.sightLines.clear();
+			world.timers.advance(world);
+			world.copyGameObjects(gameObjects);
+			int count = gameObjects.size();
+			if (destroyed.length < count) {
+				destroyed = new boolean[Math.max(count, destroyed.length * 2)];
+				contacts.ensureCapacity(destroyed.length * 2);
+				motion.ensureCapacity(destroyed.length);
+				layers = new byte[destroyed.length];
+				byLayer = new int[destroyed.length];
+			}
+			Arrays.fill(destroyed, 0, count, false);
+			contacts.clear();
+
+			groupByLayer(count);
+			int players = layerSize(CollisionLayers.PLAYER), enemies = layerSize(CollisionLayers.ENEMY), projectiles = layerSize(CollisionLayers.PROJECTILE);
+			for (int k = layerStart[CollisionLayers.PLAYER]; k < layerStart[CollisionLayers.PLAYER + 1]; k++) {
+				((Player) gameObjects.get(byLayer[k])).updateVelocity();
+			}
+			for (int k = layerStart[CollisionLayers.ENEMY]; k < layerStart[CollisionLayers.ENEMY + 1]; k++) {
+				((RangedEnemy) gameObjects.get(byLayer[k])).updateVelocity();
+			}
+			// An EnemyProjectile's velocity never changes
+
+			motion.clear();
+			addToMotion(CollisionLayers.ENEMY);
+			int enemyCount = motion.size();
+			addToMotion(CollisionLayers.PROJECTILE);
+			motion.dampen(0, enemyCount, RangedEnemy.FRICTION, RangedEnemy.MAX_SPEED);
+			motion.storeVelocities(0, enemyCount);
+
+			answerSightLines();
+			int pairs = findContacts(enemyCount);
+			for (byte kind = 0; kind < ContactBuffer.KINDS; kind++) {
+				respond(kind);
+			}
+			if (world.tiles != null) {
+				holdUnloaded(CollisionLayers.PLAYER);
+				holdUnloaded(CollisionLayers.ENEMY);
+			}
+
+			motion.loadVelocities();
+			motion.integrate();
+			motion.storePositions(destroyed);
+			for (int k = layerStart[CollisionLayers.PLAYER]; k < layerStart[CollisionLayers.PLAYER + 1]; k++) {
+				if (!destroyed[byLayer[k]]) {
+					((Player) gameObjects.get(byLayer[k])).updatePosition();
+				}
+			}
+
+			world.stats.setCounts(players, enemies, projectiles, count - players - enemies - projectiles, pairs);
+			if (enemies == 0) {
+				world.endRound();
+			}
+		}
+	}
+
+	/**
+	 * Finds every contact that needs reacting to this tick and records it in <code>contacts</code>, without changing anything in the World. For each layer, every layer it is set to collide with in CollisionLayers.java is checked in a loop of
+	 * its own over just the GameObjects of those two layers (see <code>findPairs()</code>). Then every MovingObject is checked against the World's walls and tiles. While the World's TickGovernor is coarsening collision, each projectile is
+	 * only checked against walls and tiles every other tick.
+	 * 
+	 * @param projectilesStart - Where the projectiles start in <code>motion</code>
+	 * @return the number of pairs of GameObjects checked for overlap
+	 */
+	private int findContacts(int projectilesStart) {
+		int pairs = 0;
+		for (byte mover = 0; mover < CollisionLayers.LAYERS; mover++) {
+			for (int mask = CollisionLayers.getMask(mover); mask != 0; mask &= mask - 1) {
+				pairs += findPairs(mover, (byte) Integer.numberOfTrailingZeros(mask), projectilesStart);
+			}
+		}
+
+		for (int k = layerStart[CollisionLayers.PLAYER]; k < layerStart[CollisionLayers.PLAYER + 1]; k++) {
+			Player player = (Player) gameObjects.get(byLayer[k]);
+			findSolid(byLayer[k], player.getX(), player.getY(), player.getWidth(), player.getHeight());
+		}
+		for (int k = layerStart[CollisionLayers.ENEMY]; k < layerStart[CollisionLayers.ENEMY + 1]; k++) {
+			RangedEnemy enemy = (RangedEnemy) gameObjects.get(byLayer[k]);
+			findSolid(byLayer[k], enemy.getX(), enemy.getY(), enemy.getWidth(), enemy.getHeight());
+		}
+		long tick = world.getTickCount();
+		for (int k = layerStart[CollisionLayers.PROJECTILE]; k < layerStart[CollisionLayers.PROJECTILE + 1]; k++) {
+			EnemyProjectile projectile = (EnemyProjectile) gameObjects.get(byLayer[k]);
+			if (world.governor.checks(projectile.getHandle(), tick)) {
+				findSolid(byLayer[k], projectile.getX(), projectile.getY(), projectile.getWidth(), projectile.getHeight());
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Finds every contact between the GameObjects of two layers, in the loop written for that pair: projectiles against the player all at once, through the MotionBuffer, or enemies against the player's melee attack. Every pair set to
+	 * collide in CollisionLayers.java must have a loop here (see <code>handles()</code>).
+	 * 
+	 * @param mover - The layer of the MovingObjects
+	 * @param other - The layer they are checked against
+	 * @param projectilesStart - Where the projectiles start in <code>motion</code>
+	 * @return the number of pairs of GameObjects checked for overlap
+	 */
+	private int findPairs(byte mover, byte other, int projectilesStart) {
+		int pairs = 0;
+		switch (mover * CollisionLayers.LAYERS + other) {
+		case PROJECTILE_PLAYER:
+			for (int k = layerStart[CollisionLayers.PLAYER]; k < layerStart[CollisionLayers.PLAYER + 1]; k++) {
+				int j = byLayer[k];
+				Player player = (Player) gameObjects.get(j);
+				motion.overlaps(projectilesStart, motion.size(), player);
+				pairs += motion.size() - projectilesStart;
+				for (int m = projectilesStart; m < motion.size(); m++) {
+					if (motion.isHit(m)) {
+						EnemyProjectile projectile = (EnemyProjectile) motion.getObject(m);
+						contacts.add(ContactBuffer.PROJECTILE_HITS_PLAYER, motion.getIndex(m), j, player.overlapX(projectile), player.overlapY(projectile));
 					}
-					mover.updatePosition();
 				}
 			}
-			if (allDead) {
-				World.incrementRound();
+			break;
+		case ENEMY_MELEE:
+			for (int k = layerStart[CollisionLayers.ENEMY]; k < layerStart[CollisionLayers.ENEMY + 1]; k++) {
+				int i = byLayer[k];
+				RangedEnemy enemy = (RangedEnemy) gameObjects.get(i);
+				for (int n = layerStart[CollisionLayers.MELEE]; n < layerStart[CollisionLayers.MELEE + 1]; n++) {
+					int j = byLayer[n];
+					MeleeAttack melee = (MeleeAttack) gameObjects.get(j);
+					pairs++;
+					if (melee.overlaps(enemy)) {
+						contacts.add(ContactBuffer.MELEE_HITS_ENEMY, i, j, melee.overlapX(enemy), melee.overlapY(enemy));
+					}
+				}
 			}
+			break;
+		default:
+			throw new IllegalStateException("No contact loop for layer " + mover + " against layer " + other);
+		}
+		return pairs;
+	}
+
+	/**
+	 * Checks whether <code>findPairs()</code> has a loop for a pair of layers. CollisionLayers checks every pair it sets to collide against this as soon as it is loaded, so a pair with no loop fails straight away instead of never being
+	 * checked.
+	 * 
+	 * @param mover - The layer of the MovingObjects
+	 * @param other - The layer they are checked against
+	 * @return true if the pair has a loop, false otherwise
+	 */
+	static boolean handles(byte mover, byte other) {
+		switch (mover * CollisionLayers.LAYERS + other) {
+		case PROJECTILE_PLAYER:
+		case ENEMY_MELEE:
+			return true;
+		default:
+			return false;
 		}
 	}
 
+	/**
+	 * Records a contact if a MovingObject has run into any solid cells of the World's walls or tiles.
+	 * 
+	 * @param index - The index of the mover in <code>gameObjects</code>
+	 * @param x - The x position of the mover's upper-left corner
+	 * @param y - The y position of the mover's upper-left corner
+	 * @param width - The width of the mover
+	 * @param height - The height of the mover
+	 */
+	private void findSolid(int index, int x, int y, int width, int height) {
+		if (world.walls != null) {
+			findSolid(world.walls, index, x, y, width, height);
+		}
+		if (world.tiles != null) {
+			findSolid(world.tiles, index, x, y, width, height);
+		}
+	}
+
+	/**
+	 * Stops every MovingObject in one layer whose center is in a chunk of the World's TileMap that isn't loaded. Every tile around it counts as solid, so it would otherwise be pushed about by walls that aren't there; it waits where it is
+	 * until its chunk is loaded.
+	 * 
+	 * @param layer - The layer to check
+	 */
+	private void holdUnloaded(byte layer) {
+		for (int k = layerStart[layer]; k < layerStart[layer + 1]; k++) {
+			GameObject obj = gameObjects.get(byLayer[k]);
+			if (!destroyed[byLayer[k]] && !world.tiles.isLoaded(obj.getX() + obj.getWidth() / 2, obj.getY() + obj.getHeight() / 2)) {
+				((MovingObject) obj).getVelocity().set(0, 0);
+			}
+		}
+	}
+
+	/**
+	 * Adds every GameObject in one layer to the MotionBuffer, in the order of <code>gameObjects</code>. Every GameObject in the layer must be a MovingObject.
+	 * 
+	 * @param layer - The layer to add
+	 */
+	private void addToMotion(byte layer) {
+		for (int k = layerStart[layer]; k < layerStart[layer + 1]; k++) {
+			motion.add((MovingObject) gameObjects.get(byLayer[k]), byLayer[k]);
+		}
+	}
+
+	/**
+	 * Gets the number of GameObjects in a layer this tick. Only meaningful after <code>groupByLayer()</code>.
+	 * 
+	 * @param layer - The layer to count
+	 * @return the number of GameObjects in the layer
+	 */
+	private int layerSize(byte layer) {
+		return layerStart[layer + 1] - layerStart[layer];
+	}
+
+	/**
+	 * Answers, in one go, every question of who can see what asked while velocities were being updated, and hands each answer back to whoever asked. Only enemies ask for now, to know whether they can see the player before firing.
+	 */
+	private void answerSightLines() {
+		SightLines sightLines = world.sightLines;
+		if (sightLines.size() == 0) {
+			return;
+		}
+		sightLines.resolve(world.walls, world.tiles);
+		for (int i = 0; i < sightLines.size(); i++) {
+			((RangedEnemy) sightLines.getAsker(i)).seePlayer(sightLines.isClear(i));
+		}
+	}
+
+	/**
+	 * Looks up the layer of every GameObject this tick, and fills in <code>byLayer</code> and <code>layerStart</code> with their indices grouped by layer. Within a layer, indices stay in the order of <code>gameObjects</code>, so contacts are
+	 * still found in the same order every time.
+	 * 
+	 * @param count - The number of GameObjects this tick
+	 */
+	private void groupByLayer(int count) {
+		Arrays.fill(layerStart, 0);
+		for (int i = 0; i < count; i++) {
+			layers[i] = gameObjects.get(i).getLayer();
+			layerStart[layers[i] + 1]++;
+		}
+		for (int layer = 0; layer < CollisionLayers.LAYERS; layer++) {
+			layerStart[layer + 1] += layerStart[layer];
+		}
+		// layerStart[layer] is used as a write cursor while filling, which leaves each layer's start in the next layer's slot
+		for (int i = 0; i < count; i++) {
+			byLayer[layerStart[layers[i]]++] = i;
+		}
+		for (int layer = CollisionLayers.LAYERS; layer > 0; layer--) {
+			layerStart[layer] = layerStart[layer - 1];
+		}
+		layerStart[0] = 0;
+	}
+
+	/**
+	 * Records a contact if a MovingObject has run into any solid cells of the given grid. Only the cells under the mover's hitbox are looked at, so this costs the same however many walls there are. Solid cells are looked at in runs, not one
+	 * at a time: the depth from side to side is how far the longest run of solid cells along a row reaches in from the left or right of the hitbox, and the depth from top to bottom is the same down each column. A row that is solid all the
+	 * way across is a floor or ceiling being slid along, not a wall, so it adds no depth from side to side (and likewise for columns), and a long wall made of many cells acts just like one wall. If neither the rows nor the columns are
+	 * solid all the way across, one block is poking into a corner of the hitbox, and it is only pushed out of along whichever axis it overlaps less.
+	 * 
+	 * @param cells - The solid cells to check against
+	 * @param index - The index of the mover in <code>gameObjects</code>
+	 * @param left - The x position of the mover's upper-left corner
+	 * @param top - The y position of the mover's upper-left corner
+	 * @param moverWidth - The width of the mover
+	 * @param moverHeight - The height of the mover
+	 */
+	private void findSolid(SolidCells cells, int index, int left, int top, int moverWidth, int moverHeight) {
+		int size = cells.getCellSize();
+		int right = left + moverWidth, bottom = top + moverHeight;
+		int firstX = Math.floorDiv(left, size), lastX = Math.floorDiv(right - 1, size);
+		int firstY = Math.floorDiv(top, size), lastY = Math.floorDiv(bottom - 1, size);
+		int depthX = 0, depthY = 0;
+		boolean solid = false, fullRow = false, fullColumn = false;
+		for (int cellY = firstY; cellY <= lastY; cellY++) {
+			int from = firstX, to = lastX;
+			while (from <= lastX && cells.isSolidCell(from, cellY)) {
+				from++;
+			}
+			if (from > lastX) {
+				solid = fullRow = true;
+				continue;
+			}
+			while (cells.isSolidCell(to, cellY)) {
+				to--;
+			}
+			// Cells from..to aren't part of either run, though some of them may still be solid
+			solid |= from > firstX || to < lastX;
+			depthX = Math.max(depthX, Math.max(Math.min(right, from * size) - left, right - Math.max(left, to * size + size)));
+		}
+		for (int cellX = firstX; cellX <= lastX; cellX++) {
+			int from = firstY, to = lastY;
+			while (from <= lastY && cells.isSolidCell(cellX, from)) {
+				from++;
+			}
+			if (from > lastY) {
+				fullColumn = true;
+				continue;
+			}
+			while (cells.isSolidCell(cellX, to)) {
+				to--;
+			}
+			depthY = Math.max(depthY, Math.max(Math.min(bottom, from * size) - top, bottom - Math.max(top, to * size + size)));
+			for (int cellY = from + 1; cellY < to && !solid; cellY++) {
+				solid = cells.isSolidCell(cellX, cellY);
+			}
+		}
+		if (!solid) {
+			return;
+		}
+		if (depthX == 0 && depthY == 0) {
+			// Buried in solid cells, or a lone cell in the middle of the hitbox, so push it a cell at a time the shorter way
+			if (moverWidth > moverHeight) {
+				depthY = Math.min(size, moverHeight);
+			} else {
+				depthX = Math.min(size, moverWidth);
+			}
+		} else if (!fullRow && !fullColumn && depthX > 0 && depthY > 0) {
+			if (depthX > depthY) {
+				depthX = 0;
+			} else {
+				depthY = 0;
+			}
+		}
+		contacts.add(ContactBuffer.HITS_SOLID, index, -1, depthX, depthY);
+	}
+
+	/**
+	 * Reacts to every contact of the given kind, in the order they were found. Contacts involving a GameObject already destroyed this tick are skipped.
+	 * 
+	 * @param kind - The kind of contact to react to
+	 */
+	private void respond(byte kind) {
+		for (int c = 0; c < contacts.size(); c++) {
+			if (contacts.getKind(c) != kind) {
+				continue;
+			}
+			int first = contacts.getFirst(c), second = contacts.getSecond(c);
+			if (destroyed[first] || (second >= 0 && destroyed[second])) {
+				continue;
+			}
+			switch (kind) {
+			case ContactBuffer.PROJECTILE_HITS_PLAYER:
+				projectileHitsPlayer(first, second);
+				break;
+			case ContactBuffer.MELEE_HITS_ENEMY:
+				meleeHitsEnemy(first, second);
+				break;
+			case ContactBuffer.HITS_SOLID:
+				hitsSolid(first, contacts.getDepthX(c), contacts.getDepthY(c));
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Destroys a projectile that has hit the player, and damages the player.
+	 * 
+	 * @param projectile - The index of the EnemyProjectile
+	 * @param player - The index of the Player
+	 */
+	private void projectileHitsPlayer(int projectile, int player) {
+		destroy(projectile);
+		((Player) gameObjects.get(player)).hit(EnemyProjectile.DAMAGE);
+	}
+
+	/**
+	 * Damages an enemy caught in the player's melee attack.
+	 * 
+	 * @param enemy - The index of the RangedEnemy
+	 * @param melee - The index of the MeleeAttack
+	 */
+	private void meleeHitsEnemy(int enemy, int melee) {
+		// TODO: add knockback
+		((RangedEnemy) gameObjects.get(enemy)).hit(MeleeAttack.DAMAGE);
+	}
+
+	/**
+	 * Pushes a MovingObject back out of something solid it has run into, or destroys it if it is a projectile.
+	 * 
+	 * @param index - The index of the MovingObject
+	 * @param depthX - How far it overlaps the solid thing from side to side
+	 * @param depthY - How far it overlaps the solid thing from top to bottom
+	 */
+	private void hitsSolid(int index, int depthX, int depthY) {
+		MovingObject mover = (MovingObject) gameObjects.get(index);
+		if (EnemyProjectile.class.isInstance(mover)) {
+			destroy(index);
+			return;
+		}
+		if (depthY > 0) {
+			mover.getVelocity().add(0, (mover.getVelocity().getYComponent() > 0) ? -depthY : depthY);
+		}
+		if (depthX > 0) {
+			mover.getVelocity().add((mover.getVelocity().getXComponent() > 0) ? -depthX : depthX, 0);
+		}
+	}
+
+	/**
+	 * Removes a GameObject from the World and marks it as destroyed for the rest of this tick.
+	 * 
+	 * @param index - The index of the GameObject
+	 */
+	private void destroy(int index) {
+		destroyed[index] = true;
+		gameObjects.get(index).terminate();
+	}
+
 }
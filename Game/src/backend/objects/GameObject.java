@@ -1,9 +1,9 @@
 package backend.objects;
 
-import java.awt.Graphics;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 
+import backend.framework.EntityRegistry;
+import backend.framework.RenderFrame;
 import backend.utility.Vector;
 import world.World;
 
@@ -17,34 +17,38 @@ public abstract class GameObject {
 	/**
 	 * X position of upper left corner
 	 */
-	protected int			x;
+	protected int	x;
 
 	/**
 	 * Y position of upper left corner
 	 */
-	protected int			y;
+	protected int	y;
 
 	/**
 	 * The width of this GameObject's hitbox.
 	 */
-	protected int			width;
+	protected int	width;
 
 	/**
 	 * The height of this GameObject's hitbox.
 	 */
-	protected int			height;
+	protected int	height;
 
 	/**
-	 * NOT IMPLEMENTED
+	 * The World this GameObject is in. Set when it is added to a World.
 	 */
-	protected BufferedImage	sprite;
+	protected World	world;
+
+	/**
+	 * The handle this GameObject can be found by in its World (see EntityRegistry.java). EntityRegistry.NONE while it isn't in one.
+	 */
+	private int		handle	= EntityRegistry.NONE;
 
 	/**
 	 * Creates a new GameObject of width, height, x position, and y position all of 0.
 	 */
 	public GameObject() {
 		x = y = width = height = 0;
-		sprite = null;
 	}
 
 	/**
@@ -60,21 +64,35 @@ public abstract class GameObject {
 		y = yPos;
 		this.width = width;
 		this.height = height;
-		sprite = null;
 	}
 
 	/**
-	 * Draws this GameObject in it's own specific way on the given Graphics context.
+	 * Records how this GameObject currently looks into the given frame. Called by the simulation at the end of every tick, so the renderer never has to look at the GameObject itself.
 	 * 
-	 * @param g - The Graphics upon which this GameObject is to be drawn
+	 * @param frame - The RenderFrame this GameObject is to be recorded into
 	 */
-	public abstract void paint(Graphics g);
+	public abstract void render(RenderFrame frame);
+
+	/**
+	 * Gets the collision layer of this GameObject (see CollisionLayers.java), which decides what it is checked for overlap against.
+	 * 
+	 * @return one of the layers in CollisionLayers.java
+	 */
+	public abstract byte getLayer();
 
 	/**
 	 * Kills this GameObject and removes it from the world.
 	 */
 	public void terminate() {
-		World.removeGameObject(this);
+		world.removeGameObject(this);
+	}
+
+	/**
+	 * Called when a timer this GameObject set on its World's TimerWheel goes off. Does nothing unless overridden.
+	 * 
+	 * @param event - What the timer was for, as given to <code>TimerWheel.schedule()</code>
+	 */
+	public void timerFired(int event) {
 	}
 
 	/*
@@ -118,19 +136,117 @@ public abstract class GameObject {
 	}
 
 	/**
-	 * NOT IMPLEMENTED
+	 * Gets the World this GameObject is in.
+	 * 
+	 * @return this GameObject's World, or null if it hasn't been added to one yet
+	 */
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * Sets the World this GameObject is in. Only World.java should need to call this, when the GameObject is added to it.
+	 * 
+	 * @param world - The World this GameObject now belongs to
+	 */
+	public void setWorld(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Gets the handle this GameObject can be found by in its World. Other GameObjects should hold onto this rather than a reference, since a handle stops finding anything once this GameObject is removed.
+	 * 
+	 * @return this GameObject's handle, or EntityRegistry.NONE if it isn't in a World
+	 */
+	public int getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Sets the handle this GameObject can be found by. Only EntityRegistry.java should need to call this.
+	 * 
+	 * @param handle - This GameObject's new handle
 	 */
-	public BufferedImage getSprite() {
-		return sprite;
+	public void setHandle(int handle) {
+		this.handle = handle;
 	}
 
 	/**
-	 * Gets the rectanglular hitbox of this GameObject.
+	 * Gets the rectanglular hitbox of this GameObject. Makes a new Rectangle every call, so anything run every tick should use <code>getHitX()</code>, <code>getHitY()</code>, <code>getHitWidth()</code>, <code>getHitHeight()</code>, and
+	 * <code>overlaps()</code> instead.
 	 * 
 	 * @return a new java.awt.Rectangle which has this GameObject's width and height
 	 */
 	public Rectangle getBounds() {
-		return new Rectangle(getX(), getY(), width, height);
+		return new Rectangle(getHitX(), getHitY(), getHitWidth(), getHitHeight());
+	}
+
+	/**
+	 * Gets the x position of the upper-left corner of this GameObject's hitbox. For most GameObjects, the hitbox is just their position and size.
+	 * 
+	 * @return the left edge of this GameObject's hitbox
+	 */
+	public int getHitX() {
+		return getX();
+	}
+
+	/**
+	 * Gets the y position of the upper-left corner of this GameObject's hitbox.
+	 * 
+	 * @return the top edge of this GameObject's hitbox
+	 */
+	public int getHitY() {
+		return getY();
+	}
+
+	/**
+	 * Gets the width of this GameObject's hitbox.
+	 * 
+	 * @return the width of this GameObject's hitbox
+	 */
+	public int getHitWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of this GameObject's hitbox.
+	 * 
+	 * @return the height of this GameObject's hitbox
+	 */
+	public int getHitHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets how far this GameObject's hitbox overlaps another's from side to side. This is the width of <code>getBounds().intersection(obj.getBounds())</code>, without making any Rectangles.
+	 * 
+	 * @param obj - The other GameObject
+	 * @return the width of the overlap, which is 0 or less if the hitboxes don't overlap from side to side
+	 */
+	public int overlapX(GameObject obj) {
+		int left = getHitX(), otherLeft = obj.getHitX();
+		return Math.min(left + getHitWidth(), otherLeft + obj.getHitWidth()) - Math.max(left, otherLeft);
+	}
+
+	/**
+	 * Gets how far this GameObject's hitbox overlaps another's from top to bottom. This is the height of <code>getBounds().intersection(obj.getBounds())</code>, without making any Rectangles.
+	 * 
+	 * @param obj - The other GameObject
+	 * @return the height of the overlap, which is 0 or less if the hitboxes don't overlap from top to bottom
+	 */
+	public int overlapY(GameObject obj) {
+		int top = getHitY(), otherTop = obj.getHitY();
+		return Math.min(top + getHitHeight(), otherTop + obj.getHitHeight()) - Math.max(top, otherTop);
+	}
+
+	/**
+	 * Checks whether this GameObject's hitbox overlaps another's by any amount.
+	 * 
+	 * @param obj - The other GameObject
+	 * @return true if the two hitboxes share some area, false otherwise
+	 */
+	public boolean overlaps(GameObject obj) {
+		return overlapX(obj) > 0 && overlapY(obj) > 0;
 	}
 
 	/**
@@ -158,6 +274,18 @@ public abstract class GameObject {
 	 * @return a Vector pointing from the other object to this one
 	 */
 	public Vector getDistanceVector(GameObject obj) {
-		return new Vector(obj.getX() + obj.width / 2 - this.getX() - this.width / 2, obj.getY() + obj.height / 2 - this.getY() - this.height / 2);
+		return getDistanceVector(obj, new Vector());
+	}
+
+	/**
+	 * Gets the distance from this GameObject to another, reusing the given Vector rather than making a new one.
+	 * 
+	 * @param obj - The other object to find this GameObject's distance from
+	 * @param result - The Vector to store the distance in
+	 * @return result, now pointing from the other object to this one
+	 */
+	public Vector getDistanceVector(GameObject obj, Vector result) {
+		result.set(obj.getX() + obj.width / 2 - this.getX() - this.width / 2, obj.getY() + obj.height / 2 - this.getY() - this.height / 2);
+		return result;
 	}
 }
@@ -1,7 +1,9 @@
 package backend.objects;
 
 import java.awt.Color;
-import java.awt.Graphics;
+
+import backend.framework.CollisionLayers;
+import backend.framework.RenderFrame;
 
 /**
  * Defines an ImmovableObject that MovingObjects cannot intersect with.
@@ -9,9 +11,13 @@ import java.awt.Graphics;
  * @author Owen Roszkowski
  *
  */
-public class ImmovableObject extends GameObject {
+public final class ImmovableObject extends GameObject {
+
+	/**
+	 * The color of every ImmovableObject.
+	 */
+	private static final int COLOR = Color.GRAY.getRGB();
 
-	
 	/**
 	 * Creates a new rectangular ImmovableObject with its upper-left corner at 0, 0 of length and width 0.
 	 */
@@ -31,11 +37,13 @@ public class ImmovableObject extends GameObject {
 	}
 
 	@Override
-	public void paint(Graphics g) {
-		g.setColor(Color.GRAY);
-		g.drawRect(x, y, width, height);
-		g.fillRect(x, y, width, height);
-		g.setColor(Color.BLACK);
+	public void render(RenderFrame frame) {
+		frame.add(RenderFrame.RECT, x, y, width, height, COLOR, 1);
+	}
+
+	@Override
+	public byte getLayer() {
+		return CollisionLayers.WALL;
 	}
 
 }
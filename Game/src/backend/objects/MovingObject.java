@@ -61,12 +61,12 @@ public abstract class MovingObject extends GameObject {
 	}
 
 	/**
-	 * Similar to GameObject.java's <code>setX()</code>, but with double precision.
+	 * Similar to GameObject.java's <code>setY()</code>, but with double precision.
 	 * 
-	 * @param d - The new 'true' x position of this MovingObject
+	 * @param d - The new 'true' y position of this MovingObject
 	 */
 	public void setY(double d) {
-		trueX = d;
+		trueY = d;
 	}
 
 	@Override
@@ -1,8 +1,10 @@
 package backend.objects.npc;
 
 import java.awt.Color;
-import java.awt.Graphics;
 
+import backend.framework.CollisionLayers;
+import backend.framework.EntityRegistry;
+import backend.framework.RenderFrame;
 import backend.objects.MovingObject;
 import backend.user.Player;
 import backend.utility.Vector;
@@ -12,7 +14,7 @@ import backend.utility.Vector;
  * 
  * @author Owen Roszkowski
  */
-public class EnemyProjectile extends MovingObject {
+public final class EnemyProjectile extends MovingObject {
 
 	/**
 	 * The width of all EnemyProjectiles.
@@ -37,7 +39,12 @@ public class EnemyProjectile extends MovingObject {
 	/**
 	 * The color of this projectile.
 	 */
-	private static final Color	COLOR			= Color.BLACK;
+	private static final int	COLOR			= Color.BLACK.getRGB();
+
+	/**
+	 * The handle of the enemy that fired this projectile, or EntityRegistry.NONE if it wasn't fired by anyone. May stop finding anything if the enemy dies while this projectile is still flying.
+	 */
+	private final int			shooter;
 
 	/**
 	 * Creates a new projectile whose upper-left corner is at position (0, 0) which will constantly move in the given direction at a speed of EnemyProjectile.DEFAULT_SPEED.
@@ -46,6 +53,7 @@ public class EnemyProjectile extends MovingObject {
 	 */
 	public EnemyProjectile(Vector direction) {
 		super();
+		shooter = EntityRegistry.NONE;
 		velocity = direction;
 		velocity.setMagnitude(DEFAULT_SPEED);
 	}
@@ -58,10 +66,22 @@ public class EnemyProjectile extends MovingObject {
 	 * @param direction - The direction in which this projectile will move
 	 */
 	public EnemyProjectile(int xPos, int yPos, Vector direction) {
+		this(xPos, yPos, direction, EntityRegistry.NONE);
+	}
+
+	/**
+	 * Creates a new projectile at the given position with the given direction, fired by the given enemy.
+	 * 
+	 * @param xPos - The x position of this EnemyProjectile's upper-left corner
+	 * @param yPos - The y position of this EnemyProjectile's upper-left corner
+	 * @param direction - The direction in which this projectile will move
+	 * @param shooter - The handle of the enemy firing this projectile
+	 */
+	public EnemyProjectile(int xPos, int yPos, Vector direction, int shooter) {
 		super(xPos, yPos, WIDTH, HEIGHT);
+		this.shooter = shooter;
 		velocity = direction;
 		velocity.setMagnitude(DEFAULT_SPEED);
-
 	}
 
 	/**
@@ -72,11 +92,23 @@ public class EnemyProjectile extends MovingObject {
 		return;
 	}
 
+	/**
+	 * Gets the enemy that fired this projectile.
+	 * 
+	 * @return the handle of the enemy that fired this projectile (which can be looked up with <code>World.getGameObject()</code>), or EntityRegistry.NONE
+	 */
+	public int getShooter() {
+		return shooter;
+	}
+
+	@Override
+	public void render(RenderFrame frame) {
+		frame.add(RenderFrame.OVAL, getX(), getY(), width, height, COLOR, 1);
+	}
+
 	@Override
-	public void paint(Graphics g) {
-		g.setColor(COLOR);
-		g.drawOval(getX(), getY(), width, height);
-		g.fillOval(getX(), getY(), width, height);
+	public byte getLayer() {
+		return CollisionLayers.PROJECTILE;
 	}
 
 }
@@ -0,0 +1,192 @@
+package backend.objects.npc;
+
+/**
+ * The numbers that decide how every RangedEnemy in a World plays, so they can be changed for one World without touching any other, such as by a balance sweep running many Worlds at once. Every World has one, which starts as
+ * EnemyTuning.DEFAULT (RangedEnemy's own constants) and can be swapped out before the World is started. An EnemyTuning never changes once made.
+ * 
+ * @author Owen Roszkowski
+ */
+public class EnemyTuning {
+
+	/**
+	 * The names of the numbers, in the order <code>get()</code> and <code>with()</code> number them, and as written by <code>toString()</code> and read by <code>with()</code>.
+	 */
+	public static final String[]	NAMES	= { "range", "tooClose", "cooldown", "recoil", "iFrames" };
+
+	/**
+	 * The numbers RangedEnemy was written with.
+	 */
+	public static final EnemyTuning	DEFAULT	= new EnemyTuning(RangedEnemy.RANGE, RangedEnemy.TOO_CLOSE, RangedEnemy.COOLDOWN, RangedEnemy.RECOIL, RangedEnemy.I_FRAMES);
+
+	/**
+	 * The distance, in pixels, from the player an enemy tries to get within before firing.
+	 */
+	private final int				range;
+
+	/**
+	 * The distance, in pixels, from the player an enemy flees at.
+	 */
+	private final int				tooClose;
+
+	/**
+	 * The cooldown on an enemy's gun, in ticks.
+	 */
+	private final int				cooldown;
+
+	/**
+	 * The number of pixels per tick an enemy is pushed backwards by each shot.
+	 */
+	private final double			recoil;
+
+	/**
+	 * How many ticks an enemy can't be hit for after being hit.
+	 */
+	private final int				iFrames;
+
+	/**
+	 * Creates a new EnemyTuning with the given numbers.
+	 * 
+	 * @param range - The distance, in pixels, from the player an enemy tries to get within before firing
+	 * @param tooClose - The distance, in pixels, from the player an enemy flees at
+	 * @param cooldown - The cooldown on an enemy's gun, in ticks. Must be positive.
+	 * @param recoil - The number of pixels per tick an enemy is pushed backwards by each shot
+	 * @param iFrames - How many ticks an enemy can't be hit for after being hit
+	 */
+	public EnemyTuning(int range, int tooClose, int cooldown, double recoil, int iFrames) {
+		if (cooldown <= 0) {
+			throw new IllegalArgumentException("Cooldown must be positive: " + cooldown);
+		}
+		this.range = range;
+		this.tooClose = tooClose;
+		this.cooldown = cooldown;
+		this.recoil = recoil;
+		this.iFrames = iFrames;
+	}
+
+	/**
+	 * Gets one of the numbers by its place in EnemyTuning.NAMES.
+	 * 
+	 * @param i - The place of the number in EnemyTuning.NAMES
+	 * @return the number
+	 */
+	public double get(int i) {
+		switch (i) {
+		case 0:
+			return range;
+		case 1:
+			return tooClose;
+		case 2:
+			return cooldown;
+		case 3:
+			return recoil;
+		case 4:
+			return iFrames;
+		default:
+			throw new IllegalArgumentException("No such number: " + i);
+		}
+	}
+
+	/**
+	 * Makes a copy of this EnemyTuning with one number changed.
+	 * 
+	 * @param i - The place of the number in EnemyTuning.NAMES
+	 * @param value - The new value of the number. Rounded for numbers that are whole.
+	 * @return a new EnemyTuning, the same as this one except for the given number
+	 */
+	public EnemyTuning with(int i, double value) {
+		double[] numbers = new double[NAMES.length];
+		for (int n = 0; n < numbers.length; n++) {
+			numbers[n] = (n == i) ? value : get(n);
+		}
+		return new EnemyTuning((int) Math.round(numbers[0]), (int) Math.round(numbers[1]), (int) Math.round(numbers[2]), numbers[3], (int) Math.round(numbers[4]));
+	}
+
+	/**
+	 * Makes a copy of this EnemyTuning with one number changed.
+	 * 
+	 * @param name - The name of the number, one of EnemyTuning.NAMES
+	 * @param value - The new value of the number
+	 * @return a new EnemyTuning, the same as this one except for the given number
+	 * @throws IllegalArgumentException if there is no number with the given name
+	 */
+	public EnemyTuning with(String name, double value) {
+		for (int i = 0; i < NAMES.length; i++) {
+			if (NAMES[i].equalsIgnoreCase(name)) {
+				return with(i, value);
+			}
+		}
+		throw new IllegalArgumentException("No such number: " + name);
+	}
+
+	/**
+	 * Writes out one of the numbers, without a decimal point if it is a whole number.
+	 * 
+	 * @param i - The place of the number in EnemyTuning.NAMES
+	 * @return the number, as text
+	 */
+	public String format(int i) {
+		return i == 3 ? Double.toString(recoil) : Integer.toString((int) get(i));
+	}
+
+	/**
+	 * Describes this EnemyTuning as its names and numbers, such as <code>range=300 tooClose=200 cooldown=75 recoil=2.0 iFrames=50</code>.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < NAMES.length; i++) {
+			text.append(i == 0 ? "" : " ").append(NAMES[i]).append('=').append(format(i));
+		}
+		return text.toString();
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the distance from the player an enemy tries to get within before firing.
+	 * 
+	 * @return the range, in pixels
+	 */
+	public int getRange() {
+		return range;
+	}
+
+	/**
+	 * Gets the distance from the player an enemy flees at.
+	 * 
+	 * @return the distance, in pixels
+	 */
+	public int getTooClose() {
+		return tooClose;
+	}
+
+	/**
+	 * Gets the cooldown on an enemy's gun.
+	 * 
+	 * @return the cooldown, in ticks
+	 */
+	public int getCooldown() {
+		return cooldown;
+	}
+
+	/**
+	 * Gets how far an enemy is pushed backwards by each shot.
+	 * 
+	 * @return the recoil, in pixels per tick
+	 */
+	public double getRecoil() {
+		return recoil;
+	}
+
+	/**
+	 * Gets how long an enemy can't be hit for after being hit.
+	 * 
+	 * @return the number of invulnerability frames, in ticks
+	 */
+	public int getIFrames() {
+		return iFrames;
+	}
+
+}
@@ -1,8 +1,9 @@
 package backend.objects.npc;
 
 import java.awt.Color;
-import java.awt.Graphics;
 
+import backend.framework.CollisionLayers;
+import backend.framework.RenderFrame;
 import backend.objects.MovingObject;
 import backend.user.Player;
 import backend.utility.Vector;
@@ -13,7 +14,7 @@ import world.World;
  * 
  * @author Owen Roszkowski
  */
-public class RangedEnemy extends MovingObject {
+public final class RangedEnemy extends MovingObject {
 
 	/**
 	 * The constant number of pixels the RangedEnemy accelerates by per tick.
@@ -23,47 +24,67 @@ public class RangedEnemy extends MovingObject {
 	/**
 	 * The constant number of pixels moving counter to the acceleration of the RangedEnemy at any given time.
 	 */
-	private final static double	FRICTION		= ACCELERATION * 0.5;
+	public final static double	FRICTION		= ACCELERATION * 0.5;
 
 	/**
 	 * The constant maximum number of pixels a RangedEnemy may move per tick.
 	 */
-	private static final double	MAX_SPEED		= ACCELERATION * 4;
+	public static final double	MAX_SPEED		= ACCELERATION * 4;
 
 	/**
-	 * The constant number of pixels a RangedEnemy is forced backwards by from each shot.
+	 * The constant number of pixels a RangedEnemy is forced backwards by from each shot, unless its World's EnemyTuning says otherwise.
 	 */
-	private static final double	RECOIL			= ACCELERATION * 4;
+	public static final double	RECOIL			= ACCELERATION * 4;
 
 	/**
-	 * The largest distance, in pixels, from the player a RangedEnemy will accurately shoot from. RangedEnemies are essentially always trying to move to reach this point, then fire.
+	 * The largest distance, in pixels, from the player a RangedEnemy will accurately shoot from, unless its World's EnemyTuning says otherwise. RangedEnemies are essentially always trying to move to reach this point, then fire.
 	 */
 	public static final int		RANGE			= 300;
 
 	/**
-	 * The smallest distance, in pixels, from the player a RangedEnemy will get before fleeing and abandoning firing.
+	 * The smallest distance, in pixels, from the player a RangedEnemy will get before fleeing and abandoning firing, unless its World's EnemyTuning says otherwise.
 	 */
 	public static final int		TOO_CLOSE		= RANGE - 100;
 
 	/**
-	 * The cooldown on the RangedEnemy's gun, in ticks.
+	 * The cooldown on the RangedEnemy's gun, in ticks, unless its World's EnemyTuning says otherwise.
 	 */
-	private static final int	COOLDOWN		= 75;
+	public static final int		COOLDOWN		= 75;
 
 	/**
 	 * A random shade of blue that is the color of this specific instance of RangedEnemy.
 	 */
 	private final Color			COLOR			= new Color((int) (66 + 89 * Math.random()), (int) (66 + 124 * Math.random()), 244);
 
+	/**
+	 * The RGB value of COLOR, worked out once so it doesn't have to be every tick.
+	 */
+	private final int			RGB				= COLOR.getRGB();
+
+	/**
+	 * The color this enemy flashes to while it has invulnerability frames. A sort of inverse of COLOR.
+	 */
+	private final int			FLASH_RGB		= new Color(255 - COLOR.getRed(), 255 - COLOR.getBlue(), 255 - COLOR.getGreen()).getRGB();
+
 	/**
 	 * The width of the circle that this RangedEnemy's shape is.
 	 */
-	private static final int	WIDTH			= 20;
+	public static final int		WIDTH			= 20;
 
 	/**
 	 * The height of the circle that this RangedEnemy's shape is.
 	 */
-	private static final int	HEIGHT			= 20;
+	public static final int		HEIGHT			= 20;
+
+	/**
+	 * The number of particles thrown out when this enemy is hit.
+	 */
+	public static final int		HIT_PARTICLES	= 12;
+
+	/**
+	 * The number of particles thrown out when this enemy is killed.
+	 */
+	public static final int		DEATH_PARTICLES	= 48;
 
 	/**
 	 * The maximum health this enemy starts with and can have.
@@ -71,7 +92,7 @@ public class RangedEnemy extends MovingObject {
 	public static final double	MAX_HEALTH		= 4;
 
 	/**
-	 * How many ticks this enemy cannot be hit by the player during after being hit. Used to get rid of player 'double taps'.
+	 * How many ticks this enemy cannot be hit by the player during after being hit, unless its World's EnemyTuning says otherwise. Used to get rid of player 'double taps'.
 	 */
 	public static final int		I_FRAMES		= 50;
 
@@ -81,17 +102,42 @@ public class RangedEnemy extends MovingObject {
 	private Vector				aim;
 
 	/**
-	 * A counter that keeps track of the cooldown on this enemy's gun, in ticks.
+	 * The distance from this enemy to the player, worked out again every tick into the same Vector.
+	 */
+	private final Vector		toPlayer		= new Vector();
+
+	/**
+	 * A Vector reused for every push this enemy gives itself (moving towards or away from the player, or recoil), so that moving never makes a new Vector.
 	 */
-	private int					cdTick;
+	private final Vector		push			= new Vector();
 
 	/**
-	 * A counter that keeps track of how long the enemy must stop moving before firing, in ticks.
+	 * A timer event: this enemy has been frozen long enough, and should fire.
 	 */
-	private int					freezeTick;
+	private static final int	UNFREEZE		= 0;
 
 	/**
-	 * How long the enemy is 'frozen' for. The maximum value <code>freezeTick</code> will assume in a firing cycle.
+	 * A timer event: this enemy's invulnerability after being hit is over.
+	 */
+	private static final int	END_I_FRAMES	= 1;
+
+	/**
+	 * The tick of the World's TimerWheel the cooldown on this enemy's gun was last started (or made to look started) at.
+	 */
+	private long				cooldownStart;
+
+	/**
+	 * Whether the enemy has stopped moving to fire.
+	 */
+	private boolean				frozen;
+
+	/**
+	 * The tick of the World's TimerWheel this enemy stops being frozen at.
+	 */
+	private long				unfreezeAt;
+
+	/**
+	 * How long the enemy is 'frozen' for, in ticks.
 	 */
 	private int					freezeLength;
 
@@ -101,24 +147,37 @@ public class RangedEnemy extends MovingObject {
 	private double				health;
 
 	/**
-	 * A counter that keeps track of how may frames of invulnerability this enemy has upon being hit.
+	 * Whether this enemy is invulnerable, having just been hit.
+	 */
+	private boolean				invulnerable;
+
+	/**
+	 * The tick of the World's TimerWheel this enemy's invulnerability ends at.
 	 */
-	private int					iTicks;
+	private long				invulnerableUntil;
 
 	private short				colorTick;
 
+	/**
+	 * The numbers this enemy plays by, taken from its World when it is added to one.
+	 */
+	private EnemyTuning			tuning;
+
 	/**
 	 * Creates a new RangedEnemy whose upper-left corner is at (0, 0) and whose width and height is 0.
 	 */
 	public RangedEnemy() {
 		super();
 		aim = new Vector();
-		cdTick = 0;
-		freezeTick = 0;
+		cooldownStart = 0;
+		frozen = false;
+		unfreezeAt = 0;
 		freezeLength = 1;
 		health = MAX_HEALTH;
-		iTicks = 0;
+		invulnerable = false;
+		invulnerableUntil = 0;
 		colorTick = 0;
+		tuning = EnemyTuning.DEFAULT;
 	}
 
 	/**
@@ -130,75 +189,102 @@ public class RangedEnemy extends MovingObject {
 	public RangedEnemy(double xPos, double yPos) {
 		super(xPos, yPos, WIDTH, HEIGHT);
 		aim = new Vector();
-		cdTick = 0;
-		freezeTick = 0;
+		cooldownStart = 0;
+		frozen = false;
+		unfreezeAt = 0;
 		freezeLength = 1;
 		health = MAX_HEALTH;
-		iTicks = 0;
+		invulnerable = false;
+		invulnerableUntil = 0;
 		colorTick = 0;
+		tuning = EnemyTuning.DEFAULT;
 	}
 
+	/**
+	 * Steers this enemy towards or away from the player, or freezes it to fire. Friction and the speed limit (RangedEnemy.FRICTION and RangedEnemy.MAX_SPEED) aren't applied here; the Updator applies them to every enemy at once afterwards. While
+	 * the World's TickGovernor is slowing enemy AI, this enemy only steers on some ticks, and drifts on the rest.
+	 */
+	@Override
 	public void updateVelocity() {
-		if (iTicks > 0) {
-			iTicks--;
+		if (frozen || !world.governor.decides(getHandle(), world.getTickCount())) {
+			return;
 		}
-		cdTick++;
-		Vector distVector = this.getDistanceVector(World.player);
-		if (frozen()) {
-			;
-		} else if (distVector.getMagnitude() > RANGE) {
-			if (cdTick >= 1.33 * COOLDOWN) {
-				freeze(COOLDOWN / 3);
+		long cdTick = world.timers.getNow() - cooldownStart;
+		int cooldown = tuning.getCooldown();
+		Vector distVector = this.getDistanceVector(world.player, toPlayer);
+		if (distVector.getMagnitude() > tuning.getRange()) {
+			if (cdTick >= 1.33 * cooldown) {
+				freeze(cooldown / 3);
 			} else {
-				Vector v = distVector.clone();
-				v.setMagnitude(ACCELERATION);
-				velocity.add(v);
+				push.set(distVector);
+				push.setMagnitude(ACCELERATION);
+				velocity.add(push);
 			}
-		} else if (distVector.getMagnitude() <= TOO_CLOSE) {
-			if (cdTick > 2.33 * COOLDOWN) {
-				freeze(COOLDOWN / 5);
+		} else if (distVector.getMagnitude() <= tuning.getTooClose()) {
+			if (cdTick > 2.33 * cooldown) {
+				freeze(cooldown / 5);
 			} else {
-				Vector v = distVector.clone();
-				v = v.opposite();
-				v.setMagnitude(ACCELERATION);
-				velocity.add(v);
+				push.set(distVector);
+				push.setMagnitude(ACCELERATION);
+				velocity.subtract(push);
 			}
-		} else if (cdTick >= 0.75 * COOLDOWN) {
-			freeze(COOLDOWN / 4);
+		} else if (cdTick >= 0.75 * cooldown) {
+			freeze(cooldown / 4);
 		}
-		if (velocity.getMagnitude() > FRICTION)
-			velocity.setMagnitude(velocity.getMagnitude() - FRICTION);
-		else
-			velocity.setMagnitude(0);
-		if (velocity.getMagnitude() > MAX_SPEED)
-			velocity.setMagnitude(MAX_SPEED);
 	}
 
 	/**
-	 * Stops this enemy from moving for the given amount of ticks.
+	 * Stops this enemy from moving for the given amount of ticks, after which it tries to fire.
 	 * 
 	 * @param ticks - The amount of ticks for which this object is unable to move
 	 */
 	private void freeze(int ticks) {
-		freezeTick = ticks;
+		frozen = true;
 		freezeLength = ticks;
+		unfreezeAt = world.timers.getNow() + ticks;
+		world.timers.schedule(getHandle(), UNFREEZE, ticks);
 	}
 
 	/**
-	 * Advances the freeze counter, unfreezing this enemy if it has been frozen long enough.
+	 * Unfreezes this enemy once it has been frozen long enough, or ends its invulnerability. An enemy that has been frozen long enough asks whether it can see the player, and only fires once the answer comes back (see
+	 * <code>seePlayer()</code>).
+	 */
+	@Override
+	public void timerFired(int event) {
+		switch (event) {
+		case UNFREEZE:
+			frozen = false;
+			Player player = world.player;
+			world.sightLines.request(this, getX() + width / 2.0, getY() + height / 2.0, player.getX() + player.getWidth() / 2.0, player.getY() + player.getHeight() / 2.0);
+			cooldownStart = world.timers.getNow();
+			break;
+		case END_I_FRAMES:
+			invulnerable = false;
+			break;
+		}
+	}
+
+	/**
+	 * Starts this enemy's cooldown when it is added to a World, so it doesn't fire the moment it appears, and picks up the World's EnemyTuning.
+	 */
+	@Override
+	public void setWorld(World world) {
+		super.setWorld(world);
+		tuning = world.getTuning();
+		cooldownStart = world.timers.getNow();
+	}
+
+	/**
+	 * Called by the Updator with the answer to this enemy's question of whether it can see the player. Fires if it can (and the World's TickGovernor isn't capping projectiles with too many already in flight); otherwise, holds its fire and tries
+	 * again after half a cooldown.
 	 * 
-	 * @return true if this RangedEnemy is still unable to move, false otherwise
+	 * @param clear - true if nothing solid is between this enemy and the player, false otherwise
 	 */
-	private boolean frozen() {
-		freezeTick--;
-		if (freezeTick == 0) {
+	public void seePlayer(boolean clear) {
+		if (clear && world.governor.allowShot(world.stats.getProjectiles())) {
 			fire(0);
-			cdTick = 0;
-			return false;
-		} else if (freezeTick <= 0) {
-			return false;
 		} else {
-			return true;
+			cooldownStart = world.timers.getNow() - tuning.getCooldown() / 2;
 		}
 	}
 
@@ -208,36 +294,34 @@ public class RangedEnemy extends MovingObject {
 	 * @param angle - NOT IMPLEMENTED the magnitude of degrees from perfect aim the shot will deviate by
 	 */
 	private void fire(double angle) {
-		aim = this.getDistanceVector(World.player);
+		this.getDistanceVector(world.player, aim);
 		aim.setMagnitude(width * 0.5);
 		aim.setDirection(aim.getDirection() + angle);
-		World.addGameObject(new EnemyProjectile(getX() + width / 4, getY() + height / 4, aim.clone()));
-		Vector v = aim.clone();
-		v.setMagnitude(RECOIL);
-		velocity.add(v.opposite());
+		world.addGameObject(new EnemyProjectile(getX() + width / 4, getY() + height / 4, aim.clone(), getHandle()));
+		push.set(aim);
+		push.setMagnitude(tuning.getRecoil());
+		velocity.subtract(push);
 	}
 
 	@Override
-	public void paint(Graphics g) {
+	public void render(RenderFrame frame) {
+		int rgb = RGB;
+		long now = world.timers.getNow();
+		long iTicks = invulnerable ? invulnerableUntil - now : 0;
 		if (iTicks != 0 && iTicks % 10 == 0) {
 			if (colorTick == 0) {
-				g.setColor(new Color(255 - COLOR.getRed(), 255 - COLOR.getBlue(), 255 - COLOR.getGreen()));
+				rgb = FLASH_RGB;
 				colorTick++;
 			} else {
-				g.setColor(COLOR);
 				colorTick--;
 			}
-		} else {
-			g.setColor(COLOR);
 		}
-		g.drawOval(getX(), getY(), width, height);
-		g.fillOval(getX(), getY(), width, height);
-		double progress = (double) freezeTick / freezeLength;
-		if (progress != 1) {
-			g.setColor(Color.BLACK);
-			g.drawOval(getX() + (int) (width - width * progress) / 2, getY() + (int) (height - height * progress) / 2, (int) (width * progress), (int) (height * progress));
-		}
-		g.setColor(new Color(245, 20, 50));
+		frame.add(RenderFrame.OVAL, getX(), getY(), width, height, rgb, frozen ? (float) (unfreezeAt - now) / freezeLength : 0);
+	}
+
+	@Override
+	public byte getLayer() {
+		return CollisionLayers.ENEMY;
 	}
 
 	/**
@@ -246,14 +330,31 @@ public class RangedEnemy extends MovingObject {
 	 * @param damage - The amount of damage to be subtracted from the player's current health
 	 */
 	public void hit(double damage) {
-		if (iTicks > 0) {
+		if (invulnerable) {
+			return;
+		}
+		if (world.isImmortal()) {
+			world.burst(this, HIT_PARTICLES, RGB);
+			startIFrames();
 			return;
 		}
 		health -= damage;
 		if (health <= 0) {
+			world.burst(this, DEATH_PARTICLES, RGB);
+			world.enemyKilled();
 			terminate();
 		} else {
-			iTicks = I_FRAMES;
+			world.burst(this, HIT_PARTICLES, RGB);
+			startIFrames();
 		}
 	}
+
+	/**
+	 * Makes this enemy invulnerable for as many ticks as its EnemyTuning says (RangedEnemy.I_FRAMES, unless changed).
+	 */
+	private void startIFrames() {
+		invulnerable = true;
+		invulnerableUntil = world.timers.getNow() + tuning.getIFrames();
+		world.timers.schedule(getHandle(), END_I_FRAMES, tuning.getIFrames());
+	}
 }
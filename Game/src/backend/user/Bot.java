@@ -0,0 +1,19 @@
+package backend.user;
+
+/**
+ * Something other than the keyboard that plays as the player, such as for load testing or tuning. A World with a Bot asks it what to do once per tick of a round, before anything is updated, and the Bot answers by pressing and releasing keys
+ * through <code>Player.kbInput()</code> and <code>Player.clearKbInput()</code>, exactly as the KeyListener in MainFrame.java would.
+ * 
+ * @author Owen Roszkowski
+ */
+public interface Bot {
+
+	/**
+	 * Decides what the player does this tick.
+	 * 
+	 * @param player - The player being controlled
+	 * @param tick - The number of the current tick
+	 */
+	void act(Player player, long tick);
+
+}
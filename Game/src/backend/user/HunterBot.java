@@ -0,0 +1,138 @@
+package backend.user;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+
+import backend.objects.GameObject;
+import backend.objects.npc.RangedEnemy;
+import world.World;
+
+/**
+ * A Bot that hunts enemies down one at a time, so that waves actually get cleared. Every tick it picks the nearest enemy, walks to just below it (the player's melee attack only reaches a strip above the player), and swings once the enemy is in
+ * that strip. An enemy backed up against a wall can't be got under, so if the player is held in place short of where it is heading it falls back to the middle of the World for a while, which draws the enemy back out. It doesn't dodge anything,
+ * so how long it lasts depends on how hard the enemies are to catch and how hard they hit, which is what a balance sweep wants to measure.
+ * 
+ * @author Owen Roszkowski
+ */
+public class HunterBot implements Bot {
+
+	/**
+	 * How close, in pixels, the player has to get to where it is heading before it lets go of a direction.
+	 */
+	private static final int			SLACK			= 3;
+
+	/**
+	 * How many ticks the player can be held in place short of where it is heading before it gives up and falls back.
+	 */
+	private static final int			STUCK_TICKS		= 50;
+
+	/**
+	 * How many ticks the player spends falling back to the middle of the World.
+	 */
+	private static final int			RETREAT_TICKS	= 150;
+
+	/**
+	 * The GameObjects of the World, refilled every tick rather than making a new list.
+	 */
+	private final ArrayList<GameObject>	objects			= new ArrayList<GameObject>();
+
+	/**
+	 * Where the player was when it was last seen to move more than SLACK.
+	 */
+	private int							anchorX, anchorY;
+
+	/**
+	 * How many ticks in a row the player has been held in place short of where it is heading.
+	 */
+	private int							stillTicks;
+
+	/**
+	 * How many more ticks the player will spend falling back before hunting again.
+	 */
+	private int							retreatTicks;
+
+	@Override
+	public void act(Player player, long tick) {
+		World world = player.getWorld();
+		if (world == null) {
+			return;
+		}
+		world.copyGameObjects(objects);
+		GameObject target = null;
+		long nearest = Long.MAX_VALUE;
+		for (int i = 0; i < objects.size(); i++) {
+			GameObject obj = objects.get(i);
+			if (obj instanceof RangedEnemy) {
+				long dx = obj.getX() - player.getX(), dy = obj.getY() - player.getY();
+				if (dx * dx + dy * dy < nearest) {
+					nearest = dx * dx + dy * dy;
+					target = obj;
+				}
+			}
+		}
+		objects.clear();
+		if (target == null) {
+			release(player);
+			return;
+		}
+
+		if (retreatTicks > 0) {
+			retreatTicks--;
+			steer(player, KeyEvent.VK_A, KeyEvent.VK_D, (world.getWidth() - player.getWidth()) / 2 - player.getX());
+			steer(player, KeyEvent.VK_W, KeyEvent.VK_S, (world.getHeight() - player.getHeight()) / 2 - player.getY());
+			return;
+		}
+
+		// Line up so the enemy's center is over the player's, with its bottom edge inside the strip the melee attack covers
+		int goalX = target.getX() + target.getWidth() / 2 - player.getWidth() / 2;
+		int goalY = target.getY() + target.getHeight() + 2;
+		if (Math.abs(player.getX() - anchorX) + Math.abs(player.getY() - anchorY) > SLACK) {
+			anchorX = player.getX();
+			anchorY = player.getY();
+			stillTicks = 0;
+		} else if (Math.abs(goalX - player.getX()) + Math.abs(goalY - player.getY()) > 2 * SLACK && ++stillTicks >= STUCK_TICKS) {
+			stillTicks = 0;
+			retreatTicks = RETREAT_TICKS;
+		}
+		steer(player, KeyEvent.VK_A, KeyEvent.VK_D, goalX - player.getX());
+		steer(player, KeyEvent.VK_W, KeyEvent.VK_S, goalY - player.getY());
+		int dx = Math.abs(goalX - player.getX()), dy = player.getY() - target.getY();
+		if (dx <= player.getWidth() / 2 && dy > 0 && dy < target.getHeight() + 10) {
+			player.kbInput(KeyEvent.VK_J);
+		}
+	}
+
+	/**
+	 * Holds down whichever of two opposite direction keys moves the player towards where it is heading along one axis, or neither if it is close enough.
+	 * 
+	 * @param player - The player being controlled
+	 * @param back - The key moving the player the negative way along the axis
+	 * @param forward - The key moving the player the positive way along the axis
+	 * @param distance - How far the player is from where it is heading along the axis
+	 */
+	private static void steer(Player player, int back, int forward, int distance) {
+		if (distance > SLACK) {
+			player.clearKbInput(back);
+			player.kbInput(forward);
+		} else if (distance < -SLACK) {
+			player.clearKbInput(forward);
+			player.kbInput(back);
+		} else {
+			player.clearKbInput(back);
+			player.clearKbInput(forward);
+		}
+	}
+
+	/**
+	 * Lets go of every direction key.
+	 * 
+	 * @param player - The player being controlled
+	 */
+	private static void release(Player player) {
+		player.clearKbInput(KeyEvent.VK_W);
+		player.clearKbInput(KeyEvent.VK_S);
+		player.clearKbInput(KeyEvent.VK_A);
+		player.clearKbInput(KeyEvent.VK_D);
+	}
+
+}
@@ -1,9 +1,9 @@
 package backend.user;
 
 import java.awt.Color;
-import java.awt.Graphics;
-import java.awt.Rectangle;
 
+import backend.framework.CollisionLayers;
+import backend.framework.RenderFrame;
 import backend.objects.GameObject;
 
 /**
@@ -12,12 +12,17 @@ import backend.objects.GameObject;
  * 
  * @author Owen Roszkowski
  */
-public class MeleeAttack extends GameObject {
+public final class MeleeAttack extends GameObject {
 
 	/**
 	 * The amount of damage the melee attack deals.
 	 */
-	public static final double DAMAGE = 2.3;
+	public static final double	DAMAGE	= 2.3;
+
+	/**
+	 * The color of the attack arc.
+	 */
+	private static final int	COLOR	= Color.GREEN.getRGB();
 
 	/**
 	 * Creates a MeleeAttack object at the given position.
@@ -30,11 +35,13 @@ public class MeleeAttack extends GameObject {
 	}
 
 	@Override
-	public void paint(Graphics g) {
-		g.setColor(Color.GREEN);
-		g.drawArc(getX() - 10, getY() - 15, 50, 10, 180, -180);
-		g.fillArc(getX() - 10, getY() - 15, 50, 10, 180, -180);
-		g.fillPolygon(new int[] { getX() - 10, getX() + Player.WIDTH / 2, getX() + Player.WIDTH + 10 }, new int[] { getY() - 10, getY() + Player.HEIGHT / 2, getY() - 10 }, 3);
+	public void render(RenderFrame frame) {
+		frame.add(RenderFrame.MELEE, getX(), getY(), Player.WIDTH, Player.HEIGHT, COLOR, 1);
+	}
+
+	@Override
+	public byte getLayer() {
+		return CollisionLayers.MELEE;
 	}
 
 	/**
@@ -49,8 +56,18 @@ public class MeleeAttack extends GameObject {
 	}
 
 	@Override
-	public Rectangle getBounds() {
-		return new Rectangle(x - width / 4, y - 10, width, 10);
+	public int getHitX() {
+		return x - width / 4;
+	}
+
+	@Override
+	public int getHitY() {
+		return y - 10;
+	}
+
+	@Override
+	public int getHitHeight() {
+		return 10;
 	}
 
 }
@@ -1,20 +1,21 @@
 package backend.user;
 
 import java.awt.Color;
-import java.awt.Graphics;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 
+import backend.framework.CollisionLayers;
+import backend.framework.EntityRegistry;
+import backend.framework.RenderFrame;
+import backend.objects.GameObject;
 import backend.objects.MovingObject;
-import backend.utility.Vector;
-import world.World;
 
 /**
  * This class represents the character controlled by the user. It handles keyboard input and basically has the whole game running around it, so it's a somewhat hefty class.
  * 
  * @author Owen Roszkowski
  */
-public class Player extends MovingObject {
+public final class Player extends MovingObject {
 
 	/**
 	 * The constant number of pixels the player accelerates by per tick.
@@ -33,6 +34,10 @@ public class Player extends MovingObject {
 	 * A reduced MAX_SPEED. It is a constant representing how fast the player moves during its attack animation, in pixels.
 	 */
 	public final static double	REDUCED_MAX_SPEED	= MAX_SPEED * 0.66;
+	/**
+	 * The number of particles thrown out when the player is hit.
+	 */
+	public final static int		HIT_PARTICLES		= 24;
 	/**
 	 * The maximum health this character has and starts with.
 	 */
@@ -48,6 +53,11 @@ public class Player extends MovingObject {
 	 */
 	public final static int		HEIGHT				= 30;
 
+	/**
+	 * The color of this character's model.
+	 */
+	private final static int	COLOR				= Color.RED.getRGB();
+
 	/**
 	 * The number of ticks which an enemy can intersect with the player's melee attack and take damage. AKA the lifetime of the player's melee attack.
 	 */
@@ -63,20 +73,25 @@ public class Player extends MovingObject {
 	 */
 	private int					health;
 
+	/**
+	 * The total damage the player has taken, counted as each hit lands. Unlike how much health is missing, this keeps counting past the hit that kills.
+	 */
+	private int					damageTaken;
+
 	/**
 	 * A boolean representing if the player is currently in its attack animation or not.
 	 */
 	private boolean				meleeAttacking;
 
 	/**
-	 * A counter that keeps track of the cooldown on the player's melee attack.
+	 * A timer event: the player's melee attack is over.
 	 */
-	private int					melTick;
+	private static final int	END_MELEE			= 0;
 
 	/**
-	 * A reference to the MeleeAttack object of this player. It is null for the most part, and only points to an object when meleeAttacking is true.
+	 * The handle of the MeleeAttack object of this player. It finds nothing for the most part, and only finds an object when meleeAttacking is true.
 	 */
-	private MeleeAttack			meleeAttack;
+	private int					meleeAttack;
 
 	/**
 	 * Creates a new player with its upper-left corner at 0, 0 of width and height Player.WIDTH and Player.HEIGHT.
@@ -85,8 +100,9 @@ public class Player extends MovingObject {
 		super(0, 0, WIDTH, HEIGHT);
 		input = new short[6];
 		health = MAX_HEALTH;
+		damageTaken = 0;
 		meleeAttacking = false;
-		meleeAttack = null;
+		meleeAttack = EntityRegistry.NONE;
 	}
 
 	/**
@@ -99,8 +115,9 @@ public class Player extends MovingObject {
 		super(xPos, yPos, WIDTH, HEIGHT);
 		input = new short[4];
 		health = MAX_HEALTH;
+		damageTaken = 0;
 		meleeAttacking = false;
-		meleeAttack = null;
+		meleeAttack = EntityRegistry.NONE;
 
 	}
 
@@ -109,18 +126,11 @@ public class Player extends MovingObject {
 	 */
 	public void updateVelocity() {
 		if (meleeAttacking) {
-			melTick--;
-			if (melTick > 0) {
-				velocity.add(new Vector(((int) input[3] - (int) input[2]) * ACCELERATION, ((int) input[1] - (int) input[0]) * ACCELERATION));
-				if (velocity.getMagnitude() > REDUCED_MAX_SPEED)
-					velocity.setMagnitude(REDUCED_MAX_SPEED);
-			} else {
-				meleeAttacking = false;
-				World.removeGameObject(meleeAttack);
-				meleeAttack = null;
-			}
+			velocity.add(((int) input[3] - (int) input[2]) * ACCELERATION, ((int) input[1] - (int) input[0]) * ACCELERATION);
+			if (velocity.getMagnitude() > REDUCED_MAX_SPEED)
+				velocity.setMagnitude(REDUCED_MAX_SPEED);
 		} else {
-			velocity.add(new Vector(((int) input[3] - (int) input[2]) * ACCELERATION, ((int) input[1] - (int) input[0]) * ACCELERATION));
+			velocity.add(((int) input[3] - (int) input[2]) * ACCELERATION, ((int) input[1] - (int) input[0]) * ACCELERATION);
 			if (velocity.getMagnitude() > MAX_SPEED)
 				velocity.setMagnitude(MAX_SPEED);
 		}
@@ -131,6 +141,21 @@ public class Player extends MovingObject {
 			velocity.setMagnitude(0.0);
 	}
 
+	/**
+	 * Ends the player's melee attack once it has lasted MELEE_HIT_LENGTH ticks, removing its MeleeAttack from the World.
+	 */
+	@Override
+	public void timerFired(int event) {
+		if (event == END_MELEE) {
+			meleeAttacking = false;
+			GameObject attack = world.getGameObject(meleeAttack);
+			if (attack != null) {
+				world.removeGameObject(attack);
+			}
+			meleeAttack = EntityRegistry.NONE;
+		}
+	}
+
 	/**
 	 * Sets the status of the given key to 'released' thus removing it from consideration when updating the player's status.
 	 * 
@@ -154,7 +179,8 @@ public class Player extends MovingObject {
 	}
 
 	/**
-	 * Sets the status of the given key to 'pressed' thus making it be considered when updating the player's status.
+	 * Sets the status of the given key to 'pressed' thus making it be considered when updating the player's status. Key events from the window are queued and applied through here at the start of a tick (see InputQueue.java), so this is
+	 * only ever called by the thread ticking the World.
 	 * 
 	 * @param key - The key code of the newly-released key (from KeyEvent.getKeyCode())
 	 */
@@ -175,9 +201,10 @@ public class Player extends MovingObject {
 		case KeyEvent.VK_J:
 			if (meleeAttacking == false) {
 				meleeAttacking = true;
-				meleeAttack = new MeleeAttack(getX(), getY());
-				World.addGameObject(meleeAttack);
-				melTick = MELEE_HIT_LENGTH;
+				MeleeAttack attack = new MeleeAttack(getX(), getY());
+				world.addGameObject(attack);
+				meleeAttack = attack.getHandle();
+				world.timers.schedule(getHandle(), END_MELEE, MELEE_HIT_LENGTH);
 			}
 			break;
 		}
@@ -194,10 +221,13 @@ public class Player extends MovingObject {
 	}
 
 	@Override
-	public void paint(Graphics g) {
-		g.setColor(Color.RED);
-		g.drawRect(getX(), getY(), width, height);
-		g.fillRect(getX(), getY(), width, height);
+	public void render(RenderFrame frame) {
+		frame.add(RenderFrame.RECT, getX(), getY(), width, height, COLOR, 1);
+	}
+
+	@Override
+	public byte getLayer() {
+		return CollisionLayers.PLAYER;
 	}
 
 	/**
@@ -209,13 +239,26 @@ public class Player extends MovingObject {
 		return health;
 	}
 
+	/**
+	 * Gets the total damage the player has taken, counted as each hit lands. Nothing is counted while the player is immortal.
+	 * 
+	 * @return the damage taken so far
+	 */
+	public int getDamageTaken() {
+		return damageTaken;
+	}
+
 	/**
 	 * Performs the appropriate actions (knockback, damage to health, etc.) when the player is hit by an enemy.
 	 * 
 	 * @param damage - The amount of damage to be subtracted from the player's current health
 	 */
 	public void hit(int damage) {
+		world.burst(this, HIT_PARTICLES, COLOR);
+		if (world.isPlayerImmortal())
+			return;
 		health -= damage;
+		damageTaken += damage;
 		if (health <= 0)
 			terminate();
 	}
@@ -223,8 +266,11 @@ public class Player extends MovingObject {
 	@Override
 	public void updatePosition() {
 		super.updatePosition();
-		if (meleeAttacking)
-			meleeAttack.updatePosition(getX(), getY());
+		if (meleeAttacking) {
+			GameObject attack = world.getGameObject(meleeAttack);
+			if (attack != null)
+				((MeleeAttack) attack).updatePosition(getX(), getY());
+		}
 	}
 
 }
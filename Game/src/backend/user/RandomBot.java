@@ -0,0 +1,63 @@
+package backend.user;
+
+import java.awt.event.KeyEvent;
+import java.util.Random;
+
+/**
+ * A Bot that wanders around at random, swinging its melee attack every so often. Every few ticks it lets go of every direction key and holds down a new random set of them.
+ * 
+ * @author Owen Roszkowski
+ */
+public class RandomBot implements Bot {
+
+	/**
+	 * The direction keys, in the same order as Player.java's input array.
+	 */
+	private static final int[]	KEYS	= { KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D };
+
+	/**
+	 * Where this bot's decisions come from.
+	 */
+	private final Random		random;
+
+	/**
+	 * How many ticks each set of keys is held for.
+	 */
+	private final int			holdTicks;
+
+	/**
+	 * The chance, between 0 and 1, that the bot attacks whenever it picks new keys.
+	 */
+	private final double		attackChance;
+
+	/**
+	 * Creates a new RandomBot.
+	 * 
+	 * @param seed - The seed for the bot's decisions, so the same seed always plays the same way
+	 * @param holdTicks - How many ticks each set of keys is held for
+	 * @param attackChance - The chance, between 0 and 1, that the bot attacks whenever it picks new keys
+	 */
+	public RandomBot(long seed, int holdTicks, double attackChance) {
+		random = new Random(seed);
+		this.holdTicks = holdTicks;
+		this.attackChance = attackChance;
+	}
+
+	@Override
+	public void act(Player player, long tick) {
+		if (tick % holdTicks != 0) {
+			return;
+		}
+		for (int key : KEYS) {
+			if (random.nextBoolean()) {
+				player.kbInput(key);
+			} else {
+				player.clearKbInput(key);
+			}
+		}
+		if (random.nextDouble() < attackChance) {
+			player.kbInput(KeyEvent.VK_J);
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package backend.user;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * A Bot that plays the same short script of key presses over and over. A script is a comma-separated list of steps, each of which is a set of keys and how many ticks to hold them for, such as <code>"D:50,DS:20,J:1,A:50"</code>. A step of
+ * <code>"-:30"</code> holds nothing for 30 ticks. J starts a melee attack at the beginning of its step.
+ * 
+ * @author Owen Roszkowski
+ */
+public class ScriptedBot implements Bot {
+
+	/**
+	 * The direction keys, in the same order as Player.java's input array.
+	 */
+	private static final int[]	KEYS	= { KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D };
+
+	/**
+	 * The keys held during each step, as uppercase letters.
+	 */
+	private final String[]		steps;
+
+	/**
+	 * How many ticks each step lasts.
+	 */
+	private final int[]			lengths;
+
+	/**
+	 * The total number of ticks in one run through the script.
+	 */
+	private final int			period;
+
+	/**
+	 * Creates a new ScriptedBot that plays the given script.
+	 * 
+	 * @param script - The script to play, such as <code>"D:50,DS:20,J:1,A:50"</code>
+	 * @throws IllegalArgumentException if the script can't be read
+	 */
+	public ScriptedBot(String script) {
+		String[] parts = script.split(",");
+		steps = new String[parts.length];
+		lengths = new int[parts.length];
+		int total = 0;
+		for (int i = 0; i < parts.length; i++) {
+			String[] step = parts[i].trim().split(":");
+			if (step.length != 2) {
+				throw new IllegalArgumentException("Bad step in script: " + parts[i]);
+			}
+			steps[i] = step[0].toUpperCase();
+			lengths[i] = Integer.parseInt(step[1]);
+			total += lengths[i];
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("Script must last at least one tick: " + script);
+		}
+		period = total;
+	}
+
+	@Override
+	public void act(Player player, long tick) {
+		int t = (int) (tick % period);
+		int step = 0;
+		while (t >= lengths[step]) {
+			t -= lengths[step];
+			step++;
+		}
+		if (t != 0) {
+			return;
+		}
+		for (int key : KEYS) {
+			if (steps[step].indexOf(KeyEvent.getKeyText(key).charAt(0)) >= 0) {
+				player.kbInput(key);
+			} else {
+				player.clearKbInput(key);
+			}
+		}
+		if (steps[step].indexOf('J') >= 0) {
+			player.kbInput(KeyEvent.VK_J);
+		}
+	}
+
+}
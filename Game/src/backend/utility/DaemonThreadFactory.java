@@ -0,0 +1,33 @@
+package backend.utility;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A ThreadFactory for background threads which should never keep the game running on their own, such as the threads that load chunks or plan waves. Every thread it makes is a daemon thread with the given name.
+ * 
+ * @author Owen Roszkowski
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	/**
+	 * The name given to every thread made.
+	 */
+	private final String name;
+
+	/**
+	 * Creates a new DaemonThreadFactory whose threads all have the given name.
+	 * 
+	 * @param name - The name of the threads
+	 */
+	public DaemonThreadFactory(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread thread = new Thread(r, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+}
@@ -45,6 +45,27 @@ public class Vector {
 		yComponent += v.getYComponent();
 	}
 
+	/**
+	 * Adds the given components to this vector's. The same as <code>add(new Vector(x, y))</code>, without making a new Vector.
+	 * 
+	 * @param x - The amount to add to this vector's x component
+	 * @param y - The amount to add to this vector's y component
+	 */
+	public void add(double x, double y) {
+		xComponent += x;
+		yComponent += y;
+	}
+
+	/**
+	 * Subtracts the given vector from this one. The same as <code>add(v.opposite())</code>, without making a new Vector.
+	 * 
+	 * @param v - The vector whose components are to be subtracted from this one's.
+	 */
+	public void subtract(Vector v) {
+		xComponent -= v.getXComponent();
+		yComponent -= v.getYComponent();
+	}
+
 	/**
 	 * Gets a vector whose direction is opposite of this one, but whose magnitude is the same.
 	 * 
@@ -76,6 +97,27 @@ public class Vector {
 		return yComponent;
 	}
 
+	/**
+	 * Sets both of this vector's components.
+	 * 
+	 * @param x - This vector's new x component
+	 * @param y - This vector's new y component
+	 */
+	public void set(double x, double y) {
+		xComponent = x;
+		yComponent = y;
+	}
+
+	/**
+	 * Makes this vector equal to the given one. The same as <code>clone()</code>, but reuses this Vector rather than making a new one.
+	 * 
+	 * @param v - The vector to copy
+	 */
+	public void set(Vector v) {
+		xComponent = v.getXComponent();
+		yComponent = v.getYComponent();
+	}
+
 	/**
 	 * Gets the magnitude of this vector.
 	 * 
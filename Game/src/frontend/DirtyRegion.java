@@ -0,0 +1,380 @@
+package frontend;
+
+import java.util.Arrays;
+
+import backend.framework.ParticleSystem;
+import backend.framework.RenderFrame;
+
+/**
+ * Works out which part of the screen has to be repainted to go from the last frame shown to the next one. Every shape in the new frame is matched against an identical shape (same kind, place, size, color and progress ring) in the last frame; a
+ * shape that moved or changed in any way has no match, so both where it was and where it is now are dirty. Particles can't be matched up like this, so the box around every particle in the last frame and the box around every particle in the new
+ * one are both dirty. Anything else that changed, such as the HUD, can be added by hand.
+ * <p>
+ * The dirty part is kept as one rectangle, the union of everything dirty, in screen coordinates. Swing merges every repaint of a component into one rectangle like this anyway, so keeping a list of them would buy nothing. If the camera
+ * moved, every shape moved on screen, so the whole screen is dirty.
+ * <p>
+ * The last frame's shapes are copied into arrays of its own, since frames are handed back to the simulation to be refilled. Only ever used from the thread drawing the screen.
+ * 
+ * @author Owen Roszkowski
+ */
+public class DirtyRegion {
+
+	/**
+	 * Marks an empty slot in the hash table.
+	 */
+	private static final int	NONE	= -1;
+
+	/**
+	 * The number of shapes in the last frame.
+	 */
+	private int					size;
+
+	/**
+	 * The shape kind of each shape in the last frame.
+	 */
+	private byte[]				kinds;
+
+	/**
+	 * The x position of each shape in the last frame, in world coordinates.
+	 */
+	private int[]				xs;
+
+	/**
+	 * The y position of each shape in the last frame, in world coordinates.
+	 */
+	private int[]				ys;
+
+	/**
+	 * The width of each shape in the last frame.
+	 */
+	private int[]				widths;
+
+	/**
+	 * The height of each shape in the last frame.
+	 */
+	private int[]				heights;
+
+	/**
+	 * The RGB color of each shape in the last frame.
+	 */
+	private int[]				colors;
+
+	/**
+	 * The progress ring of each shape in the last frame.
+	 */
+	private float[]				progress;
+
+	/**
+	 * Whether each shape in the last frame has been matched to one in the new frame yet.
+	 */
+	private boolean[]			matched;
+
+	/**
+	 * Which shape of the last frame is in each slot, by the hash of the shape, with linear probing. NONE for an empty slot. Always at least twice as big as the last frame, and a power of two.
+	 */
+	private int[]				table;
+
+	/**
+	 * The x position of the camera in the last frame.
+	 */
+	private int					cameraX;
+
+	/**
+	 * The y position of the camera in the last frame.
+	 */
+	private int					cameraY;
+
+	/**
+	 * The width of the screen when the last frame was shown.
+	 */
+	private int					viewWidth;
+
+	/**
+	 * The height of the screen when the last frame was shown.
+	 */
+	private int					viewHeight;
+
+	/**
+	 * The left edge of the box around every particle in the last frame, in world coordinates. The box is empty while this is no less than <code>particleRight</code>.
+	 */
+	private int					particleLeft;
+
+	/**
+	 * The top edge of the box around every particle in the last frame, in world coordinates.
+	 */
+	private int					particleTop;
+
+	/**
+	 * The right edge of the box around every particle in the last frame, in world coordinates.
+	 */
+	private int					particleRight;
+
+	/**
+	 * The bottom edge of the box around every particle in the last frame, in world coordinates.
+	 */
+	private int					particleBottom;
+
+	/**
+	 * Whether anything has been remembered yet. Until it has, everything is dirty.
+	 */
+	private boolean				started;
+
+	/**
+	 * The left edge of the dirty rectangle, in screen coordinates.
+	 */
+	private int					left;
+
+	/**
+	 * The top edge of the dirty rectangle, in screen coordinates.
+	 */
+	private int					top;
+
+	/**
+	 * The right edge of the dirty rectangle, in screen coordinates. The rectangle is empty while this is no more than <code>left</code>.
+	 */
+	private int					right;
+
+	/**
+	 * The bottom edge of the dirty rectangle, in screen coordinates. The rectangle is empty while this is no more than <code>top</code>.
+	 */
+	private int					bottom;
+
+	/**
+	 * Creates a new DirtyRegion, with nothing remembered, so the first frame compared is dirty everywhere.
+	 */
+	public DirtyRegion() {
+		kinds = new byte[64];
+		xs = new int[64];
+		ys = new int[64];
+		widths = new int[64];
+		heights = new int[64];
+		colors = new int[64];
+		progress = new float[64];
+		matched = new boolean[64];
+		table = new int[128];
+		started = false;
+		clear();
+	}
+
+	/**
+	 * Empties the dirty rectangle.
+	 */
+	public void clear() {
+		left = top = Integer.MAX_VALUE;
+		right = bottom = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Adds everything that differs between the last frame compared and the given one to the dirty rectangle, then remembers the given frame to compare the next one against.
+	 * 
+	 * @param frame - The frame about to be shown
+	 * @param width - The width of the screen, in pixels
+	 * @param height - The height of the screen, in pixels
+	 */
+	public void compare(RenderFrame frame, int width, int height) {
+		int cameraX = frame.getCameraX(), cameraY = frame.getCameraY();
+		if (!started || cameraX != this.cameraX || cameraY != this.cameraY || width != viewWidth || height != viewHeight) {
+			addAll(width, height);
+		} else {
+			int mask = table.length - 1;
+			for (int i = 0; i < frame.size(); i++) {
+				byte kind = frame.getKind(i);
+				int x = frame.getX(i), y = frame.getY(i), w = frame.getWidth(i), h = frame.getHeight(i), rgb = frame.getColor(i);
+				float ring = frame.getProgress(i);
+				int slot = hash(kind, x, y, w, h, rgb) & mask;
+				boolean found = false;
+				// Identical shapes hash to the same place, so keep looking past ones already matched
+				for (int old; (old = table[slot]) != NONE; slot = (slot + 1) & mask) {
+					if (!matched[old] && kinds[old] == kind && xs[old] == x && ys[old] == y && widths[old] == w && heights[old] == h && colors[old] == rgb && progress[old] == ring) {
+						matched[old] = true;
+						found = true;
+						break;
+					}
+				}
+				if (!found) {
+					addShape(kind, x - cameraX, y - cameraY, w, h);
+				}
+			}
+			for (int old = 0; old < size; old++) {
+				if (!matched[old]) {
+					addShape(kinds[old], xs[old] - cameraX, ys[old] - cameraY, widths[old], heights[old]);
+				}
+			}
+			// Particles move every tick, so wherever they were and are now is dirty
+			if (particleLeft < particleRight) {
+				add(particleLeft - cameraX, particleTop - cameraY, particleRight - particleLeft, particleBottom - particleTop);
+			}
+			for (int i = 0; i < frame.getParticleCount(); i++) {
+				add(frame.getParticleX(i) - cameraX, frame.getParticleY(i) - cameraY, ParticleSystem.SIZE, ParticleSystem.SIZE);
+			}
+		}
+		remember(frame, width, height);
+	}
+
+	/**
+	 * Copies a frame's shapes, and puts them in the hash table, ready to be compared against the next frame.
+	 * 
+	 * @param frame - The frame to remember
+	 * @param width - The width of the screen, in pixels
+	 * @param height - The height of the screen, in pixels
+	 */
+	private void remember(RenderFrame frame, int width, int height) {
+		size = frame.size();
+		if (kinds.length < size) {
+			int capacity = Integer.highestOneBit(size) << 1;
+			kinds = new byte[capacity];
+			xs = new int[capacity];
+			ys = new int[capacity];
+			widths = new int[capacity];
+			heights = new int[capacity];
+			colors = new int[capacity];
+			progress = new float[capacity];
+			matched = new boolean[capacity];
+			table = new int[capacity * 2];
+		}
+		Arrays.fill(table, NONE);
+		int mask = table.length - 1;
+		for (int i = 0; i < size; i++) {
+			kinds[i] = frame.getKind(i);
+			xs[i] = frame.getX(i);
+			ys[i] = frame.getY(i);
+			widths[i] = frame.getWidth(i);
+			heights[i] = frame.getHeight(i);
+			colors[i] = frame.getColor(i);
+			progress[i] = frame.getProgress(i);
+			matched[i] = false;
+			int slot = hash(kinds[i], xs[i], ys[i], widths[i], heights[i], colors[i]) & mask;
+			while (table[slot] != NONE) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i;
+		}
+		particleLeft = particleTop = Integer.MAX_VALUE;
+		particleRight = particleBottom = Integer.MIN_VALUE;
+		for (int i = 0; i < frame.getParticleCount(); i++) {
+			particleLeft = Math.min(particleLeft, frame.getParticleX(i));
+			particleTop = Math.min(particleTop, frame.getParticleY(i));
+			particleRight = Math.max(particleRight, frame.getParticleX(i) + ParticleSystem.SIZE);
+			particleBottom = Math.max(particleBottom, frame.getParticleY(i) + ParticleSystem.SIZE);
+		}
+		cameraX = frame.getCameraX();
+		cameraY = frame.getCameraY();
+		viewWidth = width;
+		viewHeight = height;
+		started = true;
+	}
+
+	/**
+	 * Mixes up the fields of a shape into a hash. The progress ring is left out, since it is rarely the only thing that changes.
+	 * 
+	 * @param kind - The shape kind
+	 * @param x - The x position of the shape
+	 * @param y - The y position of the shape
+	 * @param w - The width of the shape
+	 * @param h - The height of the shape
+	 * @param rgb - The RGB color of the shape
+	 * @return the hash of the shape
+	 */
+	private static int hash(byte kind, int x, int y, int w, int h, int rgb) {
+		int hash = kind;
+		hash = hash * 31 + x;
+		hash = hash * 31 + y;
+		hash = hash * 31 + w;
+		hash = hash * 31 + h;
+		hash = hash * 31 + rgb;
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Adds the area a shape covers when drawn to the dirty rectangle. This is a little more than its hitbox: outlines go one pixel past it, and melee arcs reach out past it.
+	 * 
+	 * @param kind - The shape kind
+	 * @param x - The x position of the shape, in screen coordinates
+	 * @param y - The y position of the shape, in screen coordinates
+	 * @param w - The width of the shape
+	 * @param h - The height of the shape
+	 */
+	private void addShape(byte kind, int x, int y, int w, int h) {
+		add(x + SpriteCache.left(kind), y + SpriteCache.top(kind), SpriteCache.spriteWidth(kind, w), SpriteCache.spriteHeight(kind, h));
+	}
+
+	/**
+	 * Adds a rectangle to the dirty rectangle.
+	 * 
+	 * @param x - The x position of the rectangle's upper-left corner, in screen coordinates
+	 * @param y - The y position of the rectangle's upper-left corner, in screen coordinates
+	 * @param w - The width of the rectangle
+	 * @param h - The height of the rectangle
+	 */
+	public void add(int x, int y, int w, int h) {
+		left = Math.min(left, x);
+		top = Math.min(top, y);
+		right = Math.max(right, x + w);
+		bottom = Math.max(bottom, y + h);
+	}
+
+	/**
+	 * Makes the whole screen dirty.
+	 * 
+	 * @param width - The width of the screen, in pixels
+	 * @param height - The height of the screen, in pixels
+	 */
+	public void addAll(int width, int height) {
+		add(0, 0, width, height);
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Whether any of the screen is dirty.
+	 * 
+	 * @param width - The width of the screen, in pixels
+	 * @param height - The height of the screen, in pixels
+	 * @return true if the dirty rectangle covers any of the screen
+	 */
+	public boolean isDirty(int width, int height) {
+		return getWidth(width) > 0 && getHeight(height) > 0;
+	}
+
+	/**
+	 * Gets the left edge of the dirty rectangle, cut to fit the screen.
+	 * 
+	 * @return the x position of the dirty rectangle's upper-left corner
+	 */
+	public int getX() {
+		return Math.max(0, left);
+	}
+
+	/**
+	 * Gets the top edge of the dirty rectangle, cut to fit the screen.
+	 * 
+	 * @return the y position of the dirty rectangle's upper-left corner
+	 */
+	public int getY() {
+		return Math.max(0, top);
+	}
+
+	/**
+	 * Gets the width of the dirty rectangle, cut to fit the screen.
+	 * 
+	 * @param width - The width of the screen, in pixels
+	 * @return the width of the dirty rectangle, or 0 or less if it is empty
+	 */
+	public int getWidth(int width) {
+		return right <= left ? 0 : Math.min(width, right) - getX();
+	}
+
+	/**
+	 * Gets the height of the dirty rectangle, cut to fit the screen.
+	 * 
+	 * @param height - The height of the screen, in pixels
+	 * @return the height of the dirty rectangle, or 0 or less if it is empty
+	 */
+	public int getHeight(int height) {
+		return bottom <= top ? 0 : Math.min(height, bottom) - getY();
+	}
+
+}
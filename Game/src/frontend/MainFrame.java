@@ -3,16 +3,21 @@ package frontend;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
-import backend.framework.Updator;
+import backend.framework.GameLoop;
 import backend.user.Player;
+import world.TileMap;
 import world.World;
 
 /**
@@ -32,15 +37,25 @@ public class MainFrame extends JFrame {
 	 */
 	public static final int		FRAME_SIZE			= 600;
 
+	/**
+	 * A constant representing the length of a side of the world the game is played in. The world is always a square, and is bigger than the window, so the view follows the player around it.
+	 */
+	public static final int		WORLD_SIZE			= FRAME_SIZE * 3;
+
 	/**
 	 * The ScreenDrawer in charge of drawing all objects on screen.
 	 */
 	private ScreenDrawer		drawer;
 
 	/**
-	 * The Updator in charge of constantly running at a fixed rate (Updator.RUN_PERIOD) and calculating the positions, velocities, etc. of every GameObject in the world.
+	 * The GameLoop in charge of constantly ticking the world at a fixed rate (Updator.RUN_PERIOD). Null until the game is started.
+	 */
+	private GameLoop			loop;
+
+	/**
+	 * The thread running the ScreenDrawer's repaint loop. Null until the game is started.
 	 */
-	private Updator				updator;
+	private Thread				drawerThread;
 
 	/**
 	 * The player being controlled by the user.
@@ -48,23 +63,48 @@ public class MainFrame extends JFrame {
 	private Player				p;
 
 	/**
-	 * Creates a new MainFrame and initializes all variables. Does not actually start any instance of Updator.java or ScreenDrawer.java, instead leaving that to World.java.
+	 * The World being played in this MainFrame.
 	 */
-	public MainFrame() {
-		World.frame = this;
-		p = new Player(300, 300);
-		drawer = new ScreenDrawer();
-		updator = new Updator();
+	private World				world;
+
+	/**
+	 * Creates a new MainFrame and initializes all variables, including the World being played in it. Does not actually start the GameLoop or ScreenDrawer; that waits until the start button is pressed. Key events aren't applied here; they are
+	 * stamped and queued for the World's next tick.
+	 * 
+	 * @param mapFile - A TileMap file to play on, or null to play in an arena of four walls
+	 */
+	public MainFrame(File mapFile) {
+		world = null;
+		if (mapFile != null) {
+			try {
+				world = new World(this, TileMap.open(mapFile));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		if (world == null) {
+			world = new World(this, WORLD_SIZE, WORLD_SIZE);
+		}
+		p = new Player(world.getWidth() / 2, world.getHeight() / 2);
+		drawer = new ScreenDrawer(world);
 		this.addKeyListener(new KeyListener() {
 
 			@Override
 			public void keyPressed(KeyEvent e) {
-				p.kbInput(e.getKeyCode());
+				if (e.getKeyCode() == KeyEvent.VK_F3) {
+					drawer.toggleStats();
+					return;
+				}
+				if (e.getKeyCode() == KeyEvent.VK_F4) {
+					drawer.toggleRenderer();
+					return;
+				}
+				world.input.add(e.getKeyCode(), true, e.getWhen());
 			}
 
 			@Override
 			public void keyReleased(KeyEvent e) {
-				p.clearKbInput(e.getKeyCode());
+				world.input.add(e.getKeyCode(), false, e.getWhen());
 			}
 
 			@Override
@@ -72,6 +112,14 @@ public class MainFrame extends JFrame {
 
 			}
 
+		});
+		this.addWindowListener(new WindowAdapter() {
+
+			@Override
+			public void windowClosing(WindowEvent e) {
+				stopGame();
+			}
+
 		});
 		this.setFocusable(true);
 		this.setFocusTraversalKeysEnabled(false);
@@ -80,12 +128,12 @@ public class MainFrame extends JFrame {
 	/**
 	 * Creates a new MainFrame, adds a start button, and leaves the rest to World.java.
 	 * 
-	 * @param args - Not implemented in this program.
+	 * @param args - Optionally, the path of a TileMap file to play on
 	 */
 	public static void main(String[] args) {
 		javax.swing.SwingUtilities.invokeLater(new Runnable() {
 			public void run() {
-				MainFrame frame = new MainFrame();
+				MainFrame frame = new MainFrame(args.length > 0 ? new File(args[0]) : null);
 				initFrame(frame);
 				initButtons(frame);
 				frame.setVisible(true);
@@ -94,17 +142,37 @@ public class MainFrame extends JFrame {
 	}
 
 	/**
-	 * Called from pushing the start button. Starts World.java going.
+	 * Called from pushing the start button. Starts World.java going, along with the one GameLoop thread that ticks it and the one thread that repaints the ScreenDrawer. Both last for the rest of the game.
 	 * 
 	 * @param frame - The MainFrame object which needs to have the game started in. (Necessary due to this method being made static).
 	 */
 	private static void startGame(MainFrame frame) {
-		World.player = frame.p;
-		World.updator = frame.updator;
-		World.drawer = frame.drawer;
+		frame.world.player = frame.p;
 		frame.drawer.setSize(FRAME_SIZE, FRAME_SIZE);
 		frame.getContentPane().add(frame.drawer, BorderLayout.CENTER);
-		World.incrementRound();
+		frame.validate();
+		frame.world.start();
+		frame.loop = new GameLoop(frame.world);
+		frame.loop.start();
+		frame.drawerThread = new Thread(frame.drawer, "Screen Drawer");
+		frame.drawerThread.start();
+	}
+
+	/**
+	 * Stops the GameLoop and the ScreenDrawer's thread, and anything the World has running in the background. Called when the window is closed.
+	 */
+	private void stopGame() {
+		if (loop != null) {
+			loop.stop();
+			drawer.stop();
+			System.out.println("Input latency:\n" + world.input.summary());
+			try {
+				drawerThread.join(1000);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+		world.close();
 	}
 
 	/**
@@ -0,0 +1,339 @@
+package frontend;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import backend.framework.ParticleSystem;
+import backend.framework.RenderFrame;
+import backend.utility.DaemonThreadFactory;
+
+/**
+ * Draws a RenderFrame by writing pixels straight into the int[] behind a BufferedImage, rather than making a Graphics call per shape, for when there are far more shapes on screen than Graphics can keep up with. The finished image is
+ * copied to the screen with one <code>drawImage()</code>.
+ * <p>
+ * Shapes are drawn in batches by kind: every rectangle first (walls and the player), as rows of <code>Arrays.fill()</code>, then every oval (enemies and projectiles), as one span of pixels per row, then every particle, as a little square of
+ * pixels. Which pixels of each row an oval of a given size covers is worked out once, by drawing one with Graphics and reading it back, so ovals look exactly as they would drawn with Graphics. The screen is split into TILES horizontal strips,
+ * one per core, and the strips are drawn at the same time on a pool of threads; each strip goes through every shape but only writes its own rows, so no two threads ever write the same pixel. The few shapes that aren't plain rectangles or ovals
+ * (melee arcs and progress rings) are drawn afterwards with Graphics, on top.
+ * <p>
+ * Only ever used from the thread drawing the screen.
+ * 
+ * @author Owen Roszkowski
+ */
+public class RasterRenderer {
+
+	/**
+	 * The number of strips the screen is split into, and the number of threads drawing them.
+	 */
+	public static final int				TILES	= Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The threads that draw every strip but the first, which is drawn by the thread calling <code>render()</code>. Null if there is only one strip.
+	 */
+	private final ExecutorService		pool;
+
+	/**
+	 * The jobs that draw each strip, made once and handed to the pool every frame.
+	 */
+	private final Runnable[]			jobs;
+
+	/**
+	 * The Futures of the strips being drawn by the pool this frame, reused every frame.
+	 */
+	private final ArrayList<Future<?>>	pending;
+
+	/**
+	 * The image drawn into, the size of the screen.
+	 */
+	private BufferedImage				image;
+
+	/**
+	 * The pixels of the image, one int of RGB per pixel, row by row.
+	 */
+	private int[]						pixels;
+
+	/**
+	 * The width of the image, in pixels.
+	 */
+	private int							width;
+
+	/**
+	 * The height of the image, in pixels.
+	 */
+	private int							height;
+
+	/**
+	 * The frame being drawn.
+	 */
+	private RenderFrame					frame;
+
+	/**
+	 * The RGB color the image is cleared to before drawing.
+	 */
+	private int							background;
+
+	/**
+	 * The indexes, in the frame, of the rectangles to be drawn this frame.
+	 */
+	private int[]						rects;
+
+	/**
+	 * The number of rectangles to be drawn this frame.
+	 */
+	private int							rectCount;
+
+	/**
+	 * The indexes, in the frame, of the ovals to be drawn this frame.
+	 */
+	private int[]						ovals;
+
+	/**
+	 * The spans of each oval to be drawn this frame, as an index into <code>spanStarts</code> and <code>spanEnds</code>.
+	 */
+	private int[]						ovalSpans;
+
+	/**
+	 * The number of ovals to be drawn this frame.
+	 */
+	private int							ovalCount;
+
+	/**
+	 * The width and height of each oval size worked out so far, packed into one int.
+	 */
+	private int[]						spanSizes;
+
+	/**
+	 * For each oval size worked out so far, the first pixel of each row the oval covers, from its left edge. One more row than the oval's height, since the outline is drawn one pixel past it.
+	 */
+	private int[][]						spanStarts;
+
+	/**
+	 * For each oval size worked out so far, one past the last pixel of each row the oval covers, from its left edge. Equal to the start for rows it doesn't cover.
+	 */
+	private int[][]						spanEnds;
+
+	/**
+	 * The number of oval sizes worked out so far.
+	 */
+	private int							spanCount;
+
+	/**
+	 * Creates a new RasterRenderer, with a pool of TILES - 1 threads if there is more than one core.
+	 */
+	public RasterRenderer() {
+		pool = TILES > 1 ? Executors.newFixedThreadPool(TILES - 1, new DaemonThreadFactory("Raster Tile")) : null;
+		jobs = new Runnable[TILES];
+		for (int t = 0; t < TILES; t++) {
+			final int tile = t;
+			jobs[t] = new Runnable() {
+
+				@Override
+				public void run() {
+					drawTile(tile);
+				}
+
+			};
+		}
+		pending = new ArrayList<Future<?>>(TILES);
+		rects = new int[64];
+		ovals = new int[64];
+		ovalSpans = new int[64];
+		spanSizes = new int[8];
+		spanStarts = new int[8][];
+		spanEnds = new int[8][];
+		spanCount = 0;
+	}
+
+	/**
+	 * Draws every shape in a frame onto an image the size of the screen, and copies the image onto the given Graphics.
+	 * 
+	 * @param g - The Graphics object on which to draw the frame, not shifted by the camera
+	 * @param frame - The RenderFrame holding the shapes to draw
+	 * @param viewWidth - The width of the screen, in pixels
+	 * @param viewHeight - The height of the screen, in pixels
+	 * @param background - The color of the screen behind every shape
+	 */
+	public void render(Graphics g, RenderFrame frame, int viewWidth, int viewHeight, Color background) {
+		if (viewWidth <= 0 || viewHeight <= 0) {
+			return;
+		}
+		if (image == null || width != viewWidth || height != viewHeight) {
+			width = viewWidth;
+			height = viewHeight;
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		}
+		this.frame = frame;
+		this.background = background.getRGB();
+		sort(frame);
+
+		pending.clear();
+		for (int t = 1; t < TILES; t++) {
+			pending.add(pool.submit(jobs[t]));
+		}
+		jobs[0].run();
+		for (int i = 0; i < pending.size(); i++) {
+			try {
+				pending.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+
+		Graphics ig = image.getGraphics();
+		ig.translate(-frame.getCameraX(), -frame.getCameraY());
+		for (int i = 0; i < frame.size(); i++) {
+			float progress = frame.getProgress(i);
+			if (frame.getKind(i) == RenderFrame.MELEE || (progress > 0 && progress < 1)) {
+				ScreenDrawer.paintShape(ig, frame.getKind(i), frame.getX(i), frame.getY(i), frame.getWidth(i), frame.getHeight(i), new Color(frame.getColor(i)), progress);
+			}
+		}
+		ig.dispose();
+		g.drawImage(image, 0, 0, null);
+		this.frame = null;
+	}
+
+	/**
+	 * Splits the shapes in a frame into batches of rectangles and ovals, and makes sure the spans of every size of oval in it have been worked out.
+	 * 
+	 * @param frame - The frame about to be drawn
+	 */
+	private void sort(RenderFrame frame) {
+		if (rects.length < frame.size()) {
+			rects = new int[frame.size()];
+			ovals = new int[frame.size()];
+			ovalSpans = new int[frame.size()];
+		}
+		rectCount = ovalCount = 0;
+		int lastSize = -1, lastSpans = -1;
+		for (int i = 0; i < frame.size(); i++) {
+			switch (frame.getKind(i)) {
+			case RenderFrame.RECT:
+				rects[rectCount++] = i;
+				break;
+			case RenderFrame.OVAL:
+				int size = frame.getWidth(i) << 16 | frame.getHeight(i);
+				// Ovals of the same size tend to come one after another, so the last one found is tried first
+				if (size != lastSize) {
+					lastSize = size;
+					lastSpans = spansOf(frame.getWidth(i), frame.getHeight(i));
+				}
+				ovals[ovalCount] = i;
+				ovalSpans[ovalCount++] = lastSpans;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Finds the spans of an oval of the given size, working them out if they haven't been already.
+	 * 
+	 * @param w - The width of the oval
+	 * @param h - The height of the oval
+	 * @return the index of the oval's spans in <code>spanStarts</code> and <code>spanEnds</code>
+	 */
+	private int spansOf(int w, int h) {
+		int size = w << 16 | h;
+		for (int s = 0; s < spanCount; s++) {
+			if (spanSizes[s] == size) {
+				return s;
+			}
+		}
+		if (spanCount == spanSizes.length) {
+			spanSizes = Arrays.copyOf(spanSizes, spanCount * 2);
+			spanStarts = Arrays.copyOf(spanStarts, spanCount * 2);
+			spanEnds = Arrays.copyOf(spanEnds, spanCount * 2);
+		}
+		BufferedImage oval = new BufferedImage(w + 1, h + 1, BufferedImage.TYPE_INT_ARGB);
+		Graphics g = oval.getGraphics();
+		ScreenDrawer.paintShape(g, RenderFrame.OVAL, 0, 0, w, h, Color.BLACK, 1);
+		g.dispose();
+		int[] starts = new int[h + 1], ends = new int[h + 1];
+		for (int row = 0; row <= h; row++) {
+			int start = 0, end = w + 1;
+			while (start < end && oval.getRGB(start, row) == 0) {
+				start++;
+			}
+			while (end > start && oval.getRGB(end - 1, row) == 0) {
+				end--;
+			}
+			starts[row] = start;
+			ends[row] = end;
+		}
+		spanSizes[spanCount] = size;
+		spanStarts[spanCount] = starts;
+		spanEnds[spanCount] = ends;
+		return spanCount++;
+	}
+
+	/**
+	 * Draws every rectangle, oval and particle of the frame that falls within one strip of the screen.
+	 * 
+	 * @param tile - The number of the strip, from 0 at the top
+	 */
+	private void drawTile(int tile) {
+		int top = height * tile / TILES, bottom = height * (tile + 1) / TILES;
+		int cameraX = frame.getCameraX(), cameraY = frame.getCameraY();
+		Arrays.fill(pixels, top * width, bottom * width, background);
+
+		for (int r = 0; r < rectCount; r++) {
+			int i = rects[r];
+			int x = frame.getX(i) - cameraX, y = frame.getY(i) - cameraY;
+			int left = Math.max(0, x), right = Math.min(width, x + frame.getWidth(i) + 1);
+			int rowTop = Math.max(top, y), rowBottom = Math.min(bottom, y + frame.getHeight(i) + 1);
+			int rgb = frame.getColor(i);
+			for (int row = rowTop; row < rowBottom && left < right; row++) {
+				Arrays.fill(pixels, row * width + left, row * width + right, rgb);
+			}
+		}
+
+		for (int o = 0; o < ovalCount; o++) {
+			int i = ovals[o];
+			int x = frame.getX(i) - cameraX, y = frame.getY(i) - cameraY;
+			int rowTop = Math.max(top, y), rowBottom = Math.min(bottom, y + frame.getHeight(i) + 1);
+			int[] starts = spanStarts[ovalSpans[o]], ends = spanEnds[ovalSpans[o]];
+			int rgb = frame.getColor(i);
+			for (int row = rowTop; row < rowBottom; row++) {
+				int left = Math.max(0, x + starts[row - y]), right = Math.min(width, x + ends[row - y]);
+				if (left < right) {
+					Arrays.fill(pixels, row * width + left, row * width + right, rgb);
+				}
+			}
+		}
+
+		int size = ParticleSystem.SIZE;
+		for (int i = 0; i < frame.getParticleCount(); i++) {
+			int x = frame.getParticleX(i) - cameraX, y = frame.getParticleY(i) - cameraY;
+			if (y + size <= top || y >= bottom || x + size <= 0 || x >= width) {
+				continue;
+			}
+			int left = Math.max(0, x), right = Math.min(width, x + size);
+			int rowBottom = Math.min(bottom, y + size), rgb = frame.getParticleColor(i);
+			for (int row = Math.max(top, y); row < rowBottom; row++) {
+				for (int p = row * width + left, end = row * width + right; p < end; p++) {
+					pixels[p] = rgb;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops the threads drawing strips. This RasterRenderer shouldn't be used after.
+	 */
+	public void close() {
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
+}
@@ -3,16 +3,26 @@ package frontend;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
-import backend.framework.Updator;
-import backend.objects.GameObject;
+import backend.framework.LatencyHistogram;
+import backend.framework.ParticleSystem;
+import backend.framework.PerfStats;
+import backend.framework.TickGovernor;
+import backend.framework.RenderFrame;
 import backend.user.Player;
 import world.World;
 
 /**
- * Calls the <code>paint()</code> method of every GameObject in World.java's list of GameObjects and also draws the HUD. Tries to run every 5 ms, but may well go slower. This class has its own thread, so it must deal with some concurrency issues.
+ * Draws the latest RenderFrame published by the simulation, along with the HUD. Tries to run every 5 ms, but may well go slower. This class has its own thread, but since it only ever reads frames the simulation has finished with, it never has to
+ * lock anything the simulation is using.
+ * <p>
+ * Only the part of the screen that changed since the last frame shown is repainted (see DirtyRegion.java): where shapes were and are now, plus any part of the HUD that changed. If nothing changed, nothing is painted; if more than
+ * FULL_REPAINT_FRACTION of the screen changed, all of it is repainted, since working out what to skip would save little. How many pixels were painted is shown on the debug overlay.
  * 
  * @author Owen Roszkowski
  */
@@ -21,75 +31,489 @@ public class ScreenDrawer extends JComponent implements Runnable {
 	/**
 	 * Again, I don't know what this does, but it doesn't break anything.
 	 */
-	private static final long	serialVersionUID	= -3109529532964673088L;
+	private static final long	serialVersionUID		= -3109529532964673088L;
 
 	/**
 	 * How long the ScreenDrawer sleeps for before running again.
 	 */
-	private final long			DOWNTIME			= 5;
+	private final long			DOWNTIME				= 5;
 
 	/**
-	 * Creates a new ScreenDrawer.
+	 * Whether this ScreenDrawer's repaint loop should keep going. Set to false by <code>stop()</code> from another thread.
 	 */
-	public ScreenDrawer() {
+	private volatile boolean	running					= true;
+
+	/**
+	 * The last Color used while drawing a frame. Consecutive shapes are very often the same color, so this saves making a new Color for each of them.
+	 */
+	private Color				lastColor				= Color.BLACK;
+
+	/**
+	 * The pictures of the shapes drawn lately, so they can be copied rather than drawn from scratch every frame.
+	 */
+	private final SpriteCache	sprites					= new SpriteCache();
+
+	/**
+	 * The RasterRenderer drawing game objects, or null while they are drawn through Graphics. Switched with <code>toggleRenderer()</code>.
+	 */
+	private RasterRenderer		raster					= null;
+
+	/**
+	 * The fraction of the screen that, once dirty, gets the whole screen repainted.
+	 */
+	public static final double	FULL_REPAINT_FRACTION	= 0.5;
+
+	/**
+	 * The part of the screen that needs repainting for the next frame. Only touched on the event dispatch thread.
+	 */
+	private final DirtyRegion	dirty					= new DirtyRegion();
+
+	/**
+	 * Whether the whole screen should be repainted next time, such as after the debug overlay is hidden.
+	 */
+	private volatile boolean	repaintAll				= true;
+
+	/**
+	 * Whether a call to <code>refresh()</code> is already waiting on the event dispatch thread, so the repaint loop doesn't pile up more.
+	 */
+	private final AtomicBoolean	refreshQueued			= new AtomicBoolean(false);
+
+	/**
+	 * Calls <code>refresh()</code>. Made once, so the repaint loop doesn't make a new one every pass.
+	 */
+	private final Runnable		refresher;
+
+	/**
+	 * The frame being shown, which every paint draws. Null until the first refresh.
+	 */
+	private RenderFrame			shown					= null;
+
+	/**
+	 * The tick of the frame being shown.
+	 */
+	private long				shownTick				= -1;
+
+	/**
+	 * The player's health as last shown on the HUD.
+	 */
+	private int					shownHealth				= -1;
+
+	/**
+	 * The countdown as last shown on the HUD.
+	 */
+	private int					shownCountdown			= -1;
+
+	/**
+	 * The number of pixels painted by the last paint.
+	 */
+	private long				lastPixels				= 0;
+
+	/**
+	 * The number of pixels painted by every paint so far.
+	 */
+	private long				totalPixels				= 0;
+
+	/**
+	 * The number of paints so far.
+	 */
+	private long				paints					= 0;
+
+	/**
+	 * The number of frames where the whole screen was repainted.
+	 */
+	private long				fullRepaints			= 0;
+
+	/**
+	 * The number of frames where only part of the screen was repainted.
+	 */
+	private long				partialRepaints			= 0;
+
+	/**
+	 * The number of frames where nothing changed, so nothing was painted.
+	 */
+	private long				skippedRepaints			= 0;
+
+	/**
+	 * The World whose frames this ScreenDrawer draws.
+	 */
+	private final World			world;
+
+	/**
+	 * The number of frames shown in the debug overlay's frame-time graph.
+	 */
+	private static final int	GRAPH_LENGTH			= 120;
+
+	/**
+	 * How many nanoseconds of frame time one pixel of the frame-time graph stands for.
+	 */
+	private static final long	GRAPH_SCALE				= 500000;
+
+	/**
+	 * The height of the frame-time graph, in pixels. Anything slower than this is cut off at the top.
+	 */
+	private static final int	GRAPH_HEIGHT			= 50;
+
+	/**
+	 * Whether the debug overlay is shown. Toggled from the event dispatch thread by <code>toggleStats()</code>.
+	 */
+	private volatile boolean	showStats				= false;
+
+	/**
+	 * How long each of the last GRAPH_LENGTH frames took, in nanoseconds, as a ring buffer.
+	 */
+	private final long[]		frameNanos				= new long[GRAPH_LENGTH];
+
+	/**
+	 * Where the next frame time goes in <code>frameNanos</code>.
+	 */
+	private int					graphIndex				= 0;
+
+	/**
+	 * When the last frame was painted, from <code>System.nanoTime()</code>.
+	 */
+	private long				lastPaint				= 0;
+
+	/**
+	 * When the current second of counting frames started, from <code>System.nanoTime()</code>.
+	 */
+	private long				secondStart				= 0;
+
+	/**
+	 * The number of frames painted so far in the current second.
+	 */
+	private int					secondFrames			= 0;
+
+	/**
+	 * The number of frames painted in the last full second.
+	 */
+	private int					framesPerSecond			= 0;
+
+	/**
+	 * The lines of text in the debug overlay. Only rebuilt once a second, when the numbers in them change, so the overlay doesn't make new Strings every frame.
+	 */
+	private final String[]		statLines				= new String[8];
+
+	/**
+	 * Whether <code>statLines</code> needs rebuilding before it is next drawn.
+	 */
+	private boolean				statsChanged			= true;
+
+	/**
+	 * The PerfStats sample <code>statLines</code> was last built from.
+	 */
+	private int					shownSample				= -1;
+
+	/**
+	 * Creates a new ScreenDrawer that draws the given World.
+	 * 
+	 * @param world - The World whose frames are to be drawn
+	 */
+	public ScreenDrawer(World world) {
+		this.world = world;
+		refresher = new Runnable() {
+
+			@Override
+			public void run() {
+				refresh();
+			}
+
+		};
+	}
+
+	/**
+	 * Picks up the latest frame, works out what part of the screen it changes, and paints just that part straight away. Must be called on the event dispatch thread.
+	 */
+	private void refresh() {
+		refreshQueued.set(false);
+		int width = getWidth(), height = getHeight();
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		world.camera.setViewSize(width, height);
+		RenderFrame frame = world.frames.latest();
+		if (frame.getTick() != shownTick) {
+			dirty.compare(frame, width, height);
+			if (frame.getHealth() != shownHealth) {
+				dirty.add(0, height - 13, 10 * Player.MAX_HEALTH + 5, 13);
+			}
+			if (frame.getCountdown() != shownCountdown) {
+				dirty.add(width / 2 - 2, height / 2 - 15, 40, 20);
+			}
+		}
+		shown = frame;
+		shownTick = frame.getTick();
+		shownHealth = frame.getHealth();
+		shownCountdown = frame.getCountdown();
+		if (repaintAll) {
+			repaintAll = false;
+			dirty.addAll(width, height);
+		}
+		if (showStats) {
+			// The frame-time graph moves every frame
+			dirty.add(0, 0, width, 14 * statLines.length + GRAPH_HEIGHT + 10);
+		}
+
+		if (!dirty.isDirty(width, height)) {
+			skippedRepaints++;
+			world.input.painted(shownTick);
+		} else if ((double) dirty.getWidth(width) * dirty.getHeight(height) > FULL_REPAINT_FRACTION * width * height) {
+			fullRepaints++;
+			paintImmediately(0, 0, width, height);
+		} else {
+			partialRepaints++;
+			paintImmediately(dirty.getX(), dirty.getY(), dirty.getWidth(width), dirty.getHeight(height));
+		}
+		dirty.clear();
 	}
 
 	/**
-	 * When this component is painted, it simply paints everything onscreen, including game objects and the HUD.
+	 * When this component is painted, it simply paints everything onscreen within the clip, including game objects and the HUD, as of the frame being shown. Game objects are drawn shifted by the position of the camera the frame was
+	 * recorded with, either through Graphics or by the RasterRenderer if it is switched on; the HUD stays put.
 	 */
 	@Override
 	public void paintComponent(Graphics g) {
-		paintGameObjects(g);
-		paintOverlay(g);
+		countFrame();
+		world.camera.setViewSize(getWidth(), getHeight());
+		if (shown == null) {
+			shown = world.frames.latest();
+			shownTick = shown.getTick();
+		}
+		RenderFrame frame = shown;
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		lastPixels = (long) clip.width * clip.height;
+		totalPixels += lastPixels;
+		paints++;
+		if (raster != null) {
+			raster.render(g, frame, getWidth(), getHeight(), getBackground());
+		} else {
+			g.translate(-frame.getCameraX(), -frame.getCameraY());
+			paintGameObjects(g, frame, clip.x + frame.getCameraX(), clip.y + frame.getCameraY(), clip.width, clip.height);
+			g.translate(frame.getCameraX(), frame.getCameraY());
+		}
+		paintOverlay(g, frame);
+		if (showStats) {
+			paintStats(g, frame.getStats());
+		}
+		world.input.painted(frame.getTick());
+	}
+
+	/**
+	 * Works out the average number of pixels painted per paint.
+	 * 
+	 * @return the average number of pixels, or 0 if nothing has been painted
+	 */
+	private long averagePixels() {
+		return paints == 0 ? 0 : totalPixels / paints;
+	}
+
+	/**
+	 * Records how long it has been since the last frame, and works out the frames per second once a second.
+	 */
+	private void countFrame() {
+		long now = System.nanoTime();
+		if (lastPaint != 0) {
+			frameNanos[graphIndex] = now - lastPaint;
+			graphIndex = (graphIndex + 1) % GRAPH_LENGTH;
+		}
+		lastPaint = now;
+		secondFrames++;
+		if (now - secondStart >= 1000000000L) {
+			framesPerSecond = (int) (secondFrames * 1000000000L / (now - secondStart));
+			secondStart = now;
+			secondFrames = 0;
+			statsChanged = true;
+		}
+	}
+
+	/**
+	 * Draws the debug overlay in the upper-left corner: the frame and tick rates, how long ticks are taking, what is in the world, heap use, how long input takes to reach a tick and then the screen, how the SpriteCache is doing, and a graph of
+	 * recent frame times.
+	 * 
+	 * @param g - The Graphics object on which to draw the overlay
+	 * @param stats - The simulation's PerfStats, as of the frame being drawn
+	 */
+	private void paintStats(Graphics g, PerfStats stats) {
+		if (statsChanged || shownSample != stats.getSample()) {
+			statLines[0] = framesPerSecond + " FPS   " + stats.getTicksPerSecond() + " TPS";
+			statLines[1] = "tick " + stats.getLastTickNanos() / 1000 + " us   worst " + stats.getWorstTickNanos() / 1000 + " us";
+			statLines[2] = "player " + stats.getPlayers() + "   enemies " + stats.getEnemies() + "   shots " + stats.getProjectiles() + "   other " + stats.getOthers() + "   particles " + shown.getParticleCount();
+			statLines[3] = "pairs " + stats.getPairs() + "   shedding " + TickGovernor.NAMES[stats.getDegradation()] + " (" + stats.getDegradationChanges() + " changes)";
+			statLines[4] = "heap " + stats.getHeapUsed() / (1024 * 1024) + " MB   GCs " + stats.getGcCount();
+			statLines[5] = "input->tick " + LatencyHistogram.millis(world.input.getInputToTick(50)) + "/" + LatencyHistogram.millis(world.input.getInputToTick(99)) + " ms   tick->frame " + LatencyHistogram.millis(world.input.getTickToFrame(50)) + "/"
+					+ LatencyHistogram.millis(world.input.getTickToFrame(99)) + " ms (p50/p99)";
+			statLines[6] = raster != null ? "raster   " + RasterRenderer.TILES + " tiles"
+					: "sprites " + sprites.size() + "   hits " + sprites.getHits() + "   misses " + sprites.getMisses() + "   evicted " + sprites.getEvictions();
+			statLines[7] = "painted " + lastPixels + " px   avg " + averagePixels() + " px   full " + fullRepaints + "   partial " + partialRepaints + "   skipped " + skippedRepaints;
+			shownSample = stats.getSample();
+			statsChanged = false;
+		}
+		g.setColor(Color.BLACK);
+		int y = 15;
+		for (int i = 0; i < statLines.length; i++, y += 14) {
+			g.drawString(statLines[i], 5, y);
+		}
+		int bottom = y + GRAPH_HEIGHT;
+		g.drawRect(5, y, GRAPH_LENGTH, GRAPH_HEIGHT);
+		for (int i = 0; i < GRAPH_LENGTH; i++) {
+			long nanos = frameNanos[(graphIndex + i) % GRAPH_LENGTH];
+			int h = (int) Math.min(GRAPH_HEIGHT, nanos / GRAPH_SCALE);
+			g.drawLine(5 + i, bottom, 5 + i, bottom - h);
+		}
 	}
 
 	/**
-	 * Calls the <code>paint()</code> method of each game object in World.java's list of game objects.
+	 * Draws every shape recorded in the given frame that reaches into the clip, then every particle on top. Shapes small enough to have a picture in the SpriteCache are copied from their picture; bigger ones are drawn from scratch.
 	 * 
 	 * @param g - The Graphics object on which to draw the GameObjects
+	 * @param frame - The RenderFrame holding the shapes to draw
+	 * @param clipX - The left edge of the clip, in world coordinates
+	 * @param clipY - The top edge of the clip, in world coordinates
+	 * @param clipWidth - The width of the clip
+	 * @param clipHeight - The height of the clip
 	 */
-	private void paintGameObjects(Graphics g) {
-		synchronized (Updator.class) {
-			for (GameObject obj : World.getGameObjects()) {
-				obj.paint(g);
+	private void paintGameObjects(Graphics g, RenderFrame frame, int clipX, int clipY, int clipWidth, int clipHeight) {
+		sprites.setConfiguration(getGraphicsConfiguration());
+		for (int i = 0; i < frame.size(); i++) {
+			byte kind = frame.getKind(i);
+			int x = frame.getX(i);
+			int y = frame.getY(i);
+			int w = frame.getWidth(i);
+			int h = frame.getHeight(i);
+			int left = x + SpriteCache.left(kind), top = y + SpriteCache.top(kind);
+			if (left >= clipX + clipWidth || top >= clipY + clipHeight || left + SpriteCache.spriteWidth(kind, w) <= clipX || top + SpriteCache.spriteHeight(kind, h) <= clipY) {
+				continue;
 			}
+			if (SpriteCache.fits(w, h)) {
+				g.drawImage(sprites.get(kind, w, h, frame.getColor(i), frame.getProgress(i)), x + SpriteCache.left(kind), y + SpriteCache.top(kind), null);
+			} else {
+				paintShape(g, kind, x, y, w, h, colorOf(frame.getColor(i)), frame.getProgress(i));
+			}
+		}
+		for (int i = 0; i < frame.getParticleCount(); i++) {
+			g.setColor(colorOf(frame.getParticleColor(i)));
+			g.fillRect(frame.getParticleX(i), frame.getParticleY(i), ParticleSystem.SIZE, ParticleSystem.SIZE);
+		}
+	}
+
+	/**
+	 * Draws one shape from scratch. Used both for shapes too big for the SpriteCache and by the SpriteCache to draw its pictures, so a shape looks the same either way.
+	 * 
+	 * @param g - The Graphics object on which to draw the shape
+	 * @param kind - The shape kind (RenderFrame.RECT, RenderFrame.OVAL or RenderFrame.MELEE)
+	 * @param x - The x position of the shape's upper-left corner
+	 * @param y - The y position of the shape's upper-left corner
+	 * @param w - The width of the shape
+	 * @param h - The height of the shape
+	 * @param color - The color of the shape
+	 * @param progress - How far along the shape's progress ring is. Anything outside (0, 1) means no ring.
+	 */
+	static void paintShape(Graphics g, byte kind, int x, int y, int w, int h, Color color, float progress) {
+		g.setColor(color);
+		switch (kind) {
+		case RenderFrame.RECT:
+			g.drawRect(x, y, w, h);
+			g.fillRect(x, y, w, h);
+			break;
+		case RenderFrame.OVAL:
+			g.drawOval(x, y, w, h);
+			g.fillOval(x, y, w, h);
+			if (progress > 0 && progress < 1) {
+				g.setColor(Color.BLACK);
+				g.drawOval(x + (int) (w - w * progress) / 2, y + (int) (h - h * progress) / 2, (int) (w * progress), (int) (h * progress));
+			}
+			break;
+		case RenderFrame.MELEE:
+			g.drawArc(x - 10, y - 15, 50, 10, 180, -180);
+			g.fillArc(x - 10, y - 15, 50, 10, 180, -180);
+			g.fillPolygon(new int[] { x - 10, x + w / 2, x + w + 10 }, new int[] { y - 10, y + h / 2, y - 10 }, 3);
+			break;
 		}
 	}
 
 	/**
-	 * Draws the player's health in the lower-left corner.
+	 * Draws the player's health in the lower-left corner, and the countdown between rounds in the middle of the screen.
 	 * 
 	 * @param g - The Graphics object on which to draw the GameObjects
+	 * @param frame - The RenderFrame holding the player's health
 	 */
-	private void paintOverlay(Graphics g) {
+	private void paintOverlay(Graphics g, RenderFrame frame) {
 		g.setColor(Color.RED);
-		Polygon p = new Polygon(new int[] { 5, 7, 12, 10 }, new int[] { MainFrame.FRAME_SIZE - 2, MainFrame.FRAME_SIZE - 12, MainFrame.FRAME_SIZE - 12, MainFrame.FRAME_SIZE - 2 }, 4);
-		synchronized (Updator.class) {
-			for (int n = 0; n < Player.MAX_HEALTH; n++) {
-				if (n > 0) {
-					p.translate(10, 0);
-				}
-				g.drawPolygon(p);
-				if (n < World.player.getHealth()) {
-					g.fillPolygon(p);
-				}
+		Polygon p = new Polygon(new int[] { 5, 7, 12, 10 }, new int[] { getHeight() - 2, getHeight() - 12, getHeight() - 12, getHeight() - 2 }, 4);
+		for (int n = 0; n < Player.MAX_HEALTH; n++) {
+			if (n > 0) {
+				p.translate(10, 0);
+			}
+			g.drawPolygon(p);
+			if (n < frame.getHealth()) {
+				g.fillPolygon(p);
 			}
 		}
+		if (frame.getCountdown() > 0) {
+			g.setColor(Color.BLACK);
+			g.drawString(Integer.toString(frame.getCountdown()), getWidth() / 2, getHeight() / 2);
+		}
 	}
 
 	/**
-	 * Simply tries to call this Component's <code>repaint()</code> method every 5 ms.
+	 * Gets a Color for the given RGB value, reusing the last one if it matches.
+	 * 
+	 * @param rgb - The RGB value wanted
+	 * @return a Color with the given RGB value
+	 */
+	private Color colorOf(int rgb) {
+		if (lastColor.getRGB() != rgb) {
+			lastColor = new Color(rgb);
+		}
+		return lastColor;
+	}
+
+	/**
+	 * Simply tries to have <code>refresh()</code> called on the event dispatch thread every 5 ms, until <code>stop()</code> is called. Only one of these loops should ever be running per ScreenDrawer.
 	 */
 	@Override
 	public void run() {
-		while (true) {
-			repaint();
+		while (running) {
+			if (refreshQueued.compareAndSet(false, true)) {
+				SwingUtilities.invokeLater(refresher);
+			}
 			try {
 				Thread.sleep(DOWNTIME);
 			} catch (InterruptedException e) {
-				e.printStackTrace();
+				return;
 			}
 		}
 	}
 
+	/**
+	 * Shows the debug overlay if it is hidden, or hides it if it is shown.
+	 */
+	public void toggleStats() {
+		showStats = !showStats;
+		repaintAll = true;
+	}
+
+	/**
+	 * Switches between drawing game objects through Graphics and drawing them with a RasterRenderer. Must be called on the event dispatch thread, which is the thread that paints.
+	 */
+	public void toggleRenderer() {
+		if (raster == null) {
+			raster = new RasterRenderer();
+		} else {
+			raster.close();
+			raster = null;
+		}
+		statsChanged = true;
+		repaintAll = true;
+	}
+
+	/**
+	 * Makes this ScreenDrawer's repaint loop finish at its next pass.
+	 */
+	public void stop() {
+		running = false;
+	}
+
 }
@@ -0,0 +1,402 @@
+package frontend;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import backend.framework.RenderFrame;
+
+/**
+ * Holds a picture of every shape the ScreenDrawer has drawn lately, so that drawing a shape is one <code>drawImage()</code> instead of the handful of outline and fill calls it took to draw it from scratch. A shape's picture is drawn the
+ * first time it is asked for, in an image made to match the screen it will be copied to, and kept under a key made of its kind, size, color and progress ring, which is everything that decides how it looks. Progress rings are rounded to
+ * one of RING_STEPS steps, so a freezing enemy only ever needs that many pictures.
+ * <p>
+ * There is only room for MAX_SPRITES pictures; when it is full, the one used least recently is thrown out to make room (every enemy has a color of its own, so a long game would otherwise keep every enemy that ever lived). The pictures are
+ * kept in flat arrays with a hash table of their keys and a list of them from most to least recently used, so looking one up makes nothing new. Only shapes no bigger than MAX_SIZE either way are kept; bigger ones, like runs of wall, are
+ * cheaper to fill directly than to copy.
+ * <p>
+ * Only ever used from the thread drawing the screen.
+ * 
+ * @author Owen Roszkowski
+ */
+public class SpriteCache {
+
+	/**
+	 * The most pictures kept at once.
+	 */
+	public static final int			MAX_SPRITES	= 256;
+
+	/**
+	 * The widest or tallest shape, in pixels, a picture is kept of.
+	 */
+	public static final int			MAX_SIZE	= 64;
+
+	/**
+	 * The number of steps a progress ring is rounded to.
+	 */
+	public static final int			RING_STEPS	= 32;
+
+	/**
+	 * Marks the end of the list of pictures, and an empty slot in the hash table.
+	 */
+	private static final int		NONE		= -1;
+
+	/**
+	 * The screen the pictures are made to match, or null to make plain ARGB images.
+	 */
+	private GraphicsConfiguration	config;
+
+	/**
+	 * The key of each picture.
+	 */
+	private final long[]			keys;
+
+	/**
+	 * Each picture, or null for ones not made yet.
+	 */
+	private final BufferedImage[]	images;
+
+	/**
+	 * The picture used just before each picture, or NONE for the most recently used.
+	 */
+	private final int[]				newer;
+
+	/**
+	 * The picture used just after each picture, or NONE for the least recently used.
+	 */
+	private final int[]				older;
+
+	/**
+	 * Which picture has each key, by the key's hash, with linear probing. NONE for an empty slot. Twice the size of MAX_SPRITES, and a power of two.
+	 */
+	private final int[]				table;
+
+	/**
+	 * The number of pictures kept.
+	 */
+	private int						count;
+
+	/**
+	 * The most recently used picture, or NONE if there are none.
+	 */
+	private int						newest;
+
+	/**
+	 * The least recently used picture, or NONE if there are none.
+	 */
+	private int						oldest;
+
+	/**
+	 * The number of times a picture has been asked for and was already kept.
+	 */
+	private long					hits;
+
+	/**
+	 * The number of times a picture has been asked for and had to be drawn.
+	 */
+	private long					misses;
+
+	/**
+	 * The number of pictures thrown out to make room.
+	 */
+	private long					evictions;
+
+	/**
+	 * Creates a new, empty SpriteCache.
+	 */
+	public SpriteCache() {
+		keys = new long[MAX_SPRITES];
+		images = new BufferedImage[MAX_SPRITES];
+		newer = new int[MAX_SPRITES];
+		older = new int[MAX_SPRITES];
+		table = new int[Integer.highestOneBit(MAX_SPRITES * 2 - 1) << 1];
+		clear();
+	}
+
+	/**
+	 * Throws out every picture.
+	 */
+	public void clear() {
+		Arrays.fill(images, null);
+		Arrays.fill(table, NONE);
+		count = 0;
+		newest = oldest = NONE;
+	}
+
+	/**
+	 * Whether a shape is small enough to have its picture kept.
+	 * 
+	 * @param width - The width of the shape
+	 * @param height - The height of the shape
+	 * @return true if <code>get()</code> can be used for the shape
+	 */
+	public static boolean fits(int width, int height) {
+		return width >= 0 && height >= 0 && width <= MAX_SIZE && height <= MAX_SIZE;
+	}
+
+	/**
+	 * Gets the picture of a shape, drawing it first if it isn't kept. The picture is to be drawn at <code>left()</code> and <code>top()</code> from the shape's position.
+	 * 
+	 * @param kind - The shape kind (RenderFrame.RECT, RenderFrame.OVAL or RenderFrame.MELEE)
+	 * @param width - The width of the shape. Must fit (see <code>fits()</code>).
+	 * @param height - The height of the shape. Must fit (see <code>fits()</code>).
+	 * @param rgb - The RGB color of the shape
+	 * @param ring - How far along the shape's progress ring is, between 0 and 1. Anything outside (0, 1) means no ring.
+	 * @return the picture of the shape
+	 */
+	public BufferedImage get(byte kind, int width, int height, int rgb, float ring) {
+		int step = ringStep(ring);
+		long key = (long) kind << 54 | (long) step << 48 | (long) width << 40 | (long) height << 32 | (rgb & 0xFFFFFFFFL);
+		int slot = slotOf(key);
+		int sprite = table[slot];
+		if (sprite != NONE) {
+			hits++;
+			touch(sprite);
+			return images[sprite];
+		}
+
+		misses++;
+		if (count < MAX_SPRITES) {
+			sprite = count++;
+		} else {
+			sprite = oldest;
+			unlink(sprite);
+			remove(keys[sprite]);
+			images[sprite].flush();
+			evictions++;
+			slot = slotOf(key);
+		}
+		keys[sprite] = key;
+		images[sprite] = draw(kind, width, height, rgb, step);
+		table[slot] = sprite;
+		link(sprite);
+		return images[sprite];
+	}
+
+	/**
+	 * Rounds a progress ring to one of RING_STEPS steps.
+	 * 
+	 * @param ring - How far along the ring is, between 0 and 1
+	 * @return the step of the ring, or 0 for no ring
+	 */
+	private static int ringStep(float ring) {
+		if (!(ring > 0 && ring < 1)) {
+			return 0;
+		}
+		return Math.max(1, Math.min(RING_STEPS - 1, Math.round(ring * RING_STEPS)));
+	}
+
+	/**
+	 * Finds the slot of the hash table that holds a key, or the empty slot it would go in.
+	 * 
+	 * @param key - The key to look for
+	 * @return the slot of the key
+	 */
+	private int slotOf(long key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		while (table[slot] != NONE && keys[table[slot]] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Mixes up the bits of a key, so that keys that only differ in color don't all land next to each other.
+	 * 
+	 * @param key - The key to hash
+	 * @return the hash of the key
+	 */
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	/**
+	 * Takes a key out of the hash table, moving the keys after it back so none of them are cut off from their slot by the gap.
+	 * 
+	 * @param key - The key to take out, which must be in the table
+	 */
+	private void remove(long key) {
+		int mask = table.length - 1;
+		int gap = slotOf(key);
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			if (table[slot] == NONE) {
+				break;
+			}
+			int home = hash(keys[table[slot]]) & mask;
+			// Only move the key back if the gap is between its home slot and where it is now
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				table[gap] = table[slot];
+				gap = slot;
+			}
+		}
+		table[gap] = NONE;
+	}
+
+	/**
+	 * Moves a picture to the front of the list, as the most recently used.
+	 * 
+	 * @param sprite - The picture just used
+	 */
+	private void touch(int sprite) {
+		if (sprite != newest) {
+			unlink(sprite);
+			link(sprite);
+		}
+	}
+
+	/**
+	 * Puts a picture at the front of the list, as the most recently used.
+	 * 
+	 * @param sprite - A picture not in the list
+	 */
+	private void link(int sprite) {
+		newer[sprite] = NONE;
+		older[sprite] = newest;
+		if (newest != NONE) {
+			newer[newest] = sprite;
+		}
+		newest = sprite;
+		if (oldest == NONE) {
+			oldest = sprite;
+		}
+	}
+
+	/**
+	 * Takes a picture out of the list.
+	 * 
+	 * @param sprite - A picture in the list
+	 */
+	private void unlink(int sprite) {
+		if (newer[sprite] != NONE) {
+			older[newer[sprite]] = older[sprite];
+		} else {
+			newest = older[sprite];
+		}
+		if (older[sprite] != NONE) {
+			newer[older[sprite]] = newer[sprite];
+		} else {
+			oldest = newer[sprite];
+		}
+	}
+
+	/**
+	 * Draws the picture of a shape, exactly as the ScreenDrawer would draw the shape itself.
+	 * 
+	 * @param kind - The shape kind
+	 * @param width - The width of the shape
+	 * @param height - The height of the shape
+	 * @param rgb - The RGB color of the shape
+	 * @param step - The step of the shape's progress ring, or 0 for none
+	 * @return a new picture of the shape
+	 */
+	private BufferedImage draw(byte kind, int width, int height, int rgb, int step) {
+		int imageWidth = spriteWidth(kind, width), imageHeight = spriteHeight(kind, height);
+		BufferedImage image = config != null ? config.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT) : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		ScreenDrawer.paintShape(g, kind, -left(kind), -top(kind), width, height, new Color(rgb), (float) step / RING_STEPS);
+		g.dispose();
+		return image;
+	}
+
+	/**
+	 * Gets where the left edge of a shape's picture is, from the shape's x position. Melee arcs reach out past their hitbox; everything else starts at it.
+	 * 
+	 * @param kind - The shape kind
+	 * @return the offset of the picture's left edge, in pixels
+	 */
+	public static int left(byte kind) {
+		return kind == RenderFrame.MELEE ? -10 : 0;
+	}
+
+	/**
+	 * Gets where the top edge of a shape's picture is, from the shape's y position. Melee arcs reach out past their hitbox; everything else starts at it.
+	 * 
+	 * @param kind - The shape kind
+	 * @return the offset of the picture's top edge, in pixels
+	 */
+	public static int top(byte kind) {
+		return kind == RenderFrame.MELEE ? -15 : 0;
+	}
+
+	/**
+	 * Gets how wide a shape's picture has to be. Outlines are drawn one pixel past the width of a shape, so every picture is one pixel wider than what it shows.
+	 * 
+	 * @param kind - The shape kind
+	 * @param width - The width of the shape
+	 * @return the width of the picture, in pixels
+	 */
+	static int spriteWidth(byte kind, int width) {
+		return (kind == RenderFrame.MELEE ? Math.max(50, width + 20) : width) + 1;
+	}
+
+	/**
+	 * Gets how tall a shape's picture has to be. Outlines are drawn one pixel past the height of a shape, so every picture is one pixel taller than what it shows.
+	 * 
+	 * @param kind - The shape kind
+	 * @param height - The height of the shape
+	 * @return the height of the picture, in pixels
+	 */
+	static int spriteHeight(byte kind, int height) {
+		return (kind == RenderFrame.MELEE ? Math.max(10, height / 2 + 15) : height) + 1;
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Sets the screen pictures are made to match. If it isn't the one they were made for, every picture is thrown out, so they get made again for the new one.
+	 * 
+	 * @param config - The GraphicsConfiguration of the component the pictures are drawn on, or null if it isn't showing
+	 */
+	public void setConfiguration(GraphicsConfiguration config) {
+		if (config != null && config != this.config) {
+			clear();
+			this.config = config;
+		}
+	}
+
+	/**
+	 * Gets the number of pictures kept.
+	 * 
+	 * @return the number of pictures, at most MAX_SPRITES
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Gets the number of times a picture was already kept when asked for.
+	 * 
+	 * @return the number of hits so far
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of times a picture had to be drawn when asked for.
+	 * 
+	 * @return the number of misses so far
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the number of pictures thrown out to make room.
+	 * 
+	 * @return the number of evictions so far
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+}
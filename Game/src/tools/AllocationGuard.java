@@ -0,0 +1,121 @@
+package tools;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+
+import backend.user.Player;
+import backend.user.RandomBot;
+import world.RoundState;
+import world.World;
+
+/**
+ * Checks that a steady tick doesn't allocate anything. A headless World full of enemies is played by a RandomBot long enough for everything to warm up, then every tick is measured with the allocation counter of the thread ticking it. Ticks
+ * that add a GameObject (a shot, a melee attack, a spawn) or change the state of the round are allowed to allocate, since they make something new on purpose, as are ticks with more GameObjects than ever before, since those are when reused
+ * buffers grow to fit. So are the ticks where the World's PerfStats takes its once-a-second sample, since that reads the JVM's own management beans. Any other tick that allocates even one byte fails the check. Exits with a status of 1 on
+ * failure, so it can be run as part of a build.
+ * <p>
+ * Measuring only starts once the JIT has gone quiet. Compiling a method with C2 makes the JVM create the String literals of its class on whichever thread asked for the compile, which is charged to that thread like any other allocation.
+ * 
+ * @author Owen Roszkowski
+ */
+public class AllocationGuard {
+
+	/**
+	 * The fewest ticks of the round played before measuring, so that the wave has spawned.
+	 */
+	public static final int	WARMUP_TICKS	= 5000;
+
+	/**
+	 * The number of ticks in a row the JIT must compile nothing for before measuring starts.
+	 */
+	public static final int	QUIET_TICKS		= 5000;
+
+	/**
+	 * The most ticks played waiting for the JIT to go quiet, after which measuring starts anyway.
+	 */
+	public static final int	MAX_WARMUP		= 200000;
+
+	/**
+	 * The number of ticks measured.
+	 */
+	public static final int	MEASURED_TICKS	= 5000;
+
+	/**
+	 * The number of enemies in the World being measured.
+	 */
+	public static final int	ENEMIES			= 40;
+
+	/**
+	 * Runs the check.
+	 * 
+	 * @param args - Not used
+	 */
+	public static void main(String[] args) {
+		World world = new World();
+		world.player = new Player(300, 300);
+		world.setSeed(1);
+		world.setBot(new RandomBot(1, 25, 0.3));
+		world.setWaveSize(ENEMIES);
+		world.setImmortal(true);
+		// Shedding load would change what a tick does partway through, and reporting it makes Strings
+		world.governor.setEnabled(false);
+		world.start();
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+		long compiling = -1;
+		int played = 0, quiet = 0;
+		while (played < WARMUP_TICKS || (quiet < QUIET_TICKS && played < MAX_WARMUP)) {
+			world.tick();
+			if (world.getState() == RoundState.PLAYING) {
+				played++;
+			}
+			// The counter is read twice a tick while measuring, so it gets warmed up along with everything else
+			threads.getThreadAllocatedBytes(thread);
+			long compiled = jit.getTotalCompilationTime();
+			quiet = (compiled == compiling) ? quiet + 1 : 0;
+			compiling = compiled;
+		}
+		System.out.println("Warmed up for " + played + " ticks" + (quiet < QUIET_TICKS ? ", but the JIT never went quiet" : ""));
+
+		// Reading the counter may itself cost a few bytes on some JVMs, so that much is taken off every measurement
+		long first = threads.getThreadAllocatedBytes(thread);
+		long overhead = threads.getThreadAllocatedBytes(thread) - first;
+
+		int steady = 0, failed = 0, most = world.getObjectCount();
+		long worst = 0, worstTick = -1;
+		for (int t = 0; t < MEASURED_TICKS; t++) {
+			long added = world.getObjectsAdded();
+			RoundState state = world.getState();
+			int objects = world.getObjectCount(), sample = world.stats.getSample();
+			long before = threads.getThreadAllocatedBytes(thread);
+			world.tick();
+			long bytes = threads.getThreadAllocatedBytes(thread) - before - overhead;
+			boolean growing = objects > most;
+			most = Math.max(most, objects);
+			if (world.getObjectsAdded() != added || world.getState() != state || state != RoundState.PLAYING || growing || world.stats.getSample() != sample) {
+				continue;
+			}
+			steady++;
+			if (bytes > 0) {
+				failed++;
+				if (bytes > worst) {
+					worst = bytes;
+					worstTick = world.getTickCount();
+				}
+			}
+		}
+		world.close();
+
+		System.out.println("Steady ticks measured: " + steady + ", ticks that allocated: " + failed);
+		if (steady == 0) {
+			System.out.println("FAILED: no steady ticks to measure");
+			System.exit(1);
+		} else if (failed > 0) {
+			System.out.println("FAILED: tick " + worstTick + " allocated " + worst + " bytes");
+			System.exit(1);
+		}
+		System.out.println("PASSED");
+	}
+
+}
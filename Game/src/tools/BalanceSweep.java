@@ -0,0 +1,194 @@
+package tools;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import backend.framework.FastForward;
+import backend.objects.npc.EnemyTuning;
+import backend.user.Bot;
+import backend.user.HunterBot;
+import backend.user.Player;
+import backend.user.ScriptedBot;
+import world.RoundState;
+import world.World;
+
+/**
+ * Plays a grid of EnemyTunings against a bot, to see how each number changes how hard the game is without hand-editing RangedEnemy and playing. Every EnemyTuning in the grid is played once per seed, each run in a headless
+ * World of its own, fast-forwarded (see FastForward) on a pool of threads, one per core unless told otherwise. Runs share nothing, so throughput should go up with the number of threads. Every EnemyTuning is played with the same seeds, so
+ * they all face the same waves and differences between them come from the numbers, not the luck of the draw.
+ * <p>
+ * Every run is written to a CSV file: its numbers, its seed, how many rounds the player survived, how many enemies it killed, how much damage it took (counted as each hit lands), and how many ticks it lasted. The average of each
+ * EnemyTuning over the runs that finished is printed at the end, along with how many ticks per second the whole sweep managed. The player is played by a HunterBot unless told otherwise, since a bot that can't kill anything never gets past
+ * the first round, and every EnemyTuning would look the same.
+ * 
+ * @author Owen Roszkowski
+ */
+public class BalanceSweep {
+
+	/**
+	 * The grid swept when none is given: three ranges by three cooldowns.
+	 */
+	public static final String	DEFAULT_GRID	= "range=250,300,350;cooldown=50,75,100";
+
+	/**
+	 * The bot played when none is given: a HunterBot, which chases enemies down so that waves get cleared.
+	 */
+	public static final String	DEFAULT_BOT		= "hunter";
+
+	/**
+	 * The most ticks a run may last, in case its rounds never end: half an hour of game time.
+	 */
+	public static final long	MAX_TICKS		= 180000;
+
+	/**
+	 * Runs a sweep.
+	 * 
+	 * @param args - Optionally, in order: the grid to sweep (defaults to BalanceSweep.DEFAULT_GRID), the number of seeds to play each EnemyTuning with (defaults to 8), the round to stop at (defaults to 50), the number of threads to run on
+	 *            (defaults to one per core), the name of the CSV file to write (defaults to <code>sweep.csv</code>), and the bot for the player (<code>hunter</code>, or a script for a ScriptedBot; defaults to BalanceSweep.DEFAULT_BOT). A
+	 *            grid is a semicolon-separated list of numbers from EnemyTuning.NAMES, each with a comma-separated list of values, such as <code>range=250,300;recoil=1,2,4</code>. Every combination of values is played, with numbers not in
+	 *            the grid left at their defaults.
+	 */
+	public static void main(String[] args) throws FileNotFoundException, InterruptedException {
+		String grid = args.length > 0 ? args[0] : DEFAULT_GRID;
+		int seeds = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		final int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		String out = args.length > 4 ? args[4] : "sweep.csv";
+		final String botName = args.length > 5 ? args[5] : DEFAULT_BOT;
+		// Make the bot once up front, so a bad script fails here rather than on every thread
+		makeBot(botName);
+
+		ArrayList<EnemyTuning> tunings = expand(grid);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<long[]>> runs = new ArrayList<Future<long[]>>();
+		long start = System.nanoTime();
+		for (final EnemyTuning tuning : tunings) {
+			for (int s = 1; s <= seeds; s++) {
+				final long seed = s;
+				runs.add(pool.submit(new Callable<long[]>() {
+
+					@Override
+					public long[] call() {
+						return play(tuning, seed, botName, rounds);
+					}
+
+				}));
+			}
+		}
+
+		PrintWriter csv = new PrintWriter(new File(out));
+		StringBuilder header = new StringBuilder("set");
+		for (String name : EnemyTuning.NAMES) {
+			header.append(',').append(name);
+		}
+		csv.println(header + ",seed,rounds,kills,damage,ticks");
+		long totalTicks = 0;
+		for (int set = 0; set < tunings.size(); set++) {
+			EnemyTuning tuning = tunings.get(set);
+			long roundSum = 0, killSum = 0, damageSum = 0, tickSum = 0;
+			int finished = 0;
+			for (int s = 0; s < seeds; s++) {
+				long[] result;
+				try {
+					result = runs.get(set * seeds + s).get();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+					continue;
+				}
+				StringBuilder row = new StringBuilder(Integer.toString(set));
+				for (int i = 0; i < EnemyTuning.NAMES.length; i++) {
+					row.append(',').append(tuning.format(i));
+				}
+				csv.println(row + "," + (s + 1) + "," + result[0] + "," + result[1] + "," + result[2] + "," + result[3]);
+				roundSum += result[0];
+				killSum += result[1];
+				damageSum += result[2];
+				tickSum += result[3];
+				finished++;
+			}
+			totalTicks += tickSum;
+			if (finished == 0) {
+				System.out.printf("%d: %s -> no runs finished%n", set, tuning);
+				continue;
+			}
+			System.out.printf("%d: %s -> %.2f rounds, %.2f kills, %.2f damage, %.0f ticks (%d of %d runs)%n", set, tuning, roundSum / (double) finished, killSum / (double) finished, damageSum / (double) finished, tickSum / (double) finished,
+					finished, seeds);
+		}
+		csv.close();
+		pool.shutdown();
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Wrote %s: %d runs on %d threads in %.2f s, %.0f ticks per second%n", out, tunings.size() * seeds, threads, seconds, totalTicks / seconds);
+	}
+
+	/**
+	 * Plays one run.
+	 * 
+	 * @param tuning - The numbers the enemies play by
+	 * @param seed - The seed of the World
+	 * @param botName - The bot the player is played by (see <code>makeBot()</code>)
+	 * @param rounds - The round to stop at the end of
+	 * @return the number of rounds the player survived, the number of enemies it killed, the damage it took, and the number of ticks the run lasted, in that order
+	 */
+	private static long[] play(EnemyTuning tuning, long seed, String botName, int rounds) {
+		World world = new World();
+		world.player = new Player(300, 300);
+		world.setSeed(seed);
+		world.setBot(makeBot(botName));
+		world.setTuning(tuning);
+		world.setFastForward(true);
+		world.start();
+		FastForward fast = new FastForward(world);
+		long ticks = fast.runRounds(rounds, MAX_TICKS);
+		world.close();
+
+		// A round only counts as survived once its wave is dead and the countdown to the next has started
+		long survived = world.round - (world.getState() == RoundState.COUNTDOWN ? 0 : 1);
+		return new long[] { Math.max(0, survived), world.getEnemiesKilled(), world.player.getDamageTaken(), ticks };
+	}
+
+	/**
+	 * Makes the bot the player is played by.
+	 * 
+	 * @param botName - <code>hunter</code> for a HunterBot, or a script for a ScriptedBot
+	 * @return a new Bot
+	 * @throws IllegalArgumentException if the script can't be read
+	 */
+	private static Bot makeBot(String botName) {
+		return botName.equals("hunter") ? new HunterBot() : new ScriptedBot(botName);
+	}
+
+	/**
+	 * Works out every combination of values in a grid.
+	 * 
+	 * @param grid - The grid, such as <code>range=250,300;recoil=1,2,4</code>
+	 * @return every EnemyTuning in the grid, starting from EnemyTuning.DEFAULT, with the last number in the grid changing fastest
+	 * @throws IllegalArgumentException if the grid can't be read
+	 */
+	private static ArrayList<EnemyTuning> expand(String grid) {
+		ArrayList<EnemyTuning> tunings = new ArrayList<EnemyTuning>();
+		tunings.add(EnemyTuning.DEFAULT);
+		for (String axis : grid.split(";")) {
+			String[] parts = axis.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Bad part of grid: " + axis);
+			}
+			ArrayList<EnemyTuning> next = new ArrayList<EnemyTuning>();
+			for (EnemyTuning tuning : tunings) {
+				for (String value : parts[1].split(",")) {
+					next.add(tuning.with(parts[0].trim(), Double.parseDouble(value.trim())));
+				}
+			}
+			tunings = next;
+		}
+		return tunings;
+	}
+
+}
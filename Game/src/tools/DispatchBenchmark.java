@@ -0,0 +1,170 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import backend.objects.GameObject;
+import backend.objects.ImmovableObject;
+import backend.objects.MovingObject;
+import backend.objects.npc.EnemyProjectile;
+import backend.objects.npc.RangedEnemy;
+import backend.user.Player;
+import backend.utility.Vector;
+import world.World;
+
+/**
+ * Measures what the Updator saves by looping over one final class at a time instead of over every GameObject at once. Both ways do the same work on the same World: every MovingObject works out its velocity, then every enemy and projectile
+ * is checked for overlap with the player. The mixed way goes through one list of every GameObject, calling through GameObject and MovingObject, so each call site sees every kind of GameObject; the sorted way goes through one array per
+ * class, so each call site only ever sees one. The number of overlaps found each way is printed as a check that they did the same work.
+ * <p>
+ * To see what the JIT made of each loop, run with <code>-XX:+UnlockDiagnosticVMOptions -XX:+PrintInlining</code> and look for updateVelocity and overlaps: under <code>mixed()</code> they should show up as virtual or megamorphic calls, and
+ * under <code>sorted()</code> as inlined.
+ * 
+ * @author Owen Roszkowski
+ */
+public class DispatchBenchmark {
+
+	/**
+	 * The number of passes run per round of measuring.
+	 */
+	public static final int	PASSES	= 500;
+
+	/**
+	 * The number of rounds of measuring. Only the last round is printed, once the JIT has settled.
+	 */
+	public static final int	ROUNDS	= 10;
+
+	/**
+	 * The number of walls in the World, so the mixed list has every kind of GameObject in it.
+	 */
+	public static final int	WALLS	= 50;
+
+	/**
+	 * Runs the benchmark for a few different numbers of enemies. There are as many projectiles as enemies.
+	 * 
+	 * @param args - Optionally, the numbers of enemies to try (defaults to 100, 1000 and 5000)
+	 */
+	public static void main(String[] args) {
+		int[] counts = { 100, 1000, 5000 };
+		if (args.length > 0) {
+			counts = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				counts[i] = Integer.parseInt(args[i]);
+			}
+		}
+		for (int n : counts) {
+			Random random = new Random(n);
+			World world = new World();
+			world.player = new Player(300, 300);
+			world.addGameObject(world.player);
+			Player[] players = { world.player };
+			RangedEnemy[] enemies = new RangedEnemy[n];
+			EnemyProjectile[] projectiles = new EnemyProjectile[n];
+			for (int i = 0; i < n; i++) {
+				enemies[i] = new RangedEnemy(random.nextDouble() * 600, random.nextDouble() * 600);
+				world.addGameObject(enemies[i]);
+				projectiles[i] = new EnemyProjectile(random.nextInt(600), random.nextInt(600), new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5));
+				world.addGameObject(projectiles[i]);
+			}
+			for (int i = 0; i < WALLS; i++) {
+				world.addGameObject(new ImmovableObject(random.nextInt(600), random.nextInt(600), 20, 20));
+			}
+			ArrayList<GameObject> mixed = new ArrayList<GameObject>();
+			world.copyGameObjects(mixed);
+			Collections.shuffle(mixed, random);
+
+			long mixedNanos = 0, sortedNanos = 0;
+			int mixedHits = 0, sortedHits = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+				mixedHits = 0;
+				for (int pass = 0; pass < PASSES; pass++) {
+					step(world);
+					mixedHits += mixed(mixed, world.player);
+				}
+				mixedNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				sortedHits = 0;
+				for (int pass = 0; pass < PASSES; pass++) {
+					step(world);
+					sortedHits += sorted(players, enemies, projectiles);
+				}
+				sortedNanos = System.nanoTime() - start;
+			}
+			world.close();
+
+			System.out.printf("%d enemies, %d projectiles: mixed %.2f ns/object, sorted %.2f ns/object (%.2fx), %d/%d overlaps%n", n, n, mixedNanos / (double) PASSES / mixed.size(), sortedNanos / (double) PASSES / mixed.size(),
+					mixedNanos / (double) sortedNanos, mixedHits, sortedHits);
+		}
+	}
+
+	/**
+	 * Moves the World's clock on a tick the way the Updator does before anything is updated, so enemies freeze and unfreeze as they would in a round.
+	 * 
+	 * @param world - The World being measured
+	 */
+	private static void step(World world) {
+		world.sightLines.clear();
+		world.timers.advance(world);
+	}
+
+	/**
+	 * Does one pass over a list of every kind of GameObject, the way the Updator used to.
+	 * 
+	 * @param gameObjects - Every GameObject in the World, in no particular order
+	 * @param target - The GameObject to check for overlap against
+	 * @return the number of MovingObjects overlapping the target
+	 */
+	private static int mixed(ArrayList<GameObject> gameObjects, GameObject target) {
+		int hits = 0;
+		for (int i = 0; i < gameObjects.size(); i++) {
+			GameObject gObj = gameObjects.get(i);
+			if (MovingObject.class.isInstance(gObj)) {
+				((MovingObject) gObj).updateVelocity();
+			}
+		}
+		for (int i = 0; i < gameObjects.size(); i++) {
+			GameObject gObj = gameObjects.get(i);
+			if (MovingObject.class.isInstance(gObj) && gObj != target && target.overlaps(gObj)) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Does the same pass with one loop per final class, the way the Updator does now.
+	 * 
+	 * @param players - Every Player in the World
+	 * @param enemies - Every RangedEnemy in the World
+	 * @param projectiles - Every EnemyProjectile in the World
+	 * @return the number of enemies and projectiles overlapping the player
+	 */
+	private static int sorted(Player[] players, RangedEnemy[] enemies, EnemyProjectile[] projectiles) {
+		int hits = 0;
+		for (int i = 0; i < players.length; i++) {
+			players[i].updateVelocity();
+		}
+		for (int i = 0; i < enemies.length; i++) {
+			enemies[i].updateVelocity();
+		}
+		for (int i = 0; i < projectiles.length; i++) {
+			projectiles[i].updateVelocity();
+		}
+		Player player = players[0];
+		for (int i = 0; i < enemies.length; i++) {
+			if (player.overlaps(enemies[i])) {
+				hits++;
+			}
+		}
+		for (int i = 0; i < projectiles.length; i++) {
+			if (player.overlaps(projectiles[i])) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+}
@@ -0,0 +1,54 @@
+package tools;
+
+import backend.framework.FastForward;
+import backend.framework.Updator;
+import backend.user.Bot;
+import backend.user.HunterBot;
+import backend.user.Player;
+import backend.user.RandomBot;
+import backend.user.ScriptedBot;
+import world.World;
+
+/**
+ * Measures how fast a whole game can be played when nobody is watching. A headless World is played by a Bot through a FastForward to the end of a number of rounds, and how much game time went by, how long it took, and how many times
+ * faster than real time that is are printed. The player is made immortal (but not the enemies, so waves still end), so that every round asked for is played rather than only the first few.
+ * 
+ * @author Owen Roszkowski
+ */
+public class FastForwardBenchmark {
+
+	/**
+	 * Plays a headless World to the end of a number of rounds as fast as it will go, and reports how fast that was.
+	 * 
+	 * @param args - Optionally, in order: the round to play to the end of (defaults to 50), the seed of the World (defaults to 1), and the bot to play with (<code>hunter</code>, <code>random</code>, or a script for a ScriptedBot;
+	 *            defaults to <code>hunter</code>)
+	 */
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		String botName = args.length > 2 ? args[2] : "hunter";
+		Bot bot;
+		if (botName.equals("hunter")) {
+			bot = new HunterBot();
+		} else if (botName.equals("random")) {
+			bot = new RandomBot(seed, 25, 0.3);
+		} else {
+			bot = new ScriptedBot(botName);
+		}
+
+		World world = new World();
+		world.player = new Player(300, 300);
+		world.setSeed(seed);
+		world.setBot(bot);
+		world.setPlayerImmortal(true);
+		world.start();
+		FastForward fast = new FastForward(world);
+		fast.runRounds(rounds, Long.MAX_VALUE);
+		world.close();
+
+		double simulated = fast.getTicks() * Updator.RUN_PERIOD / 1000.0;
+		System.out.printf("Reached round %d of %d (player %s) in %d ticks, %.0f s of game time%n", world.round, rounds, world.player.getHealth() > 0 ? "alive" : "dead", fast.getTicks(), simulated);
+		System.out.printf("Took %.2f s: %.0f ticks per second, %.0fx real time%n", fast.getNanos() / 1e9, fast.getTicksPerSecond(), simulated / (fast.getNanos() / 1e9));
+	}
+
+}
@@ -0,0 +1,122 @@
+package tools;
+
+import java.util.Random;
+
+import backend.framework.MotionBuffer;
+import backend.objects.npc.RangedEnemy;
+import backend.utility.Vector;
+
+/**
+ * Measures how long friction, moving and checking for hits on the player take per object, done the old way (one object at a time, through Vectors) and through MotionBuffer's packed loops. Both ways start from the same random objects, and
+ * the largest difference between their results is printed as a check that the packed loops do the same thing.
+ * 
+ * @author Owen Roszkowski
+ */
+public class IntegrationBenchmark {
+
+	/**
+	 * The number of ticks run per round of measuring.
+	 */
+	public static final int	TICKS	= 200;
+
+	/**
+	 * The number of rounds of measuring. Only the last round is printed, once the JIT has settled.
+	 */
+	public static final int	ROUNDS	= 10;
+
+	/**
+	 * The size of every hitbox, about the size of an enemy.
+	 */
+	public static final int	SIZE	= 30;
+
+	/**
+	 * Runs the benchmark for a few different numbers of objects.
+	 * 
+	 * @param args - Optionally, the numbers of objects to try (defaults to 100, 1000 and 10000)
+	 */
+	public static void main(String[] args) {
+		int[] counts = { 100, 1000, 10000 };
+		if (args.length > 0) {
+			counts = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				counts[i] = Integer.parseInt(args[i]);
+			}
+		}
+		for (int n : counts) {
+			Random random = new Random(n);
+			double[] startX = new double[n], startY = new double[n], startVX = new double[n], startVY = new double[n];
+			for (int i = 0; i < n; i++) {
+				startX[i] = random.nextDouble() * 600;
+				startY[i] = random.nextDouble() * 600;
+				startVX[i] = (random.nextDouble() - 0.5) * 4 * RangedEnemy.MAX_SPEED;
+				startVY[i] = (random.nextDouble() - 0.5) * 4 * RangedEnemy.MAX_SPEED;
+			}
+
+			Vector[] velocities = new Vector[n];
+			double[] scalarX = new double[n], scalarY = new double[n];
+			double[] xs = new double[n], ys = new double[n], vxs = new double[n], vys = new double[n];
+			int[] lefts = new int[n], tops = new int[n], rights = new int[n], bottoms = new int[n];
+			boolean[] hits = new boolean[n];
+			long scalar = 0, packed = 0;
+			int scalarHits = 0, packedHits = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				for (int i = 0; i < n; i++) {
+					velocities[i] = new Vector(startVX[i], startVY[i]);
+					scalarX[i] = xs[i] = startX[i];
+					scalarY[i] = ys[i] = startY[i];
+					vxs[i] = startVX[i];
+					vys[i] = startVY[i];
+				}
+
+				scalarHits = 0;
+				long start = System.nanoTime();
+				for (int tick = 0; tick < TICKS; tick++) {
+					for (int i = 0; i < n; i++) {
+						Vector velocity = velocities[i];
+						if (velocity.getMagnitude() > RangedEnemy.FRICTION)
+							velocity.setMagnitude(velocity.getMagnitude() - RangedEnemy.FRICTION);
+						else
+							velocity.setMagnitude(0);
+						if (velocity.getMagnitude() > RangedEnemy.MAX_SPEED)
+							velocity.setMagnitude(RangedEnemy.MAX_SPEED);
+						int left = (int) scalarX[i], top = (int) scalarY[i];
+						if (Math.min(left + SIZE, 300 + SIZE) - Math.max(left, 300) > 0 && Math.min(top + SIZE, 300 + SIZE) - Math.max(top, 300) > 0) {
+							scalarHits++;
+						}
+						scalarX[i] += velocity.getXComponent();
+						scalarY[i] += velocity.getYComponent();
+					}
+				}
+				scalar = System.nanoTime() - start;
+
+				packedHits = 0;
+				start = System.nanoTime();
+				for (int tick = 0; tick < TICKS; tick++) {
+					MotionBuffer.dampen(vxs, vys, 0, n, RangedEnemy.FRICTION, RangedEnemy.MAX_SPEED);
+					for (int i = 0; i < n; i++) {
+						lefts[i] = (int) xs[i];
+						tops[i] = (int) ys[i];
+						rights[i] = lefts[i] + SIZE;
+						bottoms[i] = tops[i] + SIZE;
+					}
+					MotionBuffer.overlaps(lefts, tops, rights, bottoms, 0, n, 300, 300, 300 + SIZE, 300 + SIZE, hits);
+					for (int i = 0; i < n; i++) {
+						if (hits[i]) {
+							packedHits++;
+						}
+					}
+					MotionBuffer.integrate(xs, ys, vxs, vys, 0, n);
+				}
+				packed = System.nanoTime() - start;
+			}
+
+			double difference = 0;
+			for (int i = 0; i < n; i++) {
+				difference = Math.max(difference, Math.max(Math.abs(xs[i] - scalarX[i]), Math.abs(ys[i] - scalarY[i])));
+			}
+			System.out.printf("%d objects: one at a time %.2f ns/object, packed %.2f ns/object (%.1fx), %d/%d hits, largest difference %.2e px%n", n, scalar / (double) TICKS / n, packed / (double) TICKS / n, scalar / (double) packed,
+					scalarHits, packedHits, difference);
+		}
+	}
+
+}
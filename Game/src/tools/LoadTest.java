@@ -0,0 +1,229 @@
+package tools;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import backend.framework.TickGovernor;
+import backend.framework.Updator;
+import backend.objects.GameObject;
+import backend.objects.ImmovableObject;
+import backend.objects.npc.EnemyProjectile;
+import backend.objects.npc.RangedEnemy;
+import backend.user.Bot;
+import backend.user.MeleeAttack;
+import backend.user.Player;
+import backend.user.RandomBot;
+import backend.user.ScriptedBot;
+import world.RoundState;
+import world.World;
+
+/**
+ * Pushes the engine as hard as it will go, so that how it scales can be tracked from release to release. A headless World is played by a Bot, with waves of a fixed (large) number of enemies, and nothing in it can die, so the load never lets up.
+ * Once the first wave is in play, the World is ticked back to back on this thread for as long as asked, and how long each tick took, how much it allocated, how much time went to garbage collection, and how many of each kind of GameObject there
+ * were is written out every so often as CSV, with a summary of the whole run as JSON. If the World's TickGovernor is on, every change in how much load it is shedding is printed as it happens.
+ * 
+ * @author Owen Roszkowski
+ */
+public class LoadTest {
+
+	/**
+	 * The number of ticks summarized by each row of the CSV report.
+	 */
+	public static final int		SAMPLE_TICKS	= 100;
+
+	/**
+	 * The script played by the bot when a scripted bot is asked for: runs around in a square, swinging at each corner.
+	 */
+	public static final String	DEFAULT_SCRIPT	= "D:80,J:1,S:80,J:1,A:80,J:1,W:80,J:1";
+
+	/**
+	 * Runs a load test.
+	 * 
+	 * @param args - Optionally, in order: the number of enemies per wave (defaults to 200), the number of ticks to run (defaults to 6000), the bot to play with (<code>random</code>, <code>script</code>, or a script of its own; defaults to
+	 *            <code>random</code>), the name to give the report files (defaults to <code>loadtest</code>, for loadtest.csv and loadtest.json), and whether the World's TickGovernor may shed load (<code>on</code> or <code>off</code>;
+	 *            defaults to <code>off</code>, so the numbers show the full cost of every tick)
+	 */
+	public static void main(String[] args) throws FileNotFoundException {
+		int enemies = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 6000;
+		String botName = args.length > 2 ? args[2] : "random";
+		String out = args.length > 3 ? args[3] : "loadtest";
+		boolean governed = args.length > 4 && args[4].equals("on");
+
+		Bot bot;
+		if (botName.equals("random")) {
+			bot = new RandomBot(1, 25, 0.3);
+		} else if (botName.equals("script")) {
+			bot = new ScriptedBot(DEFAULT_SCRIPT);
+		} else {
+			bot = new ScriptedBot(botName);
+		}
+
+		World world = new World();
+		world.player = new Player(300, 300);
+		world.setSeed(1);
+		world.setBot(bot);
+		world.setWaveSize(enemies);
+		world.setImmortal(true);
+		world.governor.setEnabled(governed);
+		world.start();
+		// The countdown and wave planning aren't load, and ticking flat out could outrun the planner, so measuring starts once the first wave is in play
+		while (world.getState() != RoundState.PLAYING) {
+			world.tick();
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		long[] tickTimes = new long[ticks];
+		long[] sample = new long[SAMPLE_TICKS];
+		long startTime = System.nanoTime(), sampleTime = startTime;
+		long startBytes = threads.getThreadAllocatedBytes(thread), sampleBytes = startBytes;
+		long startGcCount = gcCount(), sampleGcCount = startGcCount;
+		long startGcTime = gcTime(), sampleGcTime = startGcTime;
+
+		PrintWriter csv = new PrintWriter(new File(out + ".csv"));
+		csv.println("tick,round,state,p50_us,p90_us,p99_us,max_us,alloc_mb_per_s,gc_count,gc_ms,players,enemies,projectiles,melee,walls,degradation");
+		int changes = world.governor.getChanges();
+		for (int t = 0; t < ticks; t++) {
+			long before = System.nanoTime();
+			world.tick();
+			tickTimes[t] = System.nanoTime() - before;
+			sample[t % SAMPLE_TICKS] = tickTimes[t];
+			if (world.governor.getChanges() != changes) {
+				changes = world.governor.getChanges();
+				System.out.printf("Tick %d: average %d us of %d us, now shedding %s%n", t + 1, (long) world.governor.getAverageNanos() / 1000, Updator.RUN_PERIOD * 1000, TickGovernor.NAMES[world.governor.getLevel()]);
+			}
+
+			if ((t + 1) % SAMPLE_TICKS == 0) {
+				long now = System.nanoTime(), bytes = threads.getThreadAllocatedBytes(thread);
+				long gcCount = gcCount(), gcTime = gcTime();
+				int[] counts = countObjects(world);
+				Arrays.sort(sample);
+				csv.println((t + 1) + "," + world.round + "," + world.getState() + "," + micros(percentile(sample, SAMPLE_TICKS, 50)) + "," + micros(percentile(sample, SAMPLE_TICKS, 90)) + "," + micros(percentile(sample, SAMPLE_TICKS, 99))
+						+ "," + micros(sample[SAMPLE_TICKS - 1]) + "," + megabytesPerSecond(bytes - sampleBytes, now - sampleTime) + "," + (gcCount - sampleGcCount) + "," + (gcTime - sampleGcTime) + "," + counts[0] + "," + counts[1] + ","
+						+ counts[2] + "," + counts[3] + "," + counts[4] + "," + world.governor.getLevel());
+				sampleTime = now;
+				sampleBytes = bytes;
+				sampleGcCount = gcCount;
+				sampleGcTime = gcTime;
+			}
+		}
+		csv.close();
+
+		long elapsed = System.nanoTime() - startTime;
+		long allocated = threads.getThreadAllocatedBytes(thread) - startBytes;
+		int[] counts = countObjects(world);
+		world.close();
+		Arrays.sort(tickTimes);
+
+		PrintWriter json = new PrintWriter(new File(out + ".json"));
+		json.println("{");
+		json.println("  \"enemiesPerWave\": " + enemies + ",");
+		json.println("  \"bot\": \"" + botName.replace("\"", "\\\"") + "\",");
+		json.println("  \"ticks\": " + ticks + ",");
+		json.println("  \"seconds\": " + elapsed / 1e9 + ",");
+		json.println("  \"ticksPerSecond\": " + ticks / (elapsed / 1e9) + ",");
+		json.println("  \"tickMicros\": { \"p50\": " + micros(percentile(tickTimes, ticks, 50)) + ", \"p90\": " + micros(percentile(tickTimes, ticks, 90)) + ", \"p99\": " + micros(percentile(tickTimes, ticks, 99)) + ", \"p999\": "
+				+ micros(percentile(tickTimes, ticks, 99.9)) + ", \"max\": " + micros(tickTimes[ticks - 1]) + ", \"budget\": " + Updator.RUN_PERIOD * 1000 + " },");
+		json.println("  \"allocatedBytes\": " + allocated + ",");
+		json.println("  \"allocMegabytesPerSecond\": " + megabytesPerSecond(allocated, elapsed) + ",");
+		json.println("  \"gcCount\": " + (gcCount() - startGcCount) + ",");
+		json.println("  \"gcMillis\": " + (gcTime() - startGcTime) + ",");
+		json.println("  \"governor\": { \"enabled\": " + governed + ", \"changes\": " + world.governor.getChanges() + ", \"level\": " + world.governor.getLevel() + " },");
+		json.println("  \"finalObjects\": { \"players\": " + counts[0] + ", \"enemies\": " + counts[1] + ", \"projectiles\": " + counts[2] + ", \"melee\": " + counts[3] + ", \"walls\": " + counts[4] + " }");
+		json.println("}");
+		json.close();
+
+		System.out.println("Wrote " + out + ".csv and " + out + ".json: " + ticks + " ticks, p99 " + micros(percentile(tickTimes, ticks, 99)) + " us, " + megabytesPerSecond(allocated, elapsed) + " MB/s allocated");
+	}
+
+	/**
+	 * Counts how many of each kind of GameObject are in the given World.
+	 * 
+	 * @param world - The World to count
+	 * @return the number of players, enemies, projectiles, melee attacks, and walls, in that order
+	 */
+	private static int[] countObjects(World world) {
+		int[] counts = new int[5];
+		for (GameObject obj : world.getGameObjects()) {
+			if (Player.class.isInstance(obj)) {
+				counts[0]++;
+			} else if (RangedEnemy.class.isInstance(obj)) {
+				counts[1]++;
+			} else if (EnemyProjectile.class.isInstance(obj)) {
+				counts[2]++;
+			} else if (MeleeAttack.class.isInstance(obj)) {
+				counts[3]++;
+			} else if (ImmovableObject.class.isInstance(obj)) {
+				counts[4]++;
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets a percentile of some sorted times.
+	 * 
+	 * @param sorted - The times, sorted from shortest to longest
+	 * @param count - How many of the times to look at
+	 * @param percent - The percentile to get, between 0 and 100
+	 * @return the time below which the given percent of the times fall
+	 */
+	private static long percentile(long[] sorted, int count, double percent) {
+		int i = (int) Math.ceil(percent / 100 * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, i))];
+	}
+
+	/**
+	 * Converts a time from nanoseconds to microseconds.
+	 * 
+	 * @param nanos - A time in nanoseconds
+	 * @return the same time in whole microseconds
+	 */
+	private static long micros(long nanos) {
+		return nanos / 1000;
+	}
+
+	/**
+	 * Works out an allocation rate.
+	 * 
+	 * @param bytes - The number of bytes allocated
+	 * @param nanos - How long it took to allocate them, in nanoseconds
+	 * @return the rate, in megabytes per second, rounded to a tenth
+	 */
+	private static double megabytesPerSecond(long bytes, long nanos) {
+		return Math.round(bytes / (nanos / 1e9) / (1024 * 1024) * 10) / 10.0;
+	}
+
+	/**
+	 * Gets the number of garbage collections there have been so far, by every collector.
+	 * 
+	 * @return the total number of collections
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the time spent on garbage collection so far, by every collector.
+	 * 
+	 * @return the total time spent collecting, in milliseconds
+	 */
+	private static long gcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return time;
+	}
+
+}
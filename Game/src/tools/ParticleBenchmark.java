@@ -0,0 +1,94 @@
+package tools;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import backend.framework.ParticleSystem;
+import backend.framework.RenderFrame;
+import frontend.MainFrame;
+
+/**
+ * Measures what it costs the simulation to keep a great many particles alive. A ParticleSystem is fed a steady stream of bursts, enough to keep about the given number of particles alive, and every tick it is updated and recorded into a
+ * RenderFrame the way a World does, with every particle in view. Once warmed up, the time per tick, the bytes allocated per tick by the ticking thread, and the number of garbage collections are printed. Once the RenderFrame has grown to
+ * fit, nothing should be allocated at all.
+ * 
+ * @author Owen Roszkowski
+ */
+public class ParticleBenchmark {
+
+	/**
+	 * The number of ticks run before measuring.
+	 */
+	public static final int	WARMUP_TICKS	= 5000;
+
+	/**
+	 * The number of particles in each burst.
+	 */
+	public static final int	BURST			= 50;
+
+	/**
+	 * Runs the benchmark.
+	 * 
+	 * @param args - Optionally, in order: the number of particles to keep alive (defaults to 100000), and the number of ticks to measure (defaults to 5000)
+	 */
+	public static void main(String[] args) {
+		int target = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		// A particle lives three quarters of BURST_LIFETIME on average, so this many new ones a tick keeps the target alive
+		int bursts = Math.max(1, (int) (target / (ParticleSystem.BURST_LIFETIME * 0.75) / BURST));
+		int size = MainFrame.FRAME_SIZE;
+
+		ParticleSystem particles = new ParticleSystem();
+		RenderFrame frame = new RenderFrame();
+		for (int t = 0; t < WARMUP_TICKS; t++) {
+			tick(particles, frame, bursts, t, size);
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long gcs = gcCount(), bytes = threads.getThreadAllocatedBytes(thread), live = 0;
+		long start = System.nanoTime();
+		for (int t = 0; t < ticks; t++) {
+			tick(particles, frame, bursts, t, size);
+			live += particles.getLive();
+		}
+		long nanos = System.nanoTime() - start;
+		bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+		gcs = gcCount() - gcs;
+
+		System.out.printf("%d live particles on average: %.1f us per tick, %.1f ns per particle%n", live / ticks, nanos / 1e3 / ticks, nanos / (double) live);
+		System.out.printf("%d bytes allocated over %d ticks, %d GCs%n", bytes, ticks, gcs);
+	}
+
+	/**
+	 * Runs one tick: some new bursts, an update, and recording into the frame.
+	 * 
+	 * @param particles - The ParticleSystem being measured
+	 * @param frame - The RenderFrame to record into
+	 * @param bursts - The number of bursts to add
+	 * @param t - The number of the tick, which decides where the bursts go
+	 * @param size - The width and height of the view
+	 */
+	private static void tick(ParticleSystem particles, RenderFrame frame, int bursts, int t, int size) {
+		for (int b = 0; b < bursts; b++) {
+			particles.burst((t * 37 + b * 101) % size, (t * 53 + b * 67) % size, BURST, 0xFF000000 | (b * 0x10101), ParticleSystem.BURST_SPEED, ParticleSystem.BURST_LIFETIME);
+		}
+		particles.update();
+		frame.clear(t);
+		particles.render(frame, 0, 0, size, size);
+	}
+
+	/**
+	 * Adds up how many garbage collections every collector has done.
+	 * 
+	 * @return the total number of collections so far
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += gc.getCollectionCount();
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,175 @@
+package tools;
+
+import java.util.Random;
+
+import backend.framework.CollisionGrid;
+import backend.framework.SightLines;
+import backend.objects.ImmovableObject;
+import frontend.MainFrame;
+
+/**
+ * Measures how many line-of-sight checks per second SightLines can answer, one at a time and in batches like the Updator asks them, against the simple way of testing every line against every wall. Walls are random rectangles lined up with the
+ * CollisionGrid's cells, so both ways should give exactly the same answers; any line they disagree on is counted, as a check that the grid walk is right.
+ * 
+ * @author Owen Roszkowski
+ */
+public class RaycastBenchmark {
+
+	/**
+	 * The number of lines checked per round of measuring.
+	 */
+	public static final int	LINES		= 100000;
+
+	/**
+	 * The number of lines in each batch, about as many enemies as might fire in one tick of a big wave.
+	 */
+	public static final int	BATCH		= 64;
+
+	/**
+	 * The longest line checked, in pixels. A little more than the range of a RangedEnemy.
+	 */
+	public static final int	MAX_LENGTH	= 400;
+
+	/**
+	 * Runs the benchmark for a few different numbers of walls.
+	 * 
+	 * @param args - Optionally, the numbers of walls to try (defaults to 10, 100 and 1000)
+	 */
+	public static void main(String[] args) {
+		int[] wallCounts = { 10, 100, 1000 };
+		if (args.length > 0) {
+			wallCounts = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				wallCounts[i] = Integer.parseInt(args[i]);
+			}
+		}
+		int size = MainFrame.WORLD_SIZE, cell = CollisionGrid.DEFAULT_CELL_SIZE;
+		for (int walls : wallCounts) {
+			Random random = new Random(walls);
+			CollisionGrid grid = new CollisionGrid(size, size, cell);
+			int[] boxes = new int[walls * 4];
+			for (int i = 0; i < walls; i++) {
+				int w = cell * (1 + random.nextInt(10)), h = cell * (1 + random.nextInt(10));
+				int x = cell * random.nextInt((size - w) / cell), y = cell * random.nextInt((size - h) / cell);
+				grid.add(new ImmovableObject(x, y, w, h));
+				boxes[i * 4] = x;
+				boxes[i * 4 + 1] = y;
+				boxes[i * 4 + 2] = x + w;
+				boxes[i * 4 + 3] = y + h;
+			}
+			double[] lines = new double[LINES * 4];
+			for (int i = 0; i < LINES; i++) {
+				double x0 = random.nextDouble() * size, y0 = random.nextDouble() * size;
+				double angle = random.nextDouble() * 2 * Math.PI, length = random.nextDouble() * MAX_LENGTH;
+				lines[i * 4] = x0;
+				lines[i * 4 + 1] = y0;
+				lines[i * 4 + 2] = Math.max(0, Math.min(size - 1, x0 + length * Math.cos(angle)));
+				lines[i * 4 + 3] = Math.max(0, Math.min(size - 1, y0 + length * Math.sin(angle)));
+			}
+
+			int mismatches = 0, clear = 0;
+			for (int i = 0; i < LINES; i++) {
+				boolean walked = SightLines.isClear(grid, lines[i * 4], lines[i * 4 + 1], lines[i * 4 + 2], lines[i * 4 + 3]);
+				if (walked != naiveIsClear(boxes, lines[i * 4], lines[i * 4 + 1], lines[i * 4 + 2], lines[i * 4 + 3])) {
+					mismatches++;
+				}
+				if (walked) {
+					clear++;
+				}
+			}
+
+			SightLines batch = new SightLines();
+			long single = 0, batched = 0, naive = 0;
+			int singleClear = 0, batchedClear = 0, naiveClear = 0;
+			for (int round = 0; round < 5; round++) {
+				singleClear = batchedClear = naiveClear = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < LINES; i++) {
+					if (SightLines.isClear(grid, lines[i * 4], lines[i * 4 + 1], lines[i * 4 + 2], lines[i * 4 + 3])) {
+						singleClear++;
+					}
+				}
+				single = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < LINES; i += BATCH) {
+					batch.clear();
+					for (int j = i; j < Math.min(LINES, i + BATCH); j++) {
+						batch.request(null, lines[j * 4], lines[j * 4 + 1], lines[j * 4 + 2], lines[j * 4 + 3]);
+					}
+					batch.resolve(grid, null);
+					for (int j = 0; j < batch.size(); j++) {
+						if (batch.isClear(j)) {
+							batchedClear++;
+						}
+					}
+				}
+				batched = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < LINES; i++) {
+					if (naiveIsClear(boxes, lines[i * 4], lines[i * 4 + 1], lines[i * 4 + 2], lines[i * 4 + 3])) {
+						naiveClear++;
+					}
+				}
+				naive = System.nanoTime() - start;
+			}
+
+			System.out.println(walls + " walls: grid walk " + perSecond(single) + " lines/s, batched " + perSecond(batched) + " lines/s, every wall " + perSecond(naive) + " lines/s (" + singleClear * 100 / LINES + "% clear, " + mismatches
+					+ " mismatches)");
+			if (singleClear != clear || batchedClear != clear) {
+				System.out.println("Batched answers disagreed with single ones");
+			}
+		}
+	}
+
+	/**
+	 * Works out a rate from the time taken to check LINES lines.
+	 * 
+	 * @param nanos - How long checking them took, in nanoseconds
+	 * @return the number of lines checked per second
+	 */
+	private static long perSecond(long nanos) {
+		return (long) (LINES / (nanos / 1e9));
+	}
+
+	/**
+	 * Checks whether a line crosses any wall by testing it against every single one. The slow way, for comparison.
+	 * 
+	 * @param boxes - Every wall, as left, top, right, bottom
+	 * @param x0 - The x position of the start of the line
+	 * @param y0 - The y position of the start of the line
+	 * @param x1 - The x position of the end of the line
+	 * @param y1 - The y position of the end of the line
+	 * @return true if the line doesn't cross any wall, false otherwise
+	 */
+	private static boolean naiveIsClear(int[] boxes, double x0, double y0, double x1, double y1) {
+		double dx = x1 - x0, dy = y1 - y0;
+		for (int i = 0; i < boxes.length; i += 4) {
+			double enter = 0, exit = 1;
+			if (dx == 0) {
+				if (x0 < boxes[i] || x0 >= boxes[i + 2]) {
+					continue;
+				}
+			} else {
+				double a = (boxes[i] - x0) / dx, b = (boxes[i + 2] - x0) / dx;
+				enter = Math.max(enter, Math.min(a, b));
+				exit = Math.min(exit, Math.max(a, b));
+			}
+			if (dy == 0) {
+				if (y0 < boxes[i + 1] || y0 >= boxes[i + 3]) {
+					continue;
+				}
+			} else {
+				double a = (boxes[i + 1] - y0) / dy, b = (boxes[i + 3] - y0) / dy;
+				enter = Math.max(enter, Math.min(a, b));
+				exit = Math.min(exit, Math.max(a, b));
+			}
+			if (enter < exit) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,111 @@
+package tools;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import backend.framework.RenderFrame;
+import backend.objects.npc.EnemyProjectile;
+import backend.objects.npc.RangedEnemy;
+import backend.user.Player;
+import frontend.MainFrame;
+import frontend.RasterRenderer;
+import frontend.SpriteCache;
+
+/**
+ * Measures how long it takes to draw a frame full of projectiles each way the ScreenDrawer can: copying a sprite from a SpriteCache per shape through Graphics, or writing pixels with a RasterRenderer. Both draw the same frame, onto an
+ * image the size of the window, without a screen, so it can be run headless. Each frame has a player, a border of walls, one enemy for every hundred projectiles, and the projectiles themselves, all in view.
+ * <p>
+ * The RasterRenderer splits the screen into one strip per core, so its times depend on how many cores there are.
+ * 
+ * @author Owen Roszkowski
+ */
+public class RenderBenchmark {
+
+	/**
+	 * The number of frames drawn per round of measuring.
+	 */
+	public static final int	FRAMES	= 20;
+
+	/**
+	 * The number of rounds of measuring. Only the last round is printed, once the JIT has settled.
+	 */
+	public static final int	ROUNDS	= 5;
+
+	/**
+	 * Runs the benchmark for a few different numbers of projectiles.
+	 * 
+	 * @param args - Optionally, the numbers of projectiles to try (defaults to 1000, 10000 and 50000)
+	 */
+	public static void main(String[] args) {
+		int[] counts = { 1000, 10000, 50000 };
+		if (args.length > 0) {
+			counts = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				counts[i] = Integer.parseInt(args[i]);
+			}
+		}
+		int size = MainFrame.FRAME_SIZE;
+		BufferedImage screen = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics g = screen.getGraphics();
+		SpriteCache sprites = new SpriteCache();
+		RasterRenderer raster = new RasterRenderer();
+		for (int n : counts) {
+			RenderFrame frame = makeFrame(n, size, new Random(n));
+			long spriteNanos = 0, rasterNanos = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+				for (int f = 0; f < FRAMES; f++) {
+					g.setColor(Color.WHITE);
+					g.fillRect(0, 0, size, size);
+					for (int i = 0; i < frame.size(); i++) {
+						byte kind = frame.getKind(i);
+						if (SpriteCache.fits(frame.getWidth(i), frame.getHeight(i))) {
+							g.drawImage(sprites.get(kind, frame.getWidth(i), frame.getHeight(i), frame.getColor(i), frame.getProgress(i)), frame.getX(i) + SpriteCache.left(kind), frame.getY(i) + SpriteCache.top(kind), null);
+						} else {
+							g.setColor(new Color(frame.getColor(i)));
+							g.fillRect(frame.getX(i), frame.getY(i), frame.getWidth(i) + 1, frame.getHeight(i) + 1);
+						}
+					}
+				}
+				spriteNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int f = 0; f < FRAMES; f++) {
+					raster.render(g, frame, size, size, Color.WHITE);
+				}
+				rasterNanos = System.nanoTime() - start;
+			}
+			System.out.printf("%d projectiles: sprites %.2f ms/frame, raster %.2f ms/frame on %d tiles (%.2fx)%n", n, spriteNanos / 1e6 / FRAMES, rasterNanos / 1e6 / FRAMES, RasterRenderer.TILES, spriteNanos / (double) rasterNanos);
+		}
+		raster.close();
+	}
+
+	/**
+	 * Fills a frame with shapes scattered over the view.
+	 * 
+	 * @param projectiles - The number of projectiles in the frame
+	 * @param size - The width and height of the view
+	 * @param random - Where the shapes go
+	 * @return a new RenderFrame, with its camera at 0, 0
+	 */
+	private static RenderFrame makeFrame(int projectiles, int size, Random random) {
+		RenderFrame frame = new RenderFrame();
+		frame.clear(0);
+		int gray = Color.GRAY.getRGB();
+		frame.add(RenderFrame.RECT, 0, 0, size, 10, gray, 1);
+		frame.add(RenderFrame.RECT, 0, size - 10, size, 10, gray, 1);
+		frame.add(RenderFrame.RECT, 0, 0, 10, size, gray, 1);
+		frame.add(RenderFrame.RECT, size - 10, 0, 10, size, gray, 1);
+		frame.add(RenderFrame.RECT, size / 2, size / 2, Player.WIDTH, Player.HEIGHT, Color.RED.getRGB(), 1);
+		for (int i = 0; i < projectiles / 100; i++) {
+			frame.add(RenderFrame.OVAL, random.nextInt(size), random.nextInt(size), RangedEnemy.WIDTH, RangedEnemy.HEIGHT, 0xFF4466F4 + random.nextInt(64) * 256, 0);
+		}
+		for (int i = 0; i < projectiles; i++) {
+			frame.add(RenderFrame.OVAL, random.nextInt(size), random.nextInt(size), EnemyProjectile.WIDTH, EnemyProjectile.HEIGHT, Color.BLACK.getRGB(), 1);
+		}
+		return frame;
+	}
+
+}
@@ -0,0 +1,329 @@
+package world;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import backend.framework.SolidCells;
+import backend.utility.DaemonThreadFactory;
+
+/**
+ * Keeps the chunks of a TileMap around the player in memory, and only those. Chunks are read from disk on a background thread as the player comes near them, and are kept in a bounded least-recently-used cache once the player moves away, so
+ * going back and forth over a chunk border doesn't keep re-reading the same chunks. However big the map is, no more than <code>capacity</code> chunks are ever held at once. This class has its own thread, so it must deal with some concurrency
+ * issues: everything except the actual reading is only ever touched by the simulation.
+ * 
+ * @author Owen Roszkowski
+ */
+public class ChunkStreamer implements SolidCells {
+
+	/**
+	 * One chunk which has been read into memory.
+	 */
+	private static class Chunk {
+
+		/**
+		 * The column of this chunk.
+		 */
+		final int		chunkX;
+
+		/**
+		 * The row of this chunk.
+		 */
+		final int		chunkY;
+
+		/**
+		 * One bit per tile, set if the tile is solid. Laid out the same way as in the TileMap file.
+		 */
+		final long[]	bits	= new long[TileMap.CHUNK_LONGS];
+
+		/**
+		 * Creates a new, empty chunk.
+		 * 
+		 * @param chunkX - The column of this chunk
+		 * @param chunkY - The row of this chunk
+		 */
+		Chunk(int chunkX, int chunkY) {
+			this.chunkX = chunkX;
+			this.chunkY = chunkY;
+		}
+	}
+
+	/**
+	 * The map being streamed.
+	 */
+	private final TileMap						map;
+
+	/**
+	 * How many chunks out from the player's chunk, in every direction, are kept loaded.
+	 */
+	private final int							radius;
+
+	/**
+	 * The chunks in memory, least recently used first. The eldest is thrown away whenever there are more than <code>capacity</code>.
+	 */
+	private final LinkedHashMap<Long, Chunk>	cache;
+
+	/**
+	 * The keys of the chunks which have been asked for but haven't finished loading yet.
+	 */
+	private final HashSet<Long>					pending;
+
+	/**
+	 * Chunks the loader thread has finished reading, waiting to be picked up by the simulation.
+	 */
+	private final ConcurrentLinkedQueue<Chunk>	loaded;
+
+	/**
+	 * The keys of chunks the loader thread couldn't read, waiting to be taken out of <code>pending</code> by the simulation so they are asked for again.
+	 */
+	private final ConcurrentLinkedQueue<Long>	failed;
+
+	/**
+	 * The single background thread chunks are read on.
+	 */
+	private final ExecutorService				loader;
+
+	/**
+	 * The chunks around the player, laid out as a square of side <code>2 * radius + 1</code> so looking up a tile near the player doesn't have to go through the cache at all. A slot is null if its chunk isn't loaded yet.
+	 */
+	private final Chunk[]						window;
+
+	/**
+	 * The column of the chunk in the upper-left corner of <code>window</code>.
+	 */
+	private int									windowX;
+
+	/**
+	 * The row of the chunk in the upper-left corner of <code>window</code>.
+	 */
+	private int									windowY;
+
+	/**
+	 * Creates a new ChunkStreamer for the given map. Nothing is loaded until <code>update()</code> is first called.
+	 * 
+	 * @param map - The TileMap to stream chunks from
+	 * @param radius - How many chunks out from the player's chunk, in every direction, are kept loaded
+	 * @param capacity - The most chunks ever held in memory at once. Should be comfortably more than <code>(2 * radius + 1)</code> squared.
+	 */
+	public ChunkStreamer(TileMap map, int radius, final int capacity) {
+		this.map = map;
+		this.radius = radius;
+		cache = new LinkedHashMap<Long, Chunk>(capacity * 2, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+				return size() > capacity;
+			}
+
+		};
+		pending = new HashSet<Long>();
+		loaded = new ConcurrentLinkedQueue<Chunk>();
+		failed = new ConcurrentLinkedQueue<Long>();
+		loader = Executors.newSingleThreadExecutor(new DaemonThreadFactory("Chunk Loader"));
+		window = new Chunk[(2 * radius + 1) * (2 * radius + 1)];
+		windowX = windowY = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Makes sure every chunk within <code>radius</code> of the given position is either loaded or on its way. Chunks which have finished loading since the last call are put in the cache, and chunks which couldn't be read are forgotten, so they are
+	 * asked for again the next time the window is refilled. Must only be called by the simulation, once per tick.
+	 * 
+	 * @param x - The x position of the player, in pixels
+	 * @param y - The y position of the player, in pixels
+	 */
+	public void update(int x, int y) {
+		boolean arrived = false;
+		for (Chunk chunk = loaded.poll(); chunk != null; chunk = loaded.poll()) {
+			Long key = key(chunk.chunkX, chunk.chunkY);
+			pending.remove(key);
+			cache.put(key, chunk);
+			arrived = true;
+		}
+		for (Long key = failed.poll(); key != null; key = failed.poll()) {
+			pending.remove(key);
+		}
+		int originX = Math.floorDiv(x, map.getChunkSize()) - radius;
+		int originY = Math.floorDiv(y, map.getChunkSize()) - radius;
+		if (arrived || originX != windowX || originY != windowY) {
+			windowX = originX;
+			windowY = originY;
+			fillWindow(false);
+		}
+	}
+
+	/**
+	 * Loads every chunk within <code>radius</code> of the given position right away, on the calling thread. Used when the player is first placed, so they don't start out able to walk through walls which haven't loaded yet.
+	 * 
+	 * @param x - The x position of the player, in pixels
+	 * @param y - The y position of the player, in pixels
+	 */
+	public void loadNow(int x, int y) {
+		windowX = Math.floorDiv(x, map.getChunkSize()) - radius;
+		windowY = Math.floorDiv(y, map.getChunkSize()) - radius;
+		fillWindow(true);
+	}
+
+	/**
+	 * Refills <code>window</code> from the cache, asking for any chunk that isn't in it.
+	 * 
+	 * @param now - Whether missing chunks should be read right away rather than on the loader thread
+	 */
+	private void fillWindow(boolean now) {
+		int side = 2 * radius + 1;
+		for (int j = 0; j < side; j++) {
+			for (int i = 0; i < side; i++) {
+				int chunkX = windowX + i, chunkY = windowY + j;
+				Chunk chunk = null;
+				if (chunkX >= 0 && chunkY >= 0 && chunkX < map.getChunksWide() && chunkY < map.getChunksHigh()) {
+					Long key = key(chunkX, chunkY);
+					chunk = cache.get(key);
+					if (chunk == null && now) {
+						chunk = read(chunkX, chunkY);
+						if (chunk != null) {
+							cache.put(key, chunk);
+						}
+					} else if (chunk == null && pending.add(key)) {
+						final int cx = chunkX, cy = chunkY;
+						final Long k = key;
+						loader.execute(new Runnable() {
+
+							@Override
+							public void run() {
+								Chunk read = read(cx, cy);
+								if (read != null) {
+									loaded.add(read);
+								} else {
+									failed.add(k);
+								}
+							}
+
+						});
+					}
+				}
+				window[j * side + i] = chunk;
+			}
+		}
+	}
+
+	/**
+	 * Reads one chunk from the map.
+	 * 
+	 * @param chunkX - The column of the chunk
+	 * @param chunkY - The row of the chunk
+	 * @return the chunk read, or null if it couldn't be
+	 */
+	private Chunk read(int chunkX, int chunkY) {
+		Chunk chunk = new Chunk(chunkX, chunkY);
+		try {
+			map.readChunk(chunkX, chunkY, chunk.bits);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Each cell is one tile of the map.
+	 */
+	@Override
+	public int getCellSize() {
+		return map.getTileSize();
+	}
+
+	/**
+	 * Checks whether the tile at the given tile coordinates is solid. Only chunks near the player are looked at; anything further away, or not loaded yet, counts as solid, so nothing can walk or see into a part of the map whose walls aren't
+	 * known. Tiles outside the map count as solid too.
+	 */
+	@Override
+	public boolean isSolidCell(int tileX, int tileY) {
+		if (tileX < 0 || tileY < 0 || tileX >= map.getChunksWide() * TileMap.CHUNK_TILES || tileY >= map.getChunksHigh() * TileMap.CHUNK_TILES) {
+			return true;
+		}
+		Chunk chunk = windowChunk(tileX / TileMap.CHUNK_TILES, tileY / TileMap.CHUNK_TILES);
+		if (chunk == null) {
+			return true;
+		}
+		int bit = (tileY % TileMap.CHUNK_TILES) * TileMap.CHUNK_TILES + tileX % TileMap.CHUNK_TILES;
+		return (chunk.bits[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Checks whether the chunk under the given position is loaded. Things in chunks that aren't loaded are held still (see <code>Updator.run()</code>), since every tile around them counts as solid.
+	 * 
+	 * @param x - The x position, in pixels
+	 * @param y - The y position, in pixels
+	 * @return true if the chunk under the position is in memory near the player, or the position is outside the map
+	 */
+	public boolean isLoaded(int x, int y) {
+		int chunkX = Math.floorDiv(x, map.getChunkSize()), chunkY = Math.floorDiv(y, map.getChunkSize());
+		if (chunkX < 0 || chunkY < 0 || chunkX >= map.getChunksWide() || chunkY >= map.getChunksHigh()) {
+			return true;
+		}
+		return windowChunk(chunkX, chunkY) != null;
+	}
+
+	/**
+	 * Gets a chunk from <code>window</code>.
+	 * 
+	 * @param chunkX - The column of the chunk
+	 * @param chunkY - The row of the chunk
+	 * @return the chunk, or null if it is outside the window or not loaded yet
+	 */
+	private Chunk windowChunk(int chunkX, int chunkY) {
+		int i = chunkX - windowX, j = chunkY - windowY;
+		int side = 2 * radius + 1;
+		if (i < 0 || j < 0 || i >= side || j >= side) {
+			return null;
+		}
+		return window[j * side + i];
+	}
+
+	/**
+	 * Gets the number of chunks currently held in memory.
+	 * 
+	 * @return the number of chunks in the cache
+	 */
+	public int getResidentCount() {
+		return cache.size();
+	}
+
+	/**
+	 * Gets the map being streamed.
+	 * 
+	 * @return this ChunkStreamer's TileMap
+	 */
+	public TileMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Stops the loader thread and closes the map's file.
+	 */
+	public void close() {
+		loader.shutdownNow();
+		try {
+			map.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Packs a chunk's coordinates into one key for the cache.
+	 * 
+	 * @param chunkX - The column of the chunk
+	 * @param chunkY - The row of the chunk
+	 * @return a key unique to the chunk
+	 */
+	private static Long key(int chunkX, int chunkY) {
+		return ((long) chunkY << 32) | (chunkX & 0xFFFFFFFFL);
+	}
+
+}
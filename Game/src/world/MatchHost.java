@@ -0,0 +1,162 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import backend.framework.Updator;
+import backend.user.Player;
+
+/**
+ * Runs many independent, headless Worlds in one JVM. Rather than giving each match a Timer (and so a thread) of its own, every match is ticked by one shared scheduler with a thread per core, so thousands of matches only cost a handful of
+ * threads. This class has its own threads, so it must deal with some concurrency issues.
+ * 
+ * @author Owen Roszkowski
+ */
+public class MatchHost {
+
+	/**
+	 * The scheduler that ticks every match hosted here.
+	 */
+	private final ScheduledExecutorService		scheduler;
+
+	/**
+	 * Every match currently being hosted.
+	 */
+	private final ArrayList<World>				matches;
+
+	/**
+	 * The scheduled ticking of each match in <code>matches</code>, at the same index. Needed to stop a single match.
+	 */
+	private final ArrayList<ScheduledFuture<?>>	ticks;
+
+	/**
+	 * Creates a new MatchHost with one ticking thread per available core.
+	 */
+	public MatchHost() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new MatchHost with the given number of ticking threads.
+	 * 
+	 * @param threads - How many threads to share between all matches
+	 */
+	public MatchHost(int threads) {
+		scheduler = Executors.newScheduledThreadPool(threads);
+		matches = new ArrayList<World>();
+		ticks = new ArrayList<ScheduledFuture<?>>();
+	}
+
+	/**
+	 * Creates a new headless World with a player in the middle of the arena, without starting it.
+	 * 
+	 * @return the newly created World, counting down to its first round
+	 */
+	public static World createMatch() {
+		World world = new World();
+		world.player = new Player(300, 300);
+		world.start();
+		return world;
+	}
+
+	/**
+	 * Creates a new match and starts ticking it every Updator.RUN_PERIOD.
+	 * 
+	 * @return the World of the new match
+	 */
+	public synchronized World startMatch() {
+		final World world = createMatch();
+		matches.add(world);
+		ticks.add(scheduler.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					world.tick();
+				} catch (RuntimeException e) {
+					// A tick that throws would otherwise silently cancel every tick of this match after it
+					e.printStackTrace();
+				}
+			}
+
+		}, 0, Updator.RUN_PERIOD, TimeUnit.MILLISECONDS));
+		return world;
+	}
+
+	/**
+	 * Stops ticking the given match and forgets about it.
+	 * 
+	 * @param world - The World of the match to stop
+	 */
+	public synchronized void stopMatch(World world) {
+		int i = matches.indexOf(world);
+		if (i >= 0) {
+			ticks.remove(i).cancel(false);
+			matches.remove(i).close();
+		}
+	}
+
+	/**
+	 * Gets the number of matches currently being hosted.
+	 * 
+	 * @return the number of running matches
+	 */
+	public synchronized int getMatchCount() {
+		return matches.size();
+	}
+
+	/**
+	 * Stops every match and the threads ticking them.
+	 */
+	public synchronized void shutdown() {
+		scheduler.shutdownNow();
+		for (World world : matches) {
+			world.close();
+		}
+		matches.clear();
+		ticks.clear();
+	}
+
+	/**
+	 * Measures how much heap an idle match takes up, then hosts that many matches for a few seconds to check they all keep ticking.
+	 * 
+	 * @param args - Optionally, the number of matches to host (defaults to 1000)
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+		World[] idle = new World[count];
+		long before = usedHeap();
+		for (int i = 0; i < count; i++) {
+			idle[i] = createMatch();
+		}
+		long after = usedHeap();
+		System.out.println("Idle matches: " + count + ", heap per match: " + (after - before) / count + " bytes");
+		idle = null;
+
+		MatchHost host = new MatchHost();
+		for (int i = 0; i < count; i++) {
+			host.startMatch();
+		}
+		Thread.sleep(5000);
+		System.out.println("Hosted matches still running: " + host.getMatchCount());
+		host.shutdown();
+	}
+
+	/**
+	 * Gets the amount of heap currently in use, after trying to collect garbage first so the number is stable.
+	 * 
+	 * @return the number of bytes of heap in use
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,25 @@
+package world;
+
+/**
+ * The stages a World goes through between rounds. A World is always in exactly one of these, and moves from one to the next on the game loop, one tick at a time, so nothing ever has to wait for a round to change.
+ * 
+ * @author Owen Roszkowski
+ */
+public enum RoundState {
+
+	/**
+	 * The round is being played: everything moves, and the round ends once every enemy is dead.
+	 */
+	PLAYING,
+
+	/**
+	 * Nothing moves while a countdown runs, so the player doesn't have to instantly react to the next round.
+	 */
+	COUNTDOWN,
+
+	/**
+	 * The next round's enemies are being added to the World.
+	 */
+	SPAWNING
+
+}
@@ -0,0 +1,318 @@
+package world;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A level stored on disk as a grid of square tiles, each of which is either solid or empty. The tiles are grouped into square chunks of TileMap.CHUNK_TILES by TileMap.CHUNK_TILES, and every chunk is stored as a fixed-size block of bits, so any
+ * chunk can be found and read straight out of the file without looking at any other. The file is read through memory-mapped regions, so reading a chunk never copies more of the file than the chunk itself, and the size of the map makes no
+ * difference to how much heap is used.
+ * 
+ * The file starts with a header of TileMap.HEADER_BYTES bytes (magic number, version, width and height in chunks, and tile size in pixels), followed by every chunk in row-major order.
+ * 
+ * @author Owen Roszkowski
+ */
+public class TileMap {
+
+	/**
+	 * The number of tiles along each side of a chunk.
+	 */
+	public static final int		CHUNK_TILES		= 32;
+
+	/**
+	 * The number of longs needed to hold one bit for every tile in a chunk.
+	 */
+	public static final int		CHUNK_LONGS		= CHUNK_TILES * CHUNK_TILES / 64;
+
+	/**
+	 * The number of bytes one chunk takes up in the file.
+	 */
+	public static final int		CHUNK_BYTES		= CHUNK_LONGS * 8;
+
+	/**
+	 * The number of bytes before the first chunk in the file. Padded out to the size of a chunk so that every chunk is aligned.
+	 */
+	public static final int		HEADER_BYTES	= CHUNK_BYTES;
+
+	/**
+	 * The first four bytes of every tile map file ("TMAP").
+	 */
+	private static final int	MAGIC			= 0x544D4150;
+
+	/**
+	 * The version of the file format this class reads and writes.
+	 */
+	private static final int	VERSION			= 1;
+
+	/**
+	 * The most bytes mapped into memory at once. Maps larger than this are mapped one region at a time, as they are needed.
+	 */
+	private static final long	REGION_BYTES	= CHUNK_BYTES * 512L * 1024L;
+
+	/**
+	 * The width of the map, in chunks.
+	 */
+	private final int			chunksWide;
+
+	/**
+	 * The height of the map, in chunks.
+	 */
+	private final int			chunksHigh;
+
+	/**
+	 * The length of a side of one tile, in pixels.
+	 */
+	private final int			tileSize;
+
+	/**
+	 * The open file the map is read from.
+	 */
+	private final FileChannel	channel;
+
+	/**
+	 * The regions of the file mapped into memory so far. A region stays null until a chunk inside it is first read.
+	 */
+	private final ByteBuffer[]	regions;
+
+	/**
+	 * Opens the tile map stored in the given file.
+	 * 
+	 * @param file - The file to read the map from
+	 * @return the opened TileMap
+	 * @throws IOException if the file can't be read, or isn't a tile map
+	 */
+	@SuppressWarnings("resource")
+	public static TileMap open(File file) throws IOException {
+		FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+			channel.close();
+			throw new IOException(file + " is not a version " + VERSION + " tile map");
+		}
+		return new TileMap(channel, header.getInt(8), header.getInt(12), header.getInt(16));
+	}
+
+	/**
+	 * Creates a new TileMap reading from an already-open file whose header has been checked.
+	 * 
+	 * @param channel - The open file
+	 * @param chunksWide - The width of the map, in chunks
+	 * @param chunksHigh - The height of the map, in chunks
+	 * @param tileSize - The length of a side of one tile, in pixels
+	 */
+	private TileMap(FileChannel channel, int chunksWide, int chunksHigh, int tileSize) {
+		this.channel = channel;
+		this.chunksWide = chunksWide;
+		this.chunksHigh = chunksHigh;
+		this.tileSize = tileSize;
+		regions = new ByteBuffer[(int) ((chunkOffset(chunksWide * chunksHigh) + REGION_BYTES - 1) / REGION_BYTES)];
+	}
+
+	/**
+	 * Reads the solid bits of one chunk out of the file. Only absolute reads are made on the mapped regions, so this is safe to call from several threads at once.
+	 * 
+	 * @param chunkX - The column of the chunk
+	 * @param chunkY - The row of the chunk
+	 * @param bits - The array to read the chunk's TileMap.CHUNK_LONGS longs into. Bit <code>n</code> is set if the tile at (n % CHUNK_TILES, n / CHUNK_TILES) within the chunk is solid.
+	 * @throws IOException if the file can't be mapped
+	 */
+	public void readChunk(int chunkX, int chunkY, long[] bits) throws IOException {
+		long offset = chunkOffset(chunkY * chunksWide + chunkX);
+		ByteBuffer region = region((int) (offset / REGION_BYTES));
+		int start = (int) (offset % REGION_BYTES);
+		for (int i = 0; i < CHUNK_LONGS; i++) {
+			bits[i] = region.getLong(start + i * 8);
+		}
+	}
+
+	/**
+	 * Checks whether a single tile is solid by reading it straight out of the file, without loading its chunk. Tiles outside the map count as solid.
+	 * 
+	 * @param tileX - The column of the tile
+	 * @param tileY - The row of the tile
+	 * @return true if the tile is solid, false otherwise
+	 * @throws IOException if the file can't be mapped
+	 */
+	public boolean isSolid(int tileX, int tileY) throws IOException {
+		if (tileX < 0 || tileY < 0 || tileX >= chunksWide * CHUNK_TILES || tileY >= chunksHigh * CHUNK_TILES) {
+			return true;
+		}
+		long offset = chunkOffset((tileY / CHUNK_TILES) * chunksWide + tileX / CHUNK_TILES);
+		int bit = (tileY % CHUNK_TILES) * CHUNK_TILES + tileX % CHUNK_TILES;
+		ByteBuffer region = region((int) (offset / REGION_BYTES));
+		long word = region.getLong((int) (offset % REGION_BYTES) + (bit >>> 6) * 8);
+		return (word & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Gets the given region of the file, mapping it into memory first if it hasn't been already.
+	 * 
+	 * @param index - The index of the region
+	 * @return the mapped region
+	 * @throws IOException if the file can't be mapped
+	 */
+	private synchronized ByteBuffer region(int index) throws IOException {
+		if (regions[index] == null) {
+			long start = index * REGION_BYTES;
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_BYTES, channel.size() - start));
+			regions[index] = map;
+		}
+		return regions[index];
+	}
+
+	/**
+	 * Gets where in the file a chunk starts.
+	 * 
+	 * @param chunk - The index of the chunk, in row-major order
+	 * @return the offset of the chunk, in bytes
+	 */
+	private static long chunkOffset(int chunk) {
+		return HEADER_BYTES + (long) chunk * CHUNK_BYTES;
+	}
+
+	/**
+	 * Closes the file this map is read from. Chunks can't be read after this.
+	 * 
+	 * @throws IOException if the file can't be closed
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/*
+	 * GETTERS & SETTERS
+	 */
+
+	/**
+	 * Gets the width of the map.
+	 * 
+	 * @return the width of the map, in chunks
+	 */
+	public int getChunksWide() {
+		return chunksWide;
+	}
+
+	/**
+	 * Gets the height of the map.
+	 * 
+	 * @return the height of the map, in chunks
+	 */
+	public int getChunksHigh() {
+		return chunksHigh;
+	}
+
+	/**
+	 * Gets the size of one tile.
+	 * 
+	 * @return the length of a side of one tile, in pixels
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Gets the size of one chunk.
+	 * 
+	 * @return the length of a side of one chunk, in pixels
+	 */
+	public int getChunkSize() {
+		return tileSize * CHUNK_TILES;
+	}
+
+	/**
+	 * Gets the width of the whole map.
+	 * 
+	 * @return the width of the map, in pixels
+	 */
+	public int getPixelWidth() {
+		return chunksWide * getChunkSize();
+	}
+
+	/**
+	 * Gets the height of the whole map.
+	 * 
+	 * @return the height of the map, in pixels
+	 */
+	public int getPixelHeight() {
+		return chunksHigh * getChunkSize();
+	}
+
+	/**
+	 * Decides which tiles of a map being written are solid.
+	 */
+	public interface TileSource {
+
+		/**
+		 * Checks whether the given tile should be solid.
+		 * 
+		 * @param tileX - The column of the tile
+		 * @param tileY - The row of the tile
+		 * @return true if the tile should be solid, false otherwise
+		 */
+		boolean isSolid(int tileX, int tileY);
+	}
+
+	/**
+	 * Writes a new tile map to the given file, one chunk at a time, so maps far bigger than the heap can be written.
+	 * 
+	 * @param file - The file to write the map to. Overwritten if it already exists.
+	 * @param chunksWide - The width of the map, in chunks
+	 * @param chunksHigh - The height of the map, in chunks
+	 * @param tileSize - The length of a side of one tile, in pixels
+	 * @param source - Decides which tiles are solid
+	 * @throws IOException if the file can't be written
+	 */
+	public static void write(File file, int chunksWide, int chunksHigh, int tileSize, TileSource source) throws IOException {
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.setLength(0);
+			FileChannel channel = out.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(chunksWide).putInt(chunksHigh).putInt(tileSize);
+			buffer.clear();
+			channel.write(buffer);
+			for (int chunkY = 0; chunkY < chunksHigh; chunkY++) {
+				for (int chunkX = 0; chunkX < chunksWide; chunkX++) {
+					buffer.clear();
+					for (int i = 0; i < CHUNK_LONGS; i++) {
+						long word = 0;
+						for (int b = 0; b < 64; b++) {
+							int bit = i * 64 + b;
+							if (source.isSolid(chunkX * CHUNK_TILES + bit % CHUNK_TILES, chunkY * CHUNK_TILES + bit / CHUNK_TILES)) {
+								word |= 1L << b;
+							}
+						}
+						buffer.putLong(word);
+					}
+					buffer.flip();
+					channel.write(buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes an example map: a square arena with a wall around the edge and pillars scattered evenly through it.
+	 * 
+	 * @param args - The file to write to, then optionally the width (and height) of the map in chunks (defaults to 16)
+	 */
+	public static void main(String[] args) throws IOException {
+		final int chunks = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		final int tiles = chunks * CHUNK_TILES;
+		write(new File(args[0]), chunks, chunks, 20, new TileSource() {
+
+			@Override
+			public boolean isSolid(int tileX, int tileY) {
+				if (tileX == 0 || tileY == 0 || tileX == tiles - 1 || tileY == tiles - 1) {
+					return true;
+				}
+				return tileX % 24 >= 11 && tileX % 24 <= 12 && tileY % 24 >= 11 && tileY % 24 <= 12;
+			}
+
+		});
+	}
+
+}
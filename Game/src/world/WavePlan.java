@@ -0,0 +1,60 @@
+package world;
+
+/**
+ * Where every enemy of one wave will be spawned, worked out ahead of time by a WavePlanner. Positions are the upper-left corners of the enemies.
+ * 
+ * @author Owen Roszkowski
+ */
+public class WavePlan {
+
+	/**
+	 * The x position of each enemy.
+	 */
+	private final double[]	xs;
+
+	/**
+	 * The y position of each enemy.
+	 */
+	private final double[]	ys;
+
+	/**
+	 * Creates a new WavePlan from the given positions.
+	 * 
+	 * @param xs - The x position of each enemy
+	 * @param ys - The y position of each enemy. Must be the same length as xs.
+	 */
+	WavePlan(double[] xs, double[] ys) {
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+	/**
+	 * Gets the number of enemies in the wave.
+	 * 
+	 * @return the size of the wave
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	/**
+	 * Gets the x position of one enemy.
+	 * 
+	 * @param i - The index of the enemy
+	 * @return the x position of the enemy's upper-left corner
+	 */
+	public double getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * Gets the y position of one enemy.
+	 * 
+	 * @param i - The index of the enemy
+	 * @return the y position of the enemy's upper-left corner
+	 */
+	public double getY(int i) {
+		return ys[i];
+	}
+
+}
@@ -0,0 +1,227 @@
+package world;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import backend.objects.npc.RangedEnemy;
+import backend.utility.DaemonThreadFactory;
+
+/**
+ * Works out where the enemies of the next wave will go, on a background thread, while the countdown before the wave is still running. Enemies are kept at least WavePlanner.SPACING apart (center to center) by looking them up in a coarse grid of
+ * the enemies placed so far, so placing each enemy only looks at its neighbours instead of every enemy already placed. This class has its own thread, shared by every World, so it must deal with some concurrency issues.
+ * 
+ * @author Owen Roszkowski
+ */
+public class WavePlanner {
+
+	/**
+	 * The closest two enemies are allowed to spawn to each other, center to center, in pixels.
+	 */
+	public static final int					SPACING			= 50;
+
+	/**
+	 * How far from the edge of the world enemies are kept when spawned, in pixels.
+	 */
+	private static final int				MARGIN			= 50;
+
+	/**
+	 * How many random positions are tried for one enemy before giving up on spacing it out. Stops a wave too big to fit from never finishing. The enemy then goes at the first position tried that wasn't inside a solid tile, or is left out
+	 * of the wave if every position tried was.
+	 */
+	private static final int				MAX_ATTEMPTS	= 1000;
+
+	/**
+	 * The one background thread every World's waves are planned on.
+	 */
+	private static final ExecutorService	PLANNER			= Executors.newSingleThreadExecutor(new DaemonThreadFactory("Wave Planner"));
+
+	/**
+	 * This class should not be instantiated.
+	 */
+	private WavePlanner() {
+	}
+
+	/**
+	 * Starts planning a wave on the background thread.
+	 * 
+	 * @param count - The number of enemies in the wave
+	 * @param width - The width of the world, in pixels
+	 * @param height - The height of the world, in pixels
+	 * @param seed - The seed for the positions, so the same seed always gives the same wave
+	 * @param taken - The centers of enemies already in the world, as x, y pairs. New enemies are spaced out from these too.
+	 * @param map - The TileMap the world is played on, so enemies aren't spawned inside solid tiles, or null if there isn't one
+	 * @return a Future which will hold the finished WavePlan
+	 */
+	public static Future<WavePlan> plan(final int count, final int width, final int height, final long seed, final double[] taken, final TileMap map) {
+		return PLANNER.submit(new Callable<WavePlan>() {
+
+			@Override
+			public WavePlan call() {
+				return planNow(count, width, height, seed, taken, map);
+			}
+
+		});
+	}
+
+	/**
+	 * Plans a wave on the calling thread.
+	 * 
+	 * @param count - The number of enemies in the wave
+	 * @param width - The width of the world, in pixels
+	 * @param height - The height of the world, in pixels
+	 * @param seed - The seed for the positions, so the same seed always gives the same wave
+	 * @param taken - The centers of enemies already in the world, as x, y pairs. New enemies are spaced out from these too.
+	 * @param map - The TileMap the world is played on, so enemies aren't spawned inside solid tiles, or null if there isn't one
+	 * @return the finished WavePlan, which may have fewer than count enemies if there was nowhere free to put some of them
+	 */
+	public static WavePlan planNow(int count, int width, int height, long seed, double[] taken, TileMap map) {
+		Random random = new Random(seed);
+		int columns = width / SPACING + 1, rows = height / SPACING + 1;
+		// Each cell of the grid holds a linked list of the enemies whose centers are in it, threaded through next[]
+		int[] head = new int[columns * rows];
+		Arrays.fill(head, -1);
+		int existing = taken.length / 2;
+		double[] centers = new double[(existing + count) * 2];
+		int[] next = new int[existing + count];
+		System.arraycopy(taken, 0, centers, 0, taken.length);
+		for (int i = 0; i < existing; i++) {
+			insert(i, centers, head, next, columns, rows);
+		}
+
+		double[] xs = new double[count], ys = new double[count];
+		int half = RangedEnemy.WIDTH / 2;
+		int placed = 0;
+		for (int n = 0; n < count; n++) {
+			double x = 0, y = 0, freeX = -1, freeY = -1;
+			boolean found = false;
+			for (int attempt = 0; attempt < MAX_ATTEMPTS && !found; attempt++) {
+				x = MARGIN + random.nextDouble() * (width - 2 * MARGIN);
+				y = MARGIN + random.nextDouble() * (height - 2 * MARGIN);
+				if (inSolidTile(map, (int) x, (int) y)) {
+					continue;
+				}
+				found = !crowded(x + half, y + half, centers, head, next, columns, rows);
+				if (freeX < 0) {
+					freeX = x;
+					freeY = y;
+				}
+			}
+			if (!found) {
+				if (freeX < 0) {
+					// Every position tried was inside a wall, so leave this enemy out rather than spawn it in one
+					continue;
+				}
+				x = freeX;
+				y = freeY;
+			}
+			xs[placed] = x;
+			ys[placed] = y;
+			int i = existing + placed++;
+			centers[i * 2] = x + half;
+			centers[i * 2 + 1] = y + half;
+			insert(i, centers, head, next, columns, rows);
+		}
+		return new WavePlan(Arrays.copyOf(xs, placed), Arrays.copyOf(ys, placed));
+	}
+
+	/**
+	 * Adds an enemy to the grid.
+	 * 
+	 * @param i - The index of the enemy in centers
+	 * @param centers - The centers of every enemy so far, as x, y pairs
+	 * @param head - The first enemy in each cell, or -1
+	 * @param next - The next enemy in the same cell as each enemy, or -1
+	 * @param columns - The number of columns in the grid
+	 * @param rows - The number of rows in the grid
+	 */
+	private static void insert(int i, double[] centers, int[] head, int[] next, int columns, int rows) {
+		int cell = cell(centers[i * 2], centers[i * 2 + 1], columns, rows);
+		next[i] = head[cell];
+		head[cell] = i;
+	}
+
+	/**
+	 * Checks whether any enemy in the grid is closer than WavePlanner.SPACING to the given center. Since the cells are as big as the spacing, only the 3 by 3 cells around the center need to be looked at.
+	 * 
+	 * @param x - The x position of the center to check
+	 * @param y - The y position of the center to check
+	 * @param centers - The centers of every enemy so far, as x, y pairs
+	 * @param head - The first enemy in each cell, or -1
+	 * @param next - The next enemy in the same cell as each enemy, or -1
+	 * @param columns - The number of columns in the grid
+	 * @param rows - The number of rows in the grid
+	 * @return true if some enemy is too close, false otherwise
+	 */
+	private static boolean crowded(double x, double y, double[] centers, int[] head, int[] next, int columns, int rows) {
+		int column = clamp((int) (x / SPACING), columns), row = clamp((int) (y / SPACING), rows);
+		for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+			for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+				for (int i = head[r * columns + c]; i >= 0; i = next[i]) {
+					double dx = centers[i * 2] - x, dy = centers[i * 2 + 1] - y;
+					if (dx * dx + dy * dy < SPACING * SPACING) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether an enemy at the given position would be inside a solid tile. Reads straight from the map, so it works anywhere in the world, loaded or not.
+	 * 
+	 * @param map - The TileMap to check, or null if there isn't one
+	 * @param x - The x position of the enemy's upper-left corner
+	 * @param y - The y position of the enemy's upper-left corner
+	 * @return true if any tile under the enemy is solid (or can't be read), false otherwise
+	 */
+	private static boolean inSolidTile(TileMap map, int x, int y) {
+		if (map == null) {
+			return false;
+		}
+		int size = map.getTileSize();
+		try {
+			for (int tileY = y / size; tileY * size < y + RangedEnemy.HEIGHT; tileY++) {
+				for (int tileX = x / size; tileX * size < x + RangedEnemy.WIDTH; tileX++) {
+					if (map.isSolid(tileX, tileY)) {
+						return true;
+					}
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the grid cell the given point is in.
+	 * 
+	 * @param x - The x position of the point
+	 * @param y - The y position of the point
+	 * @param columns - The number of columns in the grid
+	 * @param rows - The number of rows in the grid
+	 * @return the index of the cell
+	 */
+	private static int cell(double x, double y, int columns, int rows) {
+		return clamp((int) (y / SPACING), rows) * columns + clamp((int) (x / SPACING), columns);
+	}
+
+	/**
+	 * Keeps a grid coordinate inside the grid.
+	 * 
+	 * @param value - The coordinate
+	 * @param count - The number of columns or rows in the grid
+	 * @return the coordinate, between 0 and count - 1
+	 */
+	private static int clamp(int value, int count) {
+		return Math.max(0, Math.min(count - 1, value));
+	}
+
+}
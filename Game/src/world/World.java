@@ -1,64 +1,365 @@
 package world;
 
-import java.awt.BorderLayout;
+import java.awt.Color;
 import java.util.ArrayList;
-import java.util.Timer;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import backend.framework.Camera;
+import backend.framework.CollisionGrid;
+import backend.framework.EntityRegistry;
+import backend.framework.FrameExchange;
+import backend.framework.InputQueue;
+import backend.framework.ParticleSystem;
+import backend.framework.PerfStats;
+import backend.framework.RenderFrame;
+import backend.framework.SightLines;
+import backend.framework.SpatialGrid;
+import backend.framework.TimerWheel;
+import backend.framework.TickGovernor;
 import backend.framework.Updator;
 import backend.objects.GameObject;
 import backend.objects.ImmovableObject;
+import backend.objects.npc.EnemyTuning;
 import backend.objects.npc.RangedEnemy;
+import backend.user.Bot;
 import backend.user.Player;
-import frontend.CountdownDrawer;
 import frontend.MainFrame;
-import frontend.ScreenDrawer;
 
 /**
- * This class should not be instantiated. All methods needed are static, to ensure that only one World ever exists. This class basically takes control of everything from MainFrame.java and runs things by incrementing rounds, spawning enemies, and
- * starting and stopping the game engine's updator. This class has its own thread, so it must deal with some concurrency issues.
+ * One match of the game. Every GameObject belongs to exactly one World, and reaches its World through <code>GameObject.getWorld()</code> rather than through anything static, so any number of Worlds can run side by side in the same JVM (see
+ * MatchHost.java). A World runs its rounds as a small state machine (see RoundState.java) which only ever moves forward when <code>tick()</code> is called, so changing rounds never blocks whoever is ticking it. A World with a MainFrame
+ * publishes a RenderFrame every tick for its ScreenDrawer; a headless one doesn't. This class is ticked on one thread and drawn from another, so it must deal with some concurrency issues.
  * 
  * @author Owen Roszkowski
  */
 public class World {
 	/**
-	 * A list of all GameObjects currently in the world.
+	 * Every GameObject currently in the world, each with a handle it can be found by (see EntityRegistry.java).
 	 */
-	private static ArrayList<GameObject>	gameObjects	= new ArrayList<GameObject>();
+	private final EntityRegistry		entities		= new EntityRegistry();
+
+	/**
+	 * A list of all GameObjects currently in the world. The same list <code>entities</code> keeps them in, so removing one moves the last GameObject into its place.
+	 */
+	private final ArrayList<GameObject>	gameObjects		= entities.getObjects();
 
 	/**
 	 * An lock object meant solely to deal with concurrency issues of the gameObjects list.
 	 */
-	private static final Object				lock1		= new Object();
+	private final Object				lock1			= new Object();
 
 	/**
 	 * A reference to the Player object in the world. There should only be one ever.
 	 */
-	public static Player					player;
+	public Player						player;
+
+	/**
+	 * The Updator which updates every GameObject in this World during each tick of a round.
+	 */
+	private final Updator				updator;
+
+	/**
+	 * A reference to the MainFrame this World is shown in. Null if this World is headless.
+	 */
+	public MainFrame					frame;
+
+	/**
+	 * A number representing what round the game is currently on. Right now, it just spawns <code>round</code> enemies every round.
+	 */
+	public int							round			= 0;
+
+	/**
+	 * What stage of the round this World is in.
+	 */
+	private RoundState					state;
+
+	/**
+	 * How long the countdown between rounds lasts, in ticks. That is five seconds of game time.
+	 */
+	public static final int				COUNTDOWN_TICKS	= (int) (5000 / Updator.RUN_PERIOD);
+
+	/**
+	 * The number of ticks left in the current countdown.
+	 */
+	private int							countdownTicks;
+
+	/**
+	 * The most enemies added to the World in a single tick. A bigger wave is fed in over several ticks, so no one tick has to pay for all of it.
+	 */
+	public static final int				SPAWNS_PER_TICK	= 4;
+
+	/**
+	 * The random number generator everything random in this World should use, so a World can be replayed from its seed.
+	 */
+	private final Random				random			= new Random();
+
+	/**
+	 * The next wave, being planned on a background thread during the countdown. Null if no wave is being planned.
+	 */
+	private Future<WavePlan>			nextWave;
+
+	/**
+	 * The wave currently being fed into the World. Null before the first wave.
+	 */
+	private WavePlan					wave;
+
+	/**
+	 * The number of enemies of <code>wave</code> added to the World so far.
+	 */
+	private int							spawned;
+
+	/**
+	 * The triple buffer through which the simulation hands finished RenderFrames to the ScreenDrawer. Null if this World is headless, since nothing would ever draw from it.
+	 */
+	public final FrameExchange			frames;
+
+	/**
+	 * The number of frames published so far. Used to stamp each RenderFrame.
+	 */
+	private long						frameCount		= 0;
+
+	/**
+	 * The length of a side of one cell of <code>grid</code>, in pixels.
+	 */
+	private static final int			CELL_SIZE		= 64;
+
+	/**
+	 * The width of this World, in pixels. May well be larger than the window it is shown in.
+	 */
+	private final int					width;
+
+	/**
+	 * The height of this World, in pixels. May well be larger than the window it is shown in.
+	 */
+	private final int					height;
+
+	/**
+	 * The view of this World which is shown onscreen. It follows the player around. Null if this World is headless.
+	 */
+	public final Camera					camera;
+
+	/**
+	 * The particles thrown out by hits and kills in this World, kept apart from its GameObjects. Null if this World is headless, since particles are only for show.
+	 */
+	public final ParticleSystem			particles;
+
+	/**
+	 * A grid of every GameObject in this World, used to only draw the ones in view. Null if this World is headless.
+	 */
+	private final SpatialGrid			grid;
+
+	/**
+	 * How many chunks out from the player's chunk, in every direction, are kept loaded when playing on a TileMap.
+	 */
+	private static final int			CHUNK_RADIUS	= 2;
+
+	/**
+	 * The most chunks of a TileMap kept in memory at once.
+	 */
+	private static final int			CHUNK_CAPACITY	= (2 * CHUNK_RADIUS + 3) * (2 * CHUNK_RADIUS + 3);
+
+	/**
+	 * The color solid tiles are drawn in. The same as an ImmovableObject.
+	 */
+	private static final int			TILE_COLOR		= Color.GRAY.getRGB();
+
+	/**
+	 * Streams the chunks of this World's TileMap in and out around the player. Null if this World's level is just four walls.
+	 */
+	public final ChunkStreamer			tiles;
+
+	/**
+	 * A grid of which parts of this World are covered by ImmovableObjects, kept up to date as they are added and removed. Null until the first ImmovableObject is added.
+	 */
+	public CollisionGrid				walls;
+
+	/**
+	 * Questions of who can see what asked during the current tick, answered all at once by the Updator against <code>walls</code> and <code>tiles</code>.
+	 */
+	public final SightLines				sightLines		= new SightLines();
+
+	/**
+	 * Live numbers about how well this World is running, for the debug overlay. Only ever written by the thread ticking this World.
+	 */
+	public final PerfStats				stats			= new PerfStats();
+
+	/**
+	 * Every timer set by a GameObject in this World, on a clock that only moves while a round is being played. Only ever used by the thread ticking this World.
+	 */
+	public final TimerWheel				timers			= new TimerWheel();
+
+	/**
+	 * Key events from the window waiting to be applied to the player, and how long they take to get onto the screen. Filled by MainFrame's listener, and emptied at the start of every tick. Null if this
+	 * World has no MainFrame, since nothing would ever fill it.
+	 */
+	public final InputQueue				input;
 
 	/**
-	 * A reference to the Updator currently being run repeatedly. Since it is a TimerTask, this reference will change many times to different instances of Updator.java.
+	 * Sheds load when ticks of a round run over budget, and gives it back once they don't. Only ever used by the thread ticking this World.
 	 */
-	public static Updator					updator;
+	public final TickGovernor			governor		= new TickGovernor(Updator.RUN_PERIOD * 1000000L);
 
 	/**
-	 * A reference to the ScreenDrawer object which is in charge of drawing everything onscreen (aka everything in gameObjects).
+	 * The number of ticks this World has been ticked so far.
 	 */
-	public static ScreenDrawer				drawer;
+	private long						tickCount		= 0;
 
 	/**
-	 * A reference to the MainFrame class. Needed for adding and removing CountdownTimers
+	 * The number of GameObjects ever added to this World.
 	 */
-	public static MainFrame					frame;
+	private long						objectsAdded	= 0;
 
 	/**
-	 * A number representing what round the game is currently on. Right now, it just spawns <code>round + 1</code> enemies every new round.
+	 * The number of enemies the player has killed in this World.
 	 */
-	public static int						round		= 0;
+	private int							enemiesKilled	= 0;
 
 	/**
-	 * A reference to the Timer object which continually runs an Updator instance. Necessary for stopping and starting the Updator's looping.
+	 * Plays as the player instead of the keyboard, such as in a load test. Null if the player is controlled by the keyboard (or not at all).
 	 */
-	public static Timer						timer;
+	private Bot							bot;
+
+	/**
+	 * How many enemies every wave has, or 0 for the normal <code>round + 1</code>.
+	 */
+	private int							waveSize		= 0;
+
+	/**
+	 * Whether the player and enemies ignore damage, so that a load test can keep everything alive as long as it needs.
+	 */
+	private boolean						immortal		= false;
+
+	/**
+	 * Whether only the player ignores damage, so that a benchmark can play every round it asks for while enemies still die and waves still end.
+	 */
+	private boolean						playerImmortal	= false;
+
+	/**
+	 * Whether this World is being fast-forwarded (see <code>setFastForward()</code>).
+	 */
+	private boolean						fastForward		= false;
+
+	/**
+	 * The numbers every RangedEnemy in this World plays by.
+	 */
+	private EnemyTuning					tuning			= EnemyTuning.DEFAULT;
+
+	/**
+	 * Creates a new headless World. Nothing is drawn, and nothing ticks it until someone else, such as a MatchHost, starts calling <code>tick()</code>.
+	 */
+	public World() {
+		this(MainFrame.FRAME_SIZE, MainFrame.FRAME_SIZE);
+	}
+
+	/**
+	 * Creates a new headless World of the given size.
+	 * 
+	 * @param width - The width of the World, in pixels
+	 * @param height - The height of the World, in pixels
+	 */
+	public World(int width, int height) {
+		this(null, width, height);
+	}
+
+	/**
+	 * Creates a new World which is shown in the given MainFrame, and is exactly as big as the window.
+	 * 
+	 * @param frame - The MainFrame this World is played in
+	 */
+	public World(MainFrame frame) {
+		this(frame, MainFrame.FRAME_SIZE, MainFrame.FRAME_SIZE);
+	}
+
+	/**
+	 * Creates a new World of the given size which is shown in the given MainFrame, or a headless one if there is no MainFrame.
+	 * 
+	 * @param frame - The MainFrame this World is played in, or null
+	 * @param width - The width of the World, in pixels
+	 * @param height - The height of the World, in pixels
+	 */
+	public World(MainFrame frame, int width, int height) {
+		this(frame, width, height, null);
+	}
+
+	/**
+	 * Creates a new headless World whose level is the given TileMap.
+	 * 
+	 * @param map - The TileMap to play on
+	 */
+	public World(TileMap map) {
+		this(null, map);
+	}
+
+	/**
+	 * Creates a new World whose level is the given TileMap, which is shown in the given MainFrame, or a headless one if there is no MainFrame. The World is exactly as big as the map.
+	 * 
+	 * @param frame - The MainFrame this World is played in, or null
+	 * @param map - The TileMap to play on
+	 */
+	public World(MainFrame frame, TileMap map) {
+		this(frame, map.getPixelWidth(), map.getPixelHeight(), map);
+	}
+
+	/**
+	 * Creates a new World with everything given.
+	 * 
+	 * @param frame - The MainFrame this World is played in, or null
+	 * @param width - The width of the World, in pixels
+	 * @param height - The height of the World, in pixels
+	 * @param map - The TileMap to play on, or null to just have four walls
+	 */
+	private World(MainFrame frame, int width, int height, TileMap map) {
+		this.frame = frame;
+		this.width = width;
+		this.height = height;
+		updator = new Updator(this);
+		state = RoundState.COUNTDOWN;
+		countdownTicks = 0;
+		tiles = (map == null) ? null : new ChunkStreamer(map, CHUNK_RADIUS, CHUNK_CAPACITY);
+		if (frame == null) {
+			frames = null;
+			camera = null;
+			particles = null;
+			grid = null;
+			input = null;
+		} else {
+			frames = new FrameExchange();
+			camera = new Camera(MainFrame.FRAME_SIZE, MainFrame.FRAME_SIZE);
+			particles = new ParticleSystem();
+			grid = new SpatialGrid(width, height, CELL_SIZE);
+			input = new InputQueue();
+		}
+	}
+
+	/**
+	 * Gets the width of this World.
+	 * 
+	 * @return the width of this World, in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the height of this World.
+	 * 
+	 * @return the height of this World, in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Checks whether this World is shown to a user or not.
+	 * 
+	 * @return true if this World has no MainFrame, false otherwise
+	 */
+	public boolean isHeadless() {
+		return frame == null;
+	}
 
 	/**
 	 * Gets all GameObjects in the world at the moment. This includes things like walls, the player, enemies, and projectiles.
@@ -66,20 +367,62 @@ public class World {
 	 * @return an ArrayList of type GameObject which contains references to all onscreen objects
 	 */
 	@SuppressWarnings("unchecked")
-	public static ArrayList<GameObject> getGameObjects() {
+	public ArrayList<GameObject> getGameObjects() {
 		synchronized (lock1) {
 			return (ArrayList<GameObject>) gameObjects.clone();
 		}
 	}
 
+	/**
+	 * Copies every GameObject in the world at the moment into the given list, replacing whatever was in it. Unlike <code>getGameObjects()</code>, this doesn't make a new list, so it can be called every tick without making any garbage.
+	 * 
+	 * @param into - The list to fill
+	 */
+	public void copyGameObjects(ArrayList<GameObject> into) {
+		synchronized (lock1) {
+			into.clear();
+			for (int i = 0; i < gameObjects.size(); i++) {
+				into.add(gameObjects.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of GameObjects in the world at the moment, without copying them.
+	 * 
+	 * @return the number of GameObjects in this World
+	 */
+	public int getObjectCount() {
+		synchronized (lock1) {
+			return gameObjects.size();
+		}
+	}
+
+	/**
+	 * Finds a GameObject in the world by its handle.
+	 * 
+	 * @param handle - The handle of the GameObject, from <code>GameObject.getHandle()</code>
+	 * @return the GameObject, or null if it has been removed from the world
+	 */
+	public GameObject getGameObject(int handle) {
+		synchronized (lock1) {
+			return entities.get(handle);
+		}
+	}
+
 	/**
 	 * Removes an object from existence in the world.
 	 * 
 	 * @param obj - The GameObject to be removed
 	 */
-	public static void removeGameObject(GameObject obj) {
+	public void removeGameObject(GameObject obj) {
 		synchronized (lock1) {
-			gameObjects.remove(obj);
+			if (!entities.remove(obj)) {
+				return;
+			}
+			if (walls != null && ImmovableObject.class.isInstance(obj)) {
+				walls.rebuild(gameObjects);
+			}
 		}
 	}
 
@@ -88,90 +431,409 @@ public class World {
 	 * 
 	 * @param obj - The GameObject to be added
 	 */
-	public static synchronized void addGameObject(GameObject obj) {
+	public synchronized void addGameObject(GameObject obj) {
+		obj.setWorld(this);
+		objectsAdded++;
+		synchronized (lock1) {
+			entities.add(obj);
+			if (ImmovableObject.class.isInstance(obj)) {
+				if (walls == null) {
+					walls = new CollisionGrid(width, height, CollisionGrid.DEFAULT_CELL_SIZE);
+				}
+				walls.add((ImmovableObject) obj);
+			}
+		}
+	}
+
+	/**
+	 * Moves the camera to follow the player, then records every GameObject in its view, along with the HUD, into a new RenderFrame and publishes it for the ScreenDrawer. The SpatialGrid is rebuilt from every GameObject first, which is a
+	 * quick pass over flat arrays but still grows with the size of the world; after that only the objects near the view are looked at, so the costly part, recording shapes, depends on what is onscreen rather than on how much is in the
+	 * world. Must only be called from the thread running the simulation, once the tick's updates are finished.
+	 */
+	private void publishFrame() {
+		if (frames == null || fastForward) {
+			return;
+		}
+		RenderFrame frame = frames.beginFrame(frameCount++);
+		camera.follow(player, width, height);
+		frame.setCamera(camera.getX(), camera.getY());
+		if (tiles != null) {
+			renderTiles(frame);
+		}
 		synchronized (lock1) {
-			gameObjects.add(obj);
-		}
-	}
-
-	/**
-	 * Changes the current round from <code>round</code> to <code>round + 1</code>, and spawns <code>round + 1</code> enemies. It then stops the game's refreshing and starts a five-second countdown until resuming play.
-	 */
-	public static void incrementRound() {
-		if (round == 0) {
-			addGameObject(player);
-			addGameObject(new ImmovableObject(0, 0, MainFrame.FRAME_SIZE, 20));
-			addGameObject(new ImmovableObject(0, MainFrame.FRAME_SIZE - 20, MainFrame.FRAME_SIZE, 20));
-			addGameObject(new ImmovableObject(MainFrame.FRAME_SIZE - 20, 0, 20, MainFrame.FRAME_SIZE));
-			addGameObject(new ImmovableObject(0, 0, 20, MainFrame.FRAME_SIZE));
-			CountdownDrawer cd = new CountdownDrawer(5);
-			spawn("rangedEnemy", round + 1);
-			drawer.update(drawer.getGraphics());
-			frame.getContentPane().add(cd, BorderLayout.CENTER);
-			frame.getContentPane().setComponentZOrder(cd, 0);
-			frame.getContentPane().setComponentZOrder(drawer, 1);
-			frame.validate();
-			frame.pack();
-
-			Thread cdThread = new Thread(cd);
-			try {
-				cdThread.start();
-				cdThread.join();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+			grid.rebuild(gameObjects);
+		}
+		int visible = grid.query(camera.getX(), camera.getY(), camera.getViewWidth(), camera.getViewHeight());
+		for (int i = 0; i < visible; i++) {
+			grid.getResult(i).render(frame);
+		}
+		particles.render(frame, camera.getX(), camera.getY(), camera.getViewWidth(), camera.getViewHeight());
+		frame.setHealth(player.getHealth());
+		frame.setCountdown(getCountdownSeconds());
+		frame.getStats().copyFrom(stats);
+		frames.publish();
+		input.published(frame.getTick());
+	}
+
+	/**
+	 * Records the solid tiles in view into the given frame. Each row of tiles is recorded as a few long rectangles rather than a rectangle per tile.
+	 * 
+	 * @param frame - The RenderFrame to record into
+	 */
+	private void renderTiles(RenderFrame frame) {
+		int size = tiles.getMap().getTileSize();
+		int left = Math.max(0, camera.getX() / size), right = (Math.min(width, camera.getX() + camera.getViewWidth()) - 1) / size;
+		int top = Math.max(0, camera.getY() / size), bottom = (Math.min(height, camera.getY() + camera.getViewHeight()) - 1) / size;
+		for (int tileY = top; tileY <= bottom; tileY++) {
+			int start = -1;
+			for (int tileX = left; tileX <= right + 1; tileX++) {
+				boolean solid = tileX <= right && tiles.isSolidCell(tileX, tileY);
+				if (solid && start < 0) {
+					start = tileX;
+				} else if (!solid && start >= 0) {
+					frame.add(RenderFrame.RECT, start * size, tileY * size, (tileX - start) * size, size, TILE_COLOR, 1);
+					start = -1;
+				}
 			}
-			frame.getContentPane().remove(cd);
-			new Thread(drawer).start();
-			timer = new Timer("Updator Timer");
-			timer.scheduleAtFixedRate(updator, 0, Updator.RUN_PERIOD);
+		}
+	}
+
+	/**
+	 * Sets up the level and the player, then starts the countdown to the first round. Nothing happens after this until <code>tick()</code> is called, which is up to whoever owns this World (a GameLoop, a MatchHost, or anything else).
+	 */
+	public void start() {
+		addGameObject(player);
+		addLevel();
+		beginCountdown();
+		publishFrame();
+	}
+
+	/**
+	 * Advances this World by one tick. What that means depends on the state of the round: while playing, every GameObject is updated; during the countdown, only the countdown moves (while the next wave is planned in the background); and
+	 * when spawning, the planned wave is picked up, and its enemies are fed in over the first few ticks of the round. A new
+	 * RenderFrame is published every tick, whatever the state, unless this World is being fast-forwarded. Must only ever be called from one thread at a time.
+	 */
+	public void tick() {
+		long start = System.nanoTime();
+		tickCount++;
+		if (player != null && input != null) {
+			input.apply(player, frameCount);
+		}
+		if (tiles != null) {
+			tiles.update(player.getX(), player.getY());
+		}
+		switch (state) {
+		case PLAYING:
+			if (bot != null) {
+				bot.act(player, tickCount);
+			}
+			feedSpawns();
+			updator.run();
+			break;
+		case COUNTDOWN:
+			countdownTicks--;
+			if (countdownTicks <= 0) {
+				state = RoundState.SPAWNING;
+			}
+			break;
+		case SPAWNING:
+			// Fast-forwarding could tick through thousands of empty ticks while the planner works, so it waits for the plan instead
+			if (fastForward || nextWave.isDone()) {
+				try {
+					wave = nextWave.get();
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+					wave = WavePlanner.planNow(nextWaveSize(), width, height, random.nextLong(), new double[0], tiles == null ? null : tiles.getMap());
+				}
+				nextWave = null;
+				spawned = 0;
+				round++;
+				state = RoundState.PLAYING;
+			}
+			break;
+		}
+		if (particles != null) {
+			particles.update();
+		}
+		publishFrame();
+		long nanos = System.nanoTime() - start;
+		stats.tickFinished(nanos);
+		if (state == RoundState.PLAYING) {
+			governor.tickFinished(nanos);
+			stats.setDegradation(governor.getLevel(), governor.getChanges());
+		}
+	}
 
+	/**
+	 * Throws out a burst of particles from the middle of a GameObject, if this World has particles and isn't being fast-forwarded.
+	 * 
+	 * @param source - The GameObject the particles come from
+	 * @param count - The number of particles
+	 * @param rgb - The RGB color of the particles
+	 */
+	public void burst(GameObject source, int count, int rgb) {
+		if (particles != null && !fastForward) {
+			particles.burst(source.getX() + source.getWidth() / 2, source.getY() + source.getHeight() / 2, count, rgb, ParticleSystem.BURST_SPEED, ParticleSystem.BURST_LIFETIME);
+		}
+	}
+
+	/**
+	 * Counts an enemy killed by the player. Called by a RangedEnemy as it dies.
+	 */
+	public void enemyKilled() {
+		enemiesKilled++;
+	}
+
+	/**
+	 * Ends the current round, starting the countdown to the next one. Called by the Updator once every enemy is dead. Does nothing if some of the wave still hasn't been spawned.
+	 */
+	public void endRound() {
+		if (wave != null && spawned < wave.size()) {
+			return;
+		}
+		beginCountdown();
+	}
+
+	/**
+	 * Starts a new countdown of World.COUNTDOWN_TICKS, and starts planning the next wave in the background while it runs. While fast-forwarding, the wave is planned straight away on this thread instead, since the countdown goes by too fast
+	 * to hide the planning behind, and many Worlds fast-forwarding at once would all be waiting on the one planner thread.
+	 */
+	private void beginCountdown() {
+		state = RoundState.COUNTDOWN;
+		countdownTicks = COUNTDOWN_TICKS;
+		if (fastForward) {
+			nextWave = CompletableFuture.completedFuture(WavePlanner.planNow(nextWaveSize(), width, height, random.nextLong(), enemyCenters(), tiles == null ? null : tiles.getMap()));
 		} else {
-			timer.cancel();
-			timer = new Timer("Updator Timer");
-			CountdownDrawer cd = new CountdownDrawer(5);
-			frame.getContentPane().add(cd, BorderLayout.CENTER);
-			frame.getContentPane().setComponentZOrder(cd, 0);
-			frame.pack();
-
-			new Thread(drawer).start();
-			Thread cdThread = new Thread(cd);
-			try {
-				cdThread.start();
-				cdThread.join();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+			nextWave = WavePlanner.plan(nextWaveSize(), width, height, random.nextLong(), enemyCenters(), tiles == null ? null : tiles.getMap());
+		}
+	}
+
+	/**
+	 * Gets the number of enemies in the next wave.
+	 * 
+	 * @return the wave size set by <code>setWaveSize()</code>, or <code>round + 1</code> if there is none
+	 */
+	private int nextWaveSize() {
+		return waveSize > 0 ? waveSize : round + 1;
+	}
+
+	/**
+	 * Adds up to World.SPAWNS_PER_TICK more enemies of the current wave to the World. While the governor is deferring spawns, nothing more is added until every enemy already in the World is dead.
+	 */
+	private void feedSpawns() {
+		if (wave == null || (governor.defersSpawns() && stats.getEnemies() > 0)) {
+			return;
+		}
+		for (int n = 0; n < SPAWNS_PER_TICK && spawned < wave.size(); n++, spawned++) {
+			addGameObject(new RangedEnemy(wave.getX(spawned), wave.getY(spawned)));
+		}
+	}
+
+	/**
+	 * Gets the centers of every enemy currently in the World, so a new wave can be spaced out from them.
+	 * 
+	 * @return the centers of every RangedEnemy, as x, y pairs
+	 */
+	private double[] enemyCenters() {
+		synchronized (lock1) {
+			int count = 0;
+			for (GameObject obj : gameObjects) {
+				if (RangedEnemy.class.isInstance(obj)) {
+					count++;
+				}
 			}
-			frame.getContentPane().remove(cd);
-			spawn("rangedEnemy", round + 1);
-			updator = new Updator();
-			timer.schedule(updator, 0, (long) (10));
-		}
-		round++;
-	}
-
-	/**
-	 * Adds a new object to the world.
-	 * 
-	 * @param type - A String representing the type of GameObject to be added
-	 * @param number - The number of this type of GameObject to add.
-	 */
-	public static synchronized void spawn(String type, int number) {
-		// TODO: make this spawn a specific type of thing
-		for (int i = 0; i < number; i++) {
-			if (type.equals("rangedEnemy")) {
-				boolean flag = false;
-				RangedEnemy enemy = null;
-				while (flag == false) {
-					enemy = new RangedEnemy(50 + Math.random() * 500, 50 + Math.random() * 500);
-					flag = true;
-					for (GameObject gObj : gameObjects) {
-						if (RangedEnemy.class.isInstance(gObj) && gObj.getDistanceVector(enemy).getMagnitude() < 50) {
-							flag = false;
-						}
-					}
+			double[] centers = new double[count * 2];
+			int i = 0;
+			for (GameObject obj : gameObjects) {
+				if (RangedEnemy.class.isInstance(obj)) {
+					centers[i++] = obj.getX() + obj.getWidth() / 2.0;
+					centers[i++] = obj.getY() + obj.getHeight() / 2.0;
 				}
-				addGameObject(enemy);
 			}
+			return centers;
+		}
+	}
+
+	/**
+	 * Gets the random number generator everything random in this World should use.
+	 * 
+	 * @return this World's Random
+	 */
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * Seeds this World's random number generator, so that it plays out the same way every time. Should be called before <code>start()</code>.
+	 * 
+	 * @param seed - The seed to use
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Gets the number of ticks this World has been ticked so far.
+	 * 
+	 * @return the number of calls to <code>tick()</code>
+	 */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Gets the number of GameObjects ever added to this World, so that anyone measuring a tick can tell whether it made anything new.
+	 * 
+	 * @return the number of calls to <code>addGameObject()</code>
+	 */
+	public long getObjectsAdded() {
+		return objectsAdded;
+	}
+
+	/**
+	 * Gets the number of enemies the player has killed in this World.
+	 * 
+	 * @return the number of enemies killed so far, over every round
+	 */
+	public int getEnemiesKilled() {
+		return enemiesKilled;
+	}
+
+	/**
+	 * Sets the Bot that plays as the player. Should be called before <code>start()</code>.
+	 * 
+	 * @param bot - The Bot to play as the player, or null to leave the player alone
+	 */
+	public void setBot(Bot bot) {
+		this.bot = bot;
+	}
+
+	/**
+	 * Makes every wave from the next one on have exactly the given number of enemies, rather than <code>round + 1</code>. Should be called before <code>start()</code> to affect the first wave.
+	 * 
+	 * @param waveSize - The number of enemies per wave, or 0 to go back to <code>round + 1</code>
+	 */
+	public void setWaveSize(int waveSize) {
+		this.waveSize = waveSize;
+	}
+
+	/**
+	 * Checks whether the player and enemies in this World ignore damage.
+	 * 
+	 * @return true if nothing in this World can die from being hit, false otherwise
+	 */
+	public boolean isImmortal() {
+		return immortal;
+	}
+
+	/**
+	 * Sets whether the player and enemies in this World ignore damage. Projectiles still break on whatever they hit.
+	 * 
+	 * @param immortal - true to keep everything alive, false to play normally
+	 */
+	public void setImmortal(boolean immortal) {
+		this.immortal = immortal;
+	}
+
+	/**
+	 * Checks whether the player in this World ignores damage, whether or not the enemies do.
+	 * 
+	 * @return true if the player can't die from being hit, false otherwise
+	 */
+	public boolean isPlayerImmortal() {
+		return immortal || playerImmortal;
+	}
+
+	/**
+	 * Sets whether the player in this World ignores damage. Unlike <code>setImmortal()</code>, enemies can still be killed, so rounds still end.
+	 * 
+	 * @param playerImmortal - true to keep the player alive, false to play normally
+	 */
+	public void setPlayerImmortal(boolean playerImmortal) {
+		this.playerImmortal = playerImmortal;
+	}
+
+	/**
+	 * Checks whether this World is being fast-forwarded.
+	 * 
+	 * @return true if frames are skipped and wave plans waited for, false if this World is played in real time
+	 */
+	public boolean isFastForward() {
+		return fastForward;
+	}
+
+	/**
+	 * Sets whether this World is being fast-forwarded, ticked back to back as fast as it will go (as by a FastForward) rather than every Updator.RUN_PERIOD. While it is, no RenderFrames are published, each wave is planned on the ticking
+	 * thread rather than in the background, and the TickGovernor is turned off, since no tick can be late. Everything else happens exactly as it would in real time: the countdown between rounds is still
+	 * World.COUNTDOWN_TICKS of game time, it just goes by as fast as everything else.
+	 * 
+	 * @param fastForward - true to fast-forward, false to play in real time
+	 */
+	public void setFastForward(boolean fastForward) {
+		this.fastForward = fastForward;
+		governor.setEnabled(!fastForward);
+	}
+
+	/**
+	 * Gets the numbers every RangedEnemy in this World plays by.
+	 * 
+	 * @return this World's EnemyTuning, EnemyTuning.DEFAULT unless changed
+	 */
+	public EnemyTuning getTuning() {
+		return tuning;
+	}
+
+	/**
+	 * Sets the numbers every RangedEnemy in this World plays by. Enemies already in the World keep the numbers they were added with, so this should be called before <code>start()</code>.
+	 * 
+	 * @param tuning - The EnemyTuning to use
+	 */
+	public void setTuning(EnemyTuning tuning) {
+		this.tuning = tuning;
+	}
+
+	/**
+	 * Gets the state of the current round.
+	 * 
+	 * @return whether this World is playing, counting down, or spawning
+	 */
+	public RoundState getState() {
+		return state;
+	}
+
+	/**
+	 * Gets how long is left of the countdown between rounds, in whole seconds of game time (rounded up).
+	 * 
+	 * @return the seconds left on the countdown, or 0 if there is no countdown going on
+	 */
+	public int getCountdownSeconds() {
+		if (state != RoundState.COUNTDOWN) {
+			return 0;
+		}
+		long perSecond = 1000 / Updator.RUN_PERIOD;
+		return (int) ((countdownTicks + perSecond - 1) / perSecond);
+	}
+
+	/**
+	 * Stops anything this World has running in the background. The World can't be ticked after this.
+	 */
+	public void close() {
+		if (tiles != null) {
+			tiles.close();
+		}
+	}
+
+	/**
+	 * Sets up the level: the four walls around the edge of the arena, or if this World has a TileMap, the chunks around the player.
+	 */
+	private void addLevel() {
+		if (tiles != null) {
+			tiles.loadNow(player.getX(), player.getY());
+			return;
 		}
+		addGameObject(new ImmovableObject(0, 0, width, 20));
+		addGameObject(new ImmovableObject(0, height - 20, width, 20));
+		addGameObject(new ImmovableObject(width - 20, 0, 20, height));
+		addGameObject(new ImmovableObject(0, 0, 20, height));
 	}
 }